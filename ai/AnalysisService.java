@@ -0,0 +1,342 @@
+package ai;
+
+import model.Board;
+import model.BoardCell;
+import model.MoveOutcome;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A local service analyzing positions given as move sequences, with a cache of recent results.
+ *
+ * <p>A position is described by the columns (1-indexed) played from an empty board, such as
+ * {@code "4453"}. It is replayed onto a {@link Board}, and every legal column is scored by
+ * searching the position after it with a {@link NegamaxStrategy} using a
+ * {@link ThreatEvaluator}, {@code depth - 1} plies deep. The result is a {@link PositionAnalysis}
+ * with the score of every column and the best move.</p>
+ *
+ * <p>Searching is expensive, while the same popular positions tend to be asked for over and over,
+ * so results are kept in a least-recently-used cache of bounded size, keyed by the
+ * {@link Board#getCanonicalKey()} of the position. Different move orders reaching the same
+ * position, and mirror images of a position, share a single entry; the analysis is cached in the
+ * canonical orientation and mirrored back as needed.</p>
+ *
+ * <p>The service is thread-safe. Every thread searches with its own strategy, but all of them
+ * share a single {@link TranspositionTable}, so positions searched for one request speed up the
+ * next ones. Two threads asking for the same uncached position at once may both search it.</p>
+ *
+ * <p>Usage: {@code java ai.AnalysisService [depth] [cacheEntries] [tableMB]} reads one move
+ * sequence per line from the standard input, and prints its analysis.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     AnalysisService service = new AnalysisService(12, 100_000, 64);
+ *     PositionAnalysis analysis = service.analyze("4453");
+ *     int bestColumn = analysis.getBestMove();
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see PositionAnalysis
+ */
+public class AnalysisService {
+
+    /**
+     * The default search depth of an analysis, counting the analyzed move. (Default: {@value})
+     */
+    public static final int DEFAULT_DEPTH = 12;
+
+    /**
+     * The default maximum number of cached analyses. (Default: {@value})
+     */
+    public static final int DEFAULT_CACHE_ENTRIES = 100_000;
+
+    /**
+     * The default size of the shared transposition table in megabytes. (Default: {@value})
+     */
+    public static final int DEFAULT_TABLE_MEGABYTES = 64;
+
+    /**
+     * The number of rows of the analyzed boards.
+     */
+    private final int rowCount;
+
+    /**
+     * The number of columns of the analyzed boards.
+     */
+    private final int columnCount;
+
+    /**
+     * The number of consecutive checkers needed to win.
+     */
+    private final int connectLength;
+
+    /**
+     * The search depth of an analysis, counting the analyzed move.
+     */
+    private final int depth;
+
+    /**
+     * The maximum number of cached analyses.
+     */
+    private final int cacheCapacity;
+
+    /**
+     * The cached analyses in the canonical orientation by canonical position key, in access
+     * order, guarded by itself.
+     */
+    private final Map<Long, PositionAnalysis> cache;
+
+    /**
+     * The transposition table shared by the strategies of all the threads.
+     */
+    private final TranspositionTable table;
+
+    /**
+     * The strategy of every thread searching for the service.
+     */
+    private final ThreadLocal<NegamaxStrategy> strategies;
+
+    /**
+     * The number of analyses requested.
+     */
+    private final LongAdder requestCount;
+
+    /**
+     * The number of analyses answered from the cache.
+     */
+    private final LongAdder hitCount;
+
+    /**
+     * Constructs a new {@link AnalysisService} instance for the standard board.
+     *
+     * @param depth          the search depth of an analysis, counting the analyzed move.
+     * @param cacheCapacity  the maximum number of cached analyses.
+     * @param tableMegabytes the size of the shared transposition table in megabytes.
+     * @throws IllegalArgumentException if any of the numbers is not positive.
+     */
+    public AnalysisService(int depth, int cacheCapacity, int tableMegabytes) {
+        this(Board.ROW_CNT, Board.COLUMN_CNT, Board.CONNECT_LENGTH, depth, cacheCapacity,
+                tableMegabytes);
+    }
+
+    /**
+     * Constructs a new {@link AnalysisService} instance for boards with the specified dimensions.
+     *
+     * @param rowCount       the number of rows of the analyzed boards.
+     * @param columnCount    the number of columns of the analyzed boards (at most 9, so that
+     *                       every column is a single digit).
+     * @param connectLength  the number of consecutive checkers needed to win.
+     * @param depth          the search depth of an analysis, counting the analyzed move.
+     * @param cacheCapacity  the maximum number of cached analyses.
+     * @param tableMegabytes the size of the shared transposition table in megabytes.
+     * @throws IllegalArgumentException if the dimensions are not valid for a {@link Board}, there
+     *                                  are more than 9 columns, or any of the numbers is not
+     *                                  positive.
+     */
+    public AnalysisService(int rowCount, int columnCount, int connectLength, int depth,
+                           int cacheCapacity, int tableMegabytes) {
+        Board.validateDimensions(rowCount, columnCount, connectLength);
+        if (columnCount > 9) {
+            throw new IllegalArgumentException("Invalid column count: " + columnCount +
+                    ". Must be at most 9.");
+        }
+        if (depth <= 0) {
+            throw new IllegalArgumentException("Invalid search depth: " + depth +
+                    ". Must be positive.");
+        }
+        if (cacheCapacity <= 0) {
+            throw new IllegalArgumentException("Invalid cache capacity: " + cacheCapacity +
+                    ". Must be positive.");
+        }
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.connectLength = connectLength;
+        this.depth = depth;
+        this.cacheCapacity = cacheCapacity;
+        cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, PositionAnalysis> eldest) {
+                return size() > AnalysisService.this.cacheCapacity;
+            }
+        };
+        table = new TranspositionTable(tableMegabytes);
+        strategies = ThreadLocal.withInitial(() -> new NegamaxStrategy(depth, 0, table, true));
+        requestCount = new LongAdder();
+        hitCount = new LongAdder();
+    }
+
+    /**
+     * Analyzes the position reached by the specified move sequence.
+     *
+     * @param moves the columns (1-indexed) played from an empty board, such as {@code "4453"}.
+     * @return a {@link PositionAnalysis} instance with the score of every column.
+     * @throws IllegalArgumentException if the sequence contains an invalid move, or the game is
+     *                                  over before or after it.
+     */
+    public PositionAnalysis analyze(String moves) {
+        return analyze(replay(moves));
+    }
+
+    /**
+     * Analyzes the specified position. The board is not modified.
+     *
+     * <p>The player to move is the first player if an even number of checkers has been dropped,
+     * and the second player otherwise.</p>
+     *
+     * @param board a {@link Board} instance representing the position to be analyzed.
+     * @return a {@link PositionAnalysis} instance with the score of every column.
+     * @throws IllegalArgumentException if the board has different dimensions than the service,
+     *                                  or the game is already over.
+     */
+    public PositionAnalysis analyze(Board board) {
+        if (board.getRowCount() != rowCount || board.getColumnCount() != columnCount
+                || board.getConnectLength() != connectLength) {
+            throw new IllegalArgumentException("Invalid board: " + board.getRowCount() + "x" +
+                    board.getColumnCount() + " connect " + board.getConnectLength() +
+                    ". Must be " + rowCount + "x" + columnCount + " connect " + connectLength +
+                    ".");
+        }
+        if (board.isFull() || board.checkIfWinning(BoardCell.PLAYER_A)
+                || board.checkIfWinning(BoardCell.PLAYER_B)) {
+            throw new IllegalArgumentException("Invalid position: the game is already over.");
+        }
+
+        requestCount.increment();
+        Long key = board.getCanonicalKey();
+        boolean mirrored = board.isMirroredCanonical();
+        PositionAnalysis analysis;
+        synchronized (cache) {
+            analysis = cache.get(key);
+        }
+        if (analysis != null) {
+            hitCount.increment();
+            return mirrored ? analysis.mirror() : analysis;
+        }
+
+        // Search outside the lock, so that other requests are not held up
+        analysis = search(board.copy());
+        synchronized (cache) {
+            cache.put(key, mirrored ? analysis.mirror() : analysis);
+        }
+        return analysis;
+    }
+
+    /**
+     * Scores every legal column of the specified position.
+     *
+     * @param board a {@link Board} instance owned by the caller, representing the position.
+     * @return a {@link PositionAnalysis} instance with the score of every column.
+     */
+    private PositionAnalysis search(Board board) {
+        BoardCell checker = board.getMoveCount() % 2 == 0 ? BoardCell.PLAYER_A
+                : BoardCell.PLAYER_B;
+        NegamaxStrategy strategy = strategies.get();
+        int[] scores = new int[columnCount];
+        for (int columnId = 0; columnId < columnCount; columnId++) {
+            if (!board.isValidDrop(columnId)) {
+                scores[columnId] = PositionAnalysis.NO_SCORE;
+                continue;
+            }
+            MoveOutcome outcome = board.dropChecker(columnId, checker);
+            if (outcome == MoveOutcome.WIN) {
+                scores[columnId] = NegamaxStrategy.WIN_SCORE + board.getCellCount()
+                        - board.getMoveCount();
+            } else if (outcome == MoveOutcome.DRAW) {
+                scores[columnId] = 0;
+            } else if (depth == 1) {
+                scores[columnId] = -new ThreatEvaluator(board).evaluate(checker.getOpponent());
+            } else {
+                scores[columnId] = -strategy.search(board, checker.getOpponent(), depth - 1);
+            }
+            board.undoDrop(columnId);
+        }
+        return new PositionAnalysis(scores);
+    }
+
+    /**
+     * Replays the specified move sequence on an empty board.
+     *
+     * @param moves the columns (1-indexed) played from an empty board.
+     * @return a {@link Board} instance representing the resulting position.
+     * @throws IllegalArgumentException if the sequence contains an invalid move or a finished game.
+     */
+    private Board replay(String moves) {
+        Board board = new Board(rowCount, columnCount, connectLength);
+        BoardCell checker = BoardCell.PLAYER_A;
+        for (int i = 0; i < moves.length(); i++) {
+            int columnId = moves.charAt(i) - '1';
+            if (columnId < 0 || columnId >= columnCount
+                    || board.dropChecker(columnId, checker) != MoveOutcome.CONTINUE) {
+                throw new IllegalArgumentException("Invalid move sequence: " + moves);
+            }
+            checker = checker.getOpponent();
+        }
+        return board;
+    }
+
+    /**
+     * Returns the number of analyses requested so far.
+     *
+     * @return the number of requests.
+     */
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    /**
+     * Returns the number of analyses answered from the cache so far.
+     *
+     * @return the number of cache hits.
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of cached analyses.
+     *
+     * @return the number of entries in the cache.
+     */
+    public int getCacheSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Analyzes the move sequences read from the standard input, one per line.
+     *
+     * @param args the optional search depth, cache capacity and table size in megabytes.
+     * @throws IOException if the standard input cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        int cacheCapacity = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CACHE_ENTRIES;
+        int tableMegabytes = args.length > 2 ? Integer.parseInt(args[2])
+                : DEFAULT_TABLE_MEGABYTES;
+        AnalysisService service = new AnalysisService(depth, cacheCapacity, tableMegabytes);
+
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+        for (String line = in.readLine(); line != null; line = in.readLine()) {
+            String moves = line.trim();
+            try {
+                long start = System.nanoTime();
+                PositionAnalysis analysis = service.analyze(moves);
+                System.out.printf("%s  %s  (%.1f ms)%n", moves.isEmpty() ? "-" : moves,
+                        analysis, (System.nanoTime() - start) / 1e6);
+            } catch (IllegalArgumentException e) {
+                System.out.println("ERROR " + e.getMessage());
+            }
+        }
+        System.out.printf("Requests: %,d  Cache hits: %,d  Cached: %,d%n",
+                service.getRequestCount(), service.getHitCount(), service.getCacheSize());
+    }
+}
@@ -0,0 +1,311 @@
+package ai;
+
+import model.Board;
+import model.BoardCell;
+
+import java.util.Arrays;
+
+/**
+ * Evaluates many positions at once, given as bitboards in parallel primitive arrays.
+ *
+ * <p>A position is encoded as two {@code long} bitboards in the layout of
+ * {@link Board#getBitboard(BoardCell)}: the checkers of the player to move, and all the checkers
+ * on the board. A batch is an array of each, so {@code current[i]} and {@code occupied[i]}
+ * describe position {@code i}. Encoding many positions this way replaces thousands of calls into
+ * {@link Board} by a handful of passes over flat arrays.</p>
+ *
+ * <p>Every pass applies one shift-and-mask operation to all the positions of the batch, in a
+ * simple counted loop over {@code long} arrays, which is the shape the JIT compiler can vectorize.
+ * A position costs a few dozen such operations, whatever the number of checkers on it.</p>
+ *
+ * <p>Cells are reported as bitboards too: a legal move is the lowest empty cell of a column that
+ * is not full, and {@link #getColumn(long)} turns a cell into its column. Only boards with at most
+ * 64 bits in that layout can be evaluated, such as the standard 6x7 board.</p>
+ *
+ * <p>An evaluator keeps scratch arrays between calls, so it must not be shared between
+ * threads.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     BatchEvaluator evaluator = new BatchEvaluator();
+ *     for (int i = 0; i < count; i++) {
+ *         evaluator.encode(boards[i], current, occupied, i);
+ *     }
+ *     evaluator.evaluate(current, occupied, count, legal, wins, blocks, scores);
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see Board#getBitboard(BoardCell)
+ */
+public class BatchEvaluator {
+
+    /**
+     * The weight of every empty cell completing a line of a player in the heuristic score.
+     * (Default: {@value})
+     */
+    public static final int THREAT_WEIGHT = 8;
+
+    /**
+     * The weight of every checker of a player in the center column in the heuristic score.
+     * (Default: {@value})
+     */
+    public static final int CENTER_WEIGHT = 1;
+
+    /**
+     * The number of rows of the evaluated boards.
+     */
+    private final int rowCount;
+
+    /**
+     * The number of columns of the evaluated boards.
+     */
+    private final int columnCount;
+
+    /**
+     * The number of consecutive checkers needed to win.
+     */
+    private final int connectLength;
+
+    /**
+     * The number of bits per column, including the sentinel bit on top.
+     */
+    private final int columnHeight;
+
+    /**
+     * The shifts between neighbouring cells in the vertical, horizontal and both diagonal
+     * directions.
+     */
+    private final int[] directions;
+
+    /**
+     * The bitboard of the bottom cell of every column.
+     */
+    private final long bottomMask;
+
+    /**
+     * The bitboard of every cell of the board.
+     */
+    private final long boardMask;
+
+    /**
+     * The bitboard of the cells of the center column.
+     */
+    private final long centerMask;
+
+    /**
+     * A scratch array holding the lines being matched.
+     */
+    private long[] runs;
+
+    /**
+     * A scratch array holding the checkers of the opponent.
+     */
+    private long[] opponents;
+
+    /**
+     * A scratch array holding the empty cells completing a line of the player to move.
+     */
+    private long[] ownThreats;
+
+    /**
+     * A scratch array holding the empty cells completing a line of the opponent.
+     */
+    private long[] opponentThreats;
+
+    /**
+     * Constructs a new {@link BatchEvaluator} instance for the standard board.
+     */
+    public BatchEvaluator() {
+        this(Board.ROW_CNT, Board.COLUMN_CNT, Board.CONNECT_LENGTH);
+    }
+
+    /**
+     * Constructs a new {@link BatchEvaluator} instance for boards with the specified dimensions.
+     *
+     * @param rowCount      the number of rows of the evaluated boards.
+     * @param columnCount   the number of columns of the evaluated boards.
+     * @param connectLength the number of consecutive checkers needed to win.
+     * @throws IllegalArgumentException if the dimensions are not valid for a {@link Board}, or the
+     *                                  board does not fit in a single-word bitboard.
+     */
+    public BatchEvaluator(int rowCount, int columnCount, int connectLength) {
+        Board.validateSingleWordDimensions(rowCount, columnCount, connectLength);
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.connectLength = connectLength;
+        columnHeight = rowCount + 1;
+        directions = new int[]{1, columnHeight, columnHeight - 1, columnHeight + 1};
+
+        long bottom = 0;
+        for (int i = 0; i < columnCount; i++) {
+            bottom |= 1L << (i * columnHeight);
+        }
+        bottomMask = bottom;
+        // Every column holds rowCount cells above its bottom cell
+        boardMask = bottom * ((1L << rowCount) - 1);
+        centerMask = ((1L << rowCount) - 1) << (columnCount / 2 * columnHeight);
+        runs = new long[0];
+        opponents = runs;
+        ownThreats = runs;
+        opponentThreats = runs;
+    }
+
+    /**
+     * Encodes a position into the specified slot of a batch.
+     *
+     * @param board    a {@link Board} instance representing the position; the player to move is the
+     *                 first player if an even number of checkers has been dropped.
+     * @param current  the batch array receiving the checkers of the player to move.
+     * @param occupied the batch array receiving all the checkers.
+     * @param index    the index of the slot in the batch.
+     * @throws IllegalArgumentException if the board has different dimensions than the evaluator.
+     */
+    public void encode(Board board, long[] current, long[] occupied, int index) {
+        if (board.getRowCount() != rowCount || board.getColumnCount() != columnCount
+                || board.getConnectLength() != connectLength) {
+            throw new IllegalArgumentException("Invalid board: " + board.getRowCount() + "x" +
+                    board.getColumnCount() + " connect " + board.getConnectLength() +
+                    ". Must be " + rowCount + "x" + columnCount + " connect " + connectLength +
+                    ".");
+        }
+        BoardCell checker = board.getMoveCount() % 2 == 0 ? BoardCell.PLAYER_A
+                : BoardCell.PLAYER_B;
+        current[index] = board.getBitboard(checker);
+        occupied[index] = current[index] | board.getBitboard(checker.getOpponent());
+    }
+
+    /**
+     * Returns the column of the lowest cell set in the specified bitboard.
+     *
+     * @param cells a bitboard with at least one cell set, such as a set of legal moves.
+     * @return the index (0-based) of the column of the lowest cell.
+     */
+    public int getColumn(long cells) {
+        return Long.numberOfTrailingZeros(cells) / columnHeight;
+    }
+
+    /**
+     * Computes the legal moves of a batch of positions.
+     *
+     * @param occupied   the bitboards of all the checkers of every position.
+     * @param count      the number of positions in the batch.
+     * @param legalMoves the array receiving the lowest empty cell of every column that is not full.
+     */
+    public void legalMoves(long[] occupied, int count, long[] legalMoves) {
+        for (int i = 0; i < count; i++) {
+            // Adding a column's bottom bit carries into its lowest empty cell
+            legalMoves[i] = (occupied[i] + bottomMask) & boardMask;
+        }
+    }
+
+    /**
+     * Computes the empty cells where the player to move would complete a line, whether or not
+     * they can be played at once.
+     *
+     * @param current  the bitboards of the checkers of the player to move.
+     * @param occupied the bitboards of all the checkers of every position.
+     * @param count    the number of positions in the batch.
+     * @param threats  the array receiving the empty cells completing a line.
+     */
+    public void threats(long[] current, long[] occupied, int count, long[] threats) {
+        ensureCapacity(count);
+        computeThreats(current, occupied, count, threats);
+    }
+
+    /**
+     * Evaluates a batch of positions in a single call.
+     *
+     * <p>The heuristic score is seen from the player to move: {@value #THREAT_WEIGHT} for every
+     * empty cell completing a line of the player minus those of the opponent, plus
+     * {@value #CENTER_WEIGHT} for every checker in the center column minus those of the opponent.
+     * It does not account for immediate wins, which are reported separately, and stays far below
+     * {@link NegamaxStrategy#WIN_SCORE}.</p>
+     *
+     * @param current    the bitboards of the checkers of the player to move.
+     * @param occupied   the bitboards of all the checkers of every position.
+     * @param count      the number of positions in the batch.
+     * @param legalMoves the array receiving the legal moves of every position.
+     * @param wins       the array receiving the legal moves winning at once.
+     * @param blocks     the array receiving the legal moves where the opponent would win next, and
+     *                   which must be played unless a move wins at once.
+     * @param scores     the array receiving the heuristic score of every position.
+     */
+    public void evaluate(long[] current, long[] occupied, int count, long[] legalMoves,
+                         long[] wins, long[] blocks, int[] scores) {
+        ensureCapacity(count);
+        legalMoves(occupied, count, legalMoves);
+        for (int i = 0; i < count; i++) {
+            opponents[i] = current[i] ^ occupied[i];
+        }
+        computeThreats(current, occupied, count, ownThreats);
+        computeThreats(opponents, occupied, count, opponentThreats);
+        for (int i = 0; i < count; i++) {
+            wins[i] = ownThreats[i] & legalMoves[i];
+            blocks[i] = opponentThreats[i] & legalMoves[i];
+            scores[i] = THREAT_WEIGHT * (Long.bitCount(ownThreats[i])
+                    - Long.bitCount(opponentThreats[i]))
+                    + CENTER_WEIGHT * (Long.bitCount(current[i] & centerMask)
+                    - Long.bitCount(opponents[i] & centerMask));
+        }
+    }
+
+    /**
+     * Computes the empty cells completing a line of the specified checkers.
+     *
+     * <p>For every direction and every place of the empty cell within a line, the checkers are
+     * shifted onto the empty cell once for each other cell of the line and the results are
+     * intersected, so a bit that survives has the whole rest of the line behind it.</p>
+     *
+     * @param checkers the bitboards of the checkers of a player.
+     * @param occupied the bitboards of all the checkers of every position.
+     * @param count    the number of positions in the batch.
+     * @param threats  the array receiving the empty cells completing a line.
+     */
+    private void computeThreats(long[] checkers, long[] occupied, int count, long[] threats) {
+        Arrays.fill(threats, 0, count, 0);
+        for (int direction : directions) {
+            // A line spanning more than a word cannot fit on the board
+            if ((long) (connectLength - 1) * direction >= Long.SIZE) {
+                continue;
+            }
+            for (int gap = 0; gap < connectLength; gap++) {
+                Arrays.fill(runs, 0, count, -1L);
+                for (int cell = 0; cell < connectLength; cell++) {
+                    int shift = (cell - gap) * direction;
+                    if (shift > 0) {
+                        for (int i = 0; i < count; i++) {
+                            runs[i] &= checkers[i] >>> shift;
+                        }
+                    } else if (shift < 0) {
+                        for (int i = 0; i < count; i++) {
+                            runs[i] &= checkers[i] << -shift;
+                        }
+                    }
+                }
+                for (int i = 0; i < count; i++) {
+                    threats[i] |= runs[i];
+                }
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            threats[i] &= boardMask & ~occupied[i];
+        }
+    }
+
+    /**
+     * Grows the scratch arrays to hold at least the specified number of positions.
+     *
+     * @param count the number of positions in the batch.
+     */
+    private void ensureCapacity(int count) {
+        if (runs.length < count) {
+            runs = new long[count];
+            opponents = new long[count];
+            ownThreats = new long[count];
+            opponentThreats = new long[count];
+        }
+    }
+}
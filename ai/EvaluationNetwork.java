@@ -0,0 +1,629 @@
+package ai;
+
+import model.Board;
+import model.BoardCell;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A small fully-connected network estimating the value of positions, evaluated on the CPU.
+ *
+ * <p>The input of the network has two features per cell, in the order of column, then height from
+ * the bottom: first whether the cell holds a checker of the player to move, then whether it holds
+ * one of the opponent. Every hidden layer is followed by a ReLU, and the last layer has a single
+ * output squashed by {@code tanh}, so the value is between -1 (the player to move loses) and 1
+ * (they win), the scale of the outcomes written by {@code training.TrainingDataWriter}.</p>
+ *
+ * <p>A network file starts with the magic number {@code "C4NN"}, the format version, the number of
+ * rows, columns and connect length of the board, the number of layers and the size of every
+ * layer, input first. It is followed by the weights of every layer, as an {@code out x in} matrix
+ * in row-major order, and then its {@code out} biases, all big-endian {@code float}s.</p>
+ *
+ * <p>Positions are given as the bitboards of {@link BatchEvaluator}, one at a time or as a batch,
+ * such as the leaves of a search. The input is sparse, so the first layer only adds up the weights
+ * of the occupied cells. Every step is a simple counted loop over {@code float} arrays, which is
+ * the shape the JIT compiler can vectorize: a single position adds scaled rows of the transposed
+ * weights to the next layer, and a batch is run {@value #CHUNK_SIZE} positions at a time, with the
+ * activations of a unit kept in an array over the positions, so that every weight is applied to
+ * all of them in one loop, which makes a batch faster per position.</p>
+ *
+ * <p>A network is immutable once loaded, and may be shared by any number of threads; every thread
+ * evaluates with scratch arrays of its own. Only boards with at most 64 bits in the bitboard layout
+ * can be evaluated, such as the standard 6x7 board.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     EvaluationNetwork network = EvaluationNetwork.load(Path.of("value.c4nn"));
+ *     float value = network.evaluate(board);
+ *     network.evaluate(current, occupied, count, values);
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see NeuralNetworkStrategy
+ * @see BatchEvaluator
+ */
+public class EvaluationNetwork {
+
+    /**
+     * The magic number at the start of every network file ({@code "C4NN"}).
+     */
+    static final int MAGIC = 0x43344E4E;
+
+    /**
+     * The version of the network file format. (Default: {@value})
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The number of positions of a batch run through the network together. (Default: {@value})
+     */
+    public static final int CHUNK_SIZE = 128;
+
+    /**
+     * The maximum number of layers of a network. (Default: {@value})
+     */
+    public static final int MAX_LAYER_CNT = 16;
+
+    /**
+     * The maximum number of units of a layer. (Default: {@value})
+     */
+    public static final int MAX_LAYER_SIZE = 4096;
+
+    /**
+     * The number of rows of the evaluated boards.
+     */
+    private final int rowCount;
+
+    /**
+     * The number of columns of the evaluated boards.
+     */
+    private final int columnCount;
+
+    /**
+     * The number of consecutive checkers needed to win on the evaluated boards.
+     */
+    private final int connectLength;
+
+    /**
+     * The number of units of every layer, input first and output last.
+     */
+    private final int[] layerSizes;
+
+    /**
+     * The weights of every layer, transposed: the weight from input {@code i} to output
+     * {@code o} of layer {@code l} is {@code weights[l][i][o]}.
+     */
+    private final float[][][] weights;
+
+    /**
+     * The weights of the output layer from every unit of the last hidden layer, or an empty array
+     * if the network has no hidden layer.
+     */
+    private final float[] outputWeights;
+
+    /**
+     * The biases of every layer.
+     */
+    private final float[][] biases;
+
+    /**
+     * The input feature of the checker of the player to move at every bit of a bitboard, or
+     * {@code -1} for the bit on top of a column.
+     */
+    private final int[] featureOfBit;
+
+    /**
+     * The scratch arrays of every thread.
+     */
+    private final ThreadLocal<Scratch> scratches;
+
+    /**
+     * Constructs a new {@link EvaluationNetwork} instance.
+     *
+     * @param rowCount      the number of rows of the evaluated boards.
+     * @param columnCount   the number of columns of the evaluated boards.
+     * @param connectLength the number of consecutive checkers needed to win.
+     * @param layerSizes    the number of units of every layer, input first and output last.
+     * @param weights       the transposed weights of every layer, by layer, input and output; the
+     *                      arrays are kept, not copied.
+     * @param biases        the biases of every layer; the arrays are kept, not copied.
+     */
+    private EvaluationNetwork(int rowCount, int columnCount, int connectLength, int[] layerSizes,
+                              float[][][] weights, float[][] biases) {
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.connectLength = connectLength;
+        this.layerSizes = layerSizes;
+        this.weights = weights;
+        this.biases = biases;
+        float[][] outputRows = weights.length > 1 ? weights[weights.length - 1] : new float[0][];
+        outputWeights = new float[outputRows.length];
+        for (int i = 0; i < outputRows.length; i++) {
+            outputWeights[i] = outputRows[i][0];
+        }
+        featureOfBit = new int[Long.SIZE];
+        Arrays.fill(featureOfBit, -1);
+        for (int columnId = 0; columnId < columnCount; columnId++) {
+            for (int height = 0; height < rowCount; height++) {
+                featureOfBit[columnId * (rowCount + 1) + height] = columnId * rowCount + height;
+            }
+        }
+        int maxWidth = Arrays.stream(layerSizes).max().getAsInt();
+        scratches = ThreadLocal.withInitial(() -> new Scratch(maxWidth));
+    }
+
+    /**
+     * Validates the dimensions of a board and the layer sizes of a network for it.
+     *
+     * @param rowCount      the number of rows of the evaluated boards.
+     * @param columnCount   the number of columns of the evaluated boards.
+     * @param connectLength the number of consecutive checkers needed to win.
+     * @param layerSizes    the number of units of every layer, input first and output last.
+     * @throws IllegalArgumentException if the board does not fit in a single-word bitboard, or the
+     *                                  layer sizes do not fit the board.
+     */
+    private static void validate(int rowCount, int columnCount, int connectLength,
+                                 int[] layerSizes) {
+        Board.validateSingleWordDimensions(rowCount, columnCount, connectLength);
+        if (layerSizes.length < 2 || layerSizes.length > MAX_LAYER_CNT + 1) {
+            throw new IllegalArgumentException("Invalid layer count: " +
+                    (layerSizes.length - 1) + ". Must be between 1 and " + MAX_LAYER_CNT + ".");
+        }
+        int inputSize = 2 * rowCount * columnCount;
+        if (layerSizes[0] != inputSize || layerSizes[layerSizes.length - 1] != 1) {
+            throw new IllegalArgumentException("Invalid layer sizes: " +
+                    Arrays.toString(layerSizes) + ". Must start with " + inputSize +
+                    " and end with 1.");
+        }
+        for (int size : layerSizes) {
+            if (size <= 0 || size > MAX_LAYER_SIZE) {
+                throw new IllegalArgumentException("Invalid layer size: " + size +
+                        ". Must be between 1 and " + MAX_LAYER_SIZE + ".");
+            }
+        }
+    }
+
+    /**
+     * Loads a network from the specified file.
+     *
+     * @param file the {@link Path} of the network file.
+     * @return a new {@link EvaluationNetwork} instance.
+     * @throws IOException              if the file cannot be read or is truncated.
+     * @throws IllegalArgumentException if the file is not a valid network file.
+     */
+    public static EvaluationNetwork load(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return load(in);
+        }
+    }
+
+    /**
+     * Loads a network from the specified stream, starting with its header. The stream is not
+     * closed.
+     *
+     * @param in the {@link InputStream} to read the network from.
+     * @return a new {@link EvaluationNetwork} instance.
+     * @throws IOException              if the stream cannot be read or is truncated.
+     * @throws IllegalArgumentException if the stream is not a valid network stream.
+     */
+    public static EvaluationNetwork load(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        try {
+            if (data.readInt() != MAGIC || data.readUnsignedByte() != VERSION) {
+                throw new IllegalArgumentException("Invalid network stream.");
+            }
+            int rowCount = data.readUnsignedByte();
+            int columnCount = data.readUnsignedByte();
+            int connectLength = data.readUnsignedByte();
+            int layerCount = data.readInt();
+            if (layerCount < 1 || layerCount > MAX_LAYER_CNT) {
+                throw new IllegalArgumentException("Invalid layer count: " + layerCount +
+                        ". Must be between 1 and " + MAX_LAYER_CNT + ".");
+            }
+            int[] layerSizes = new int[layerCount + 1];
+            for (int i = 0; i < layerSizes.length; i++) {
+                layerSizes[i] = data.readInt();
+            }
+            validate(rowCount, columnCount, connectLength, layerSizes);
+
+            float[][][] weights = new float[layerCount][][];
+            float[][] biases = new float[layerCount][];
+            for (int layer = 0; layer < layerCount; layer++) {
+                int inputs = layerSizes[layer];
+                int outputs = layerSizes[layer + 1];
+                weights[layer] = new float[inputs][outputs];
+                for (int o = 0; o < outputs; o++) {
+                    for (int i = 0; i < inputs; i++) {
+                        weights[layer][i][o] = data.readFloat();
+                    }
+                }
+                biases[layer] = new float[outputs];
+                for (int o = 0; o < outputs; o++) {
+                    biases[layer][o] = data.readFloat();
+                }
+            }
+            return new EvaluationNetwork(rowCount, columnCount, connectLength, layerSizes,
+                    weights, biases);
+        } catch (EOFException e) {
+            throw new IOException("Truncated network stream.", e);
+        }
+    }
+
+    /**
+     * Creates a network for the specified board with random weights, such as a starting point for
+     * training or a stand-in for benchmarks. The weights are drawn with He initialization, and the
+     * biases are zero.
+     *
+     * @param rowCount      the number of rows of the evaluated boards.
+     * @param columnCount   the number of columns of the evaluated boards.
+     * @param connectLength the number of consecutive checkers needed to win.
+     * @param hiddenSizes   the number of units of every hidden layer.
+     * @param seed          the seed of the random weights.
+     * @return a new {@link EvaluationNetwork} instance.
+     * @throws IllegalArgumentException if the board does not fit in a single-word bitboard, or any
+     *                                  layer size is out of bounds.
+     */
+    public static EvaluationNetwork createRandom(int rowCount, int columnCount, int connectLength,
+                                                 int[] hiddenSizes, long seed) {
+        int[] layerSizes = new int[hiddenSizes.length + 2];
+        layerSizes[0] = 2 * rowCount * columnCount;
+        System.arraycopy(hiddenSizes, 0, layerSizes, 1, hiddenSizes.length);
+        layerSizes[layerSizes.length - 1] = 1;
+        validate(rowCount, columnCount, connectLength, layerSizes);
+
+        Random random = new Random(seed);
+        float[][][] weights = new float[layerSizes.length - 1][][];
+        float[][] biases = new float[layerSizes.length - 1][];
+        for (int layer = 0; layer < weights.length; layer++) {
+            double scale = Math.sqrt(2.0 / layerSizes[layer]);
+            weights[layer] = new float[layerSizes[layer]][layerSizes[layer + 1]];
+            for (float[] row : weights[layer]) {
+                for (int o = 0; o < row.length; o++) {
+                    row[o] = (float) (random.nextGaussian() * scale);
+                }
+            }
+            biases[layer] = new float[layerSizes[layer + 1]];
+        }
+        return new EvaluationNetwork(rowCount, columnCount, connectLength, layerSizes, weights,
+                biases);
+    }
+
+    /**
+     * Saves the network to the specified file in the network file format.
+     *
+     * @param file the {@link Path} of the network file, replaced if it exists.
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+            data.writeInt(MAGIC);
+            data.writeByte(VERSION);
+            data.writeByte(rowCount);
+            data.writeByte(columnCount);
+            data.writeByte(connectLength);
+            data.writeInt(weights.length);
+            for (int size : layerSizes) {
+                data.writeInt(size);
+            }
+            for (int layer = 0; layer < weights.length; layer++) {
+                int inputs = layerSizes[layer];
+                int outputs = layerSizes[layer + 1];
+                for (int o = 0; o < outputs; o++) {
+                    for (int i = 0; i < inputs; i++) {
+                        data.writeFloat(weights[layer][i][o]);
+                    }
+                }
+                for (float bias : biases[layer]) {
+                    data.writeFloat(bias);
+                }
+            }
+            data.flush();
+        }
+    }
+
+    /**
+     * Returns the number of rows of the evaluated boards.
+     *
+     * @return the number of rows.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the number of columns of the evaluated boards.
+     *
+     * @return the number of columns.
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Returns the number of consecutive checkers needed to win on the evaluated boards.
+     *
+     * @return the connect length.
+     */
+    public int getConnectLength() {
+        return connectLength;
+    }
+
+    /**
+     * Returns the number of units of every layer.
+     *
+     * @return a copy of the layer sizes, input first and output last.
+     */
+    public int[] getLayerSizes() {
+        return layerSizes.clone();
+    }
+
+    /**
+     * Evaluates the specified position, seen from the player to move.
+     *
+     * @param board a {@link Board} instance representing the position; the player to move is the
+     *              first player if an even number of checkers has been dropped.
+     * @return the value of the position, between -1 and 1.
+     * @throws IllegalArgumentException if the board has different dimensions than the network.
+     */
+    public float evaluate(Board board) {
+        if (board.getRowCount() != rowCount || board.getColumnCount() != columnCount
+                || board.getConnectLength() != connectLength) {
+            throw new IllegalArgumentException("Invalid board: " + board.getRowCount() + "x" +
+                    board.getColumnCount() + " connect " + board.getConnectLength() +
+                    ". Must be " + rowCount + "x" + columnCount + " connect " + connectLength +
+                    ".");
+        }
+        BoardCell checker = board.getMoveCount() % 2 == 0 ? BoardCell.PLAYER_A
+                : BoardCell.PLAYER_B;
+        long current = board.getBitboard(checker);
+        return evaluate(current, current | board.getBitboard(checker.getOpponent()));
+    }
+
+    /**
+     * Evaluates the position given by its bitboards, seen from the player to move.
+     *
+     * @param current  the bitboard of the checkers of the player to move.
+     * @param occupied the bitboard of all the checkers.
+     * @return the value of the position, between -1 and 1.
+     */
+    public float evaluate(long current, long occupied) {
+        return forward(current, occupied, scratches.get());
+    }
+
+    /**
+     * Evaluates a batch of positions given by their bitboards, seen from the player to move of
+     * each of them. The result is the same as evaluating them one at a time, only faster.
+     *
+     * @param current  the bitboards of the checkers of the player to move of every position.
+     * @param occupied the bitboards of all the checkers of every position.
+     * @param count    the number of positions in the batch.
+     * @param values   the array receiving the value of every position, between -1 and 1.
+     */
+    public void evaluate(long[] current, long[] occupied, int count, float[] values) {
+        Scratch scratch = scratches.get();
+        for (int start = 0; start < count; start += CHUNK_SIZE) {
+            int chunk = Math.min(CHUNK_SIZE, count - start);
+            if (chunk == 1) {
+                values[start] = forward(current[start], occupied[start], scratch);
+            } else {
+                forwardChunk(current, occupied, start, chunk, values, scratch);
+            }
+        }
+    }
+
+    /**
+     * Runs a position through the network.
+     *
+     * @param current  the bitboard of the checkers of the player to move.
+     * @param occupied the bitboard of all the checkers.
+     * @param scratch  the scratch arrays of the calling thread.
+     * @return the value of the position, between -1 and 1.
+     */
+    private float forward(long current, long occupied, Scratch scratch) {
+        float[] input = scratch.input;
+        float[] output = scratch.output;
+        firstLayer(current, occupied, input);
+
+        int outputLayer = weights.length - 1;
+        for (int layer = 1; layer < outputLayer; layer++) {
+            float[][] layerWeights = weights[layer];
+            System.arraycopy(biases[layer], 0, output, 0, layerSizes[layer + 1]);
+            for (int i = 0; i < layerWeights.length; i++) {
+                // A unit cut off by the ReLU adds nothing
+                if (input[i] > 0) {
+                    addRow(output, layerWeights[i], input[i]);
+                }
+            }
+            float[] swap = input;
+            input = output;
+            output = swap;
+        }
+        if (outputLayer == 0) {
+            return tanh(input[0]);
+        }
+
+        // A single output is a dot product, rather than rows of one weight
+        float value = biases[outputLayer][0];
+        for (int i = 0; i < outputWeights.length; i++) {
+            value += Math.max(input[i], 0) * outputWeights[i];
+        }
+        return tanh(value);
+    }
+
+    /**
+     * Runs a chunk of a batch of positions through the network together.
+     *
+     * <p>The first layer is computed one position at a time, to make use of the sparse input.
+     * From then on, the activations are kept unit by unit, each an array over the positions of the
+     * chunk, so that every weight is applied to all the positions in one loop. The sums are made
+     * in the same order as in {@link #forward(long, long, Scratch)}, so the values are the same.
+     * </p>
+     *
+     * @param current  the bitboards of the checkers of the player to move of every position.
+     * @param occupied the bitboards of all the checkers of every position.
+     * @param start    the index of the first position of the chunk.
+     * @param count    the number of positions of the chunk, at most {@value #CHUNK_SIZE}.
+     * @param values   the array receiving the value of every position.
+     * @param scratch  the scratch arrays of the calling thread.
+     */
+    private void forwardChunk(long[] current, long[] occupied, int start, int count,
+                              float[] values, Scratch scratch) {
+        float[][] input = scratch.chunkInput;
+        float[][] output = scratch.chunkOutput;
+        int width = layerSizes[1];
+        for (int s = 0; s < count; s++) {
+            firstLayer(current[start + s], occupied[start + s], scratch.input);
+            for (int o = 0; o < width; o++) {
+                input[o][s] = scratch.input[o];
+            }
+        }
+
+        int outputLayer = weights.length - 1;
+        for (int layer = 1; layer <= outputLayer; layer++) {
+            // The ReLU of the hidden layer before, with a unit cut off adding 0 instead of nothing
+            for (int i = 0; i < layerSizes[layer]; i++) {
+                relu(input[i], count);
+            }
+            float[][] layerWeights = weights[layer];
+            for (int o = 0; o < layerSizes[layer + 1]; o++) {
+                float[] sums = output[o];
+                Arrays.fill(sums, 0, count, biases[layer][o]);
+                for (int i = 0; i < layerWeights.length; i++) {
+                    addRow(sums, input[i], layerWeights[i][o], count);
+                }
+            }
+            float[][] swap = input;
+            input = output;
+            output = swap;
+        }
+        for (int s = 0; s < count; s++) {
+            values[start + s] = tanh(input[0][s]);
+        }
+    }
+
+    /**
+     * Computes the first layer of a position, before its ReLU.
+     *
+     * @param current  the bitboard of the checkers of the player to move.
+     * @param occupied the bitboard of all the checkers.
+     * @param output   the array receiving the activations of the first layer.
+     */
+    private void firstLayer(long current, long occupied, float[] output) {
+        // The inputs are 0 or 1, so the first layer only adds up the rows of the occupied cells
+        float[][] layerWeights = weights[0];
+        System.arraycopy(biases[0], 0, output, 0, layerSizes[1]);
+        for (long bits = current; bits != 0; bits &= bits - 1) {
+            addRow(output, layerWeights[featureOfBit[Long.numberOfTrailingZeros(bits)]], 1);
+        }
+        int opponentOffset = rowCount * columnCount;
+        for (long bits = occupied & ~current; bits != 0; bits &= bits - 1) {
+            addRow(output, layerWeights[featureOfBit[Long.numberOfTrailingZeros(bits)]
+                    + opponentOffset], 1);
+        }
+    }
+
+    /**
+     * Returns the hyperbolic tangent of the specified value.
+     *
+     * <p>It is computed from {@link Math#exp(double)}, which the JIT compiler turns into a fast
+     * intrinsic, rather than by {@link Math#tanh(double)}, which costs several times as much. The
+     * result is exact to within the precision of a {@code float}.</p>
+     *
+     * @param x the value.
+     * @return the hyperbolic tangent of the value, between -1 and 1.
+     */
+    private static float tanh(float x) {
+        // Saturates to -1 and 1 as the exponential underflows and overflows
+        return (float) (1 - 2 / (Math.exp(2.0 * x) + 1));
+    }
+
+    /**
+     * Adds a scaled row of weights to the activations of the next layer.
+     *
+     * @param activations the activations of the next layer, at least as long as the row.
+     * @param row         the weights from one unit to every unit of the next layer.
+     * @param scale       the activation of the unit.
+     */
+    private static void addRow(float[] activations, float[] row, float scale) {
+        addRow(activations, row, scale, row.length);
+    }
+
+    /**
+     * Adds the first elements of a scaled array to another one.
+     *
+     * @param sums   the array the scaled elements are added to.
+     * @param terms  the array of elements to be scaled.
+     * @param scale  the factor of every element.
+     * @param length the number of elements.
+     */
+    private static void addRow(float[] sums, float[] terms, float scale, int length) {
+        for (int i = 0; i < length; i++) {
+            sums[i] += scale * terms[i];
+        }
+    }
+
+    /**
+     * Applies the ReLU to the first elements of an array, in place.
+     *
+     * @param activations the activations.
+     * @param length      the number of elements.
+     */
+    private static void relu(float[] activations, int length) {
+        for (int i = 0; i < length; i++) {
+            activations[i] = Math.max(activations[i], 0);
+        }
+    }
+
+    /**
+     * The scratch arrays of a thread evaluating positions.
+     */
+    private static class Scratch {
+
+        /**
+         * The activations of the layer being read, for a single position.
+         */
+        final float[] input;
+
+        /**
+         * The activations of the layer being computed, for a single position.
+         */
+        final float[] output;
+
+        /**
+         * The activations of the layer being read, by unit and position of a chunk.
+         */
+        final float[][] chunkInput;
+
+        /**
+         * The activations of the layer being computed, by unit and position of a chunk.
+         */
+        final float[][] chunkOutput;
+
+        /**
+         * Constructs a new {@link Scratch} instance.
+         *
+         * @param width the number of units of the widest layer.
+         */
+        Scratch(int width) {
+            input = new float[width];
+            output = new float[width];
+            chunkInput = new float[width][CHUNK_SIZE];
+            chunkOutput = new float[width][CHUNK_SIZE];
+        }
+    }
+}
@@ -0,0 +1,403 @@
+package ai;
+
+import metrics.EngineMetrics;
+import model.Board;
+import model.BoardCell;
+import model.MoveOutcome;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link MoveStrategy} that chooses moves with Monte Carlo Tree Search (MCTS).
+ *
+ * <p>Every iteration selects a path down the tree with the UCT formula, expands one new position,
+ * plays it out to the end of the game with random moves, and backs the result up the path. Playouts
+ * always take a winning move when one is available, which makes their results much less noisy than
+ * purely random playouts for little extra cost.</p>
+ *
+ * <p>The search is root-parallel: each worker thread grows its own tree on its own copy of the
+ * board until the time budget runs out, so workers never contend for a node. Their visit counts of
+ * the root moves are then summed in a lock-free array, and the most visited move is played. The
+ * more threads the strategy is given, the more playouts back each move. The worker threads are
+ * kept from move to move, and stopped when the strategy is closed.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     // A computer player thinking for 1 second per move on all available processors:
+ *     Player player = new ComputerPlayer(name, checker, new MonteCarloTreeSearchStrategy(
+ *             1000, Runtime.getRuntime().availableProcessors()));
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see MoveStrategy
+ */
+public class MonteCarloTreeSearchStrategy implements MoveStrategy {
+
+    /**
+     * The exploration constant of the UCT formula.
+     */
+    private static final double EXPLORATION = Math.sqrt(2);
+
+    /**
+     * The time budget per move in milliseconds.
+     */
+    private final long timeBudgetMillis;
+
+    /**
+     * The number of worker threads searching at once.
+     */
+    private final int threadCount;
+
+    /**
+     * An {@link ExecutorService} instance running the worker threads.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The total number of playouts run by the last search.
+     */
+    private final LongAdder playoutCount;
+
+    /**
+     * Constructs a new {@link MonteCarloTreeSearchStrategy} instance.
+     *
+     * @param timeBudgetMillis the time budget per move in milliseconds.
+     * @param threadCount      the number of worker threads searching at once.
+     * @throws IllegalArgumentException if the time budget or the thread count is not positive.
+     */
+    public MonteCarloTreeSearchStrategy(long timeBudgetMillis, int threadCount) {
+        if (timeBudgetMillis <= 0) {
+            throw new IllegalArgumentException("Invalid time budget: " + timeBudgetMillis +
+                    ". Must be positive.");
+        }
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException("Invalid thread count: " + threadCount +
+                    ". Must be positive.");
+        }
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.threadCount = threadCount;
+        executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "mcts-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        playoutCount = new LongAdder();
+    }
+
+    /**
+     * Stops the worker threads. The strategy must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Searches the game tree until the time budget runs out and returns the most visited move.
+     *
+     * @param board   a {@link Board} instance representing the current state of the game board.
+     * @param checker a {@link BoardCell} instance representing the checker of the player to move.
+     * @return the index (0-based) of the most visited column.
+     * @throws IllegalStateException if there is no available column to drop the checker, or the
+     *                               search fails.
+     */
+    @Override
+    public int selectMove(Board board, BoardCell checker) {
+        int onlyMove = -1;
+        int validMoves = 0;
+        for (int i = 0; i < board.getColumnCount(); i++) {
+            if (board.isValidDrop(i)) {
+                onlyMove = i;
+                validMoves++;
+            }
+        }
+        if (validMoves == 0) {
+            throw new IllegalStateException("No columns available for the computer player to " +
+                    "drop the checker.");
+        } else if (validMoves == 1) {
+            return onlyMove;
+        }
+
+        playoutCount.reset();
+        AtomicLongArray rootVisits = new AtomicLongArray(board.getColumnCount());
+        long deadline = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            Board workerBoard = board.copy();
+            workers.add(executor.submit(() -> search(workerBoard, checker, deadline, rootVisits)));
+        }
+        try {
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while searching.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("The search failed.", e.getCause());
+        }
+        if (EngineMetrics.ENABLED) {
+            EngineMetrics.recordSearch(playoutCount.sum(), 0, 0);
+        }
+
+        int bestMove = onlyMove;
+        for (int i = 0; i < rootVisits.length(); i++) {
+            if (rootVisits.get(i) > rootVisits.get(bestMove)) {
+                bestMove = i;
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * Returns the total number of playouts run by the last search, over all worker threads.
+     *
+     * @return the number of playouts run by the last search.
+     */
+    public long getPlayoutCount() {
+        return playoutCount.sum();
+    }
+
+    /**
+     * Grows a search tree on the specified board until the deadline, then adds the visit counts
+     * of its root moves to the shared array.
+     *
+     * @param board      the worker's own copy of the board to be searched.
+     * @param checker    the checker of the player to move at the root.
+     * @param deadline   the {@link System#nanoTime()} at which the search stops.
+     * @param rootVisits the visit counts of the root moves, shared by all the workers.
+     */
+    private void search(Board board, BoardCell checker, long deadline,
+                        AtomicLongArray rootVisits) {
+        SplittableRandom random = new SplittableRandom();
+        int[] moveBuffer = new int[board.getColumnCount()];
+        int rootMoveCount = board.getMoveCount();
+        Node root = new Node(null, -1, MoveOutcome.CONTINUE);
+        long playouts = 0;
+
+        while (System.nanoTime() < deadline) {
+            Node node = root;
+            BoardCell mover = checker;
+
+            // Selection: descend through fully expanded nodes
+            while (node.outcome == MoveOutcome.CONTINUE && node.isFullyExpanded(board)) {
+                node = node.selectChild();
+                board.dropChecker(node.move, mover);
+                mover = mover.getOpponent();
+            }
+
+            // Expansion: add one untried move
+            if (node.outcome == MoveOutcome.CONTINUE) {
+                int move = node.takeUntriedMove(board, random);
+                MoveOutcome outcome = board.dropChecker(move, mover);
+                node = node.addChild(move, outcome);
+                mover = mover.getOpponent();
+            }
+
+            // Simulation: the result is seen from the player who moved into the node
+            double result;
+            if (node.outcome == MoveOutcome.WIN) {
+                result = 1;
+            } else if (node.outcome == MoveOutcome.DRAW) {
+                result = 0.5;
+            } else {
+                BoardCell winner = playout(board, mover, random, moveBuffer);
+                result = winner == BoardCell.EMPTY ? 0.5 : winner == mover ? 0 : 1;
+            }
+
+            // Backpropagation
+            for (; node != null; node = node.parent) {
+                node.visits++;
+                node.reward += result;
+                result = 1 - result;
+            }
+            while (board.getMoveCount() > rootMoveCount) {
+                board.undoLastDrop();
+            }
+            playouts++;
+        }
+
+        if (root.children != null) {
+            for (Node child : root.children) {
+                if (child != null) {
+                    rootVisits.addAndGet(child.move, child.visits);
+                }
+            }
+        }
+        playoutCount.add(playouts);
+    }
+
+    /**
+     * Plays the game out to the end, taking a winning move whenever there is one and a random move
+     * otherwise. The moves are left on the board.
+     *
+     * @param board   the board to play on.
+     * @param checker the checker of the player to move.
+     * @param random  the random generator of the worker.
+     * @param moves   a buffer of the worker for listing the valid moves.
+     * @return the checker of the winner, or {@link BoardCell#EMPTY} for a draw.
+     */
+    private static BoardCell playout(Board board, BoardCell checker, SplittableRandom random,
+                                     int[] moves) {
+        while (true) {
+            int moveCount = 0;
+            for (int i = 0; i < board.getColumnCount(); i++) {
+                if (board.isValidDrop(i)) {
+                    if (board.dropChecker(i, checker) == MoveOutcome.WIN) {
+                        return checker;
+                    }
+                    board.undoDrop(i);
+                    moves[moveCount++] = i;
+                }
+            }
+            MoveOutcome outcome = board.dropChecker(moves[random.nextInt(moveCount)], checker);
+            if (outcome == MoveOutcome.DRAW) {
+                return BoardCell.EMPTY;
+            }
+            checker = checker.getOpponent();
+        }
+    }
+
+    /**
+     * A node of a worker's search tree, representing the position after a move.
+     */
+    private static final class Node {
+
+        /**
+         * The parent node, or {@code null} for the root.
+         */
+        private final Node parent;
+
+        /**
+         * The column of the move leading to this node, or {@code -1} for the root.
+         */
+        private final int move;
+
+        /**
+         * The outcome of the move leading to this node.
+         */
+        private final MoveOutcome outcome;
+
+        /**
+         * The child nodes indexed by column, or {@code null} before the first expansion.
+         */
+        private Node[] children;
+
+        /**
+         * The columns that have not been expanded yet. Only the first {@link #untriedCount}
+         * entries are in use.
+         */
+        private int[] untriedMoves;
+
+        /**
+         * The number of columns that have not been expanded yet.
+         */
+        private int untriedCount;
+
+        /**
+         * The number of playouts through this node.
+         */
+        private long visits;
+
+        /**
+         * The total reward of the playouts through this node, seen from the player who moved into
+         * it.
+         */
+        private double reward;
+
+        /**
+         * Constructs a new {@link Node} instance.
+         *
+         * @param parent  the parent node, or {@code null} for the root.
+         * @param move    the column of the move leading to this node, or {@code -1} for the root.
+         * @param outcome the outcome of the move leading to this node.
+         */
+        private Node(Node parent, int move, MoveOutcome outcome) {
+            this.parent = parent;
+            this.move = move;
+            this.outcome = outcome;
+        }
+
+        /**
+         * Returns whether every valid move of this node has been expanded, listing the valid moves
+         * on the first call.
+         *
+         * @param board the board in the position of this node.
+         * @return {@code true} if all the valid moves have a child node; Otherwise, {@code false}.
+         */
+        private boolean isFullyExpanded(Board board) {
+            if (children == null) {
+                children = new Node[board.getColumnCount()];
+                untriedMoves = new int[board.getColumnCount()];
+                for (int i = 0; i < board.getColumnCount(); i++) {
+                    if (board.isValidDrop(i)) {
+                        untriedMoves[untriedCount++] = i;
+                    }
+                }
+            }
+            return untriedCount == 0;
+        }
+
+        /**
+         * Removes a random move from the untried moves and returns it.
+         *
+         * @param board  the board in the position of this node.
+         * @param random the random generator of the worker.
+         * @return the column of the untried move.
+         */
+        private int takeUntriedMove(Board board, SplittableRandom random) {
+            isFullyExpanded(board);
+            int index = random.nextInt(untriedCount);
+            int move = untriedMoves[index];
+            untriedMoves[index] = untriedMoves[--untriedCount];
+            return move;
+        }
+
+        /**
+         * Adds a child node for the specified move.
+         *
+         * @param move    the column of the move.
+         * @param outcome the outcome of the move.
+         * @return the new child node.
+         */
+        private Node addChild(int move, MoveOutcome outcome) {
+            Node child = new Node(this, move, outcome);
+            children[move] = child;
+            return child;
+        }
+
+        /**
+         * Returns the child node with the highest UCT value.
+         *
+         * @return the child node to descend to.
+         */
+        private Node selectChild() {
+            double logVisits = Math.log(visits);
+            Node best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (Node child : children) {
+                if (child == null) {
+                    continue;
+                }
+                double value = child.reward / child.visits
+                        + EXPLORATION * Math.sqrt(logVisits / child.visits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package ai;
+
+import model.Board;
+import model.BoardCell;
+
+import java.util.Arrays;
+
+/**
+ * Generates the legal moves of a position in the order an alpha-beta search should try them.
+ *
+ * <p>Moves are ranked in tiers: the hash move from the transposition table first, then the moves
+ * winning at once, the moves blocking an immediate win of the opponent, and the two killer moves of
+ * the ply, the last moves that caused a cut-off at the same ply. The remaining quiet moves are
+ * ranked by the history heuristic, which rewards every move causing a cut-off anywhere in the tree
+ * by the square of the remaining depth, and ties are broken towards the center column.</p>
+ *
+ * <p>The moves of every ply are generated into a buffer owned by the orderer, so a recursive
+ * search can walk the moves of a ply while deeper plies are generated. Apart from growing those
+ * buffers the first time a ply is reached, generating moves never allocates.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     int count = orderer.generate(board, checker, hashMove, depth);
+ *     int[] moves = orderer.getMoves(board.getMoveCount());
+ *     for (int i = 0; i < count; i++) {
+ *         ...
+ *         if (score >= beta) {
+ *             orderer.recordCutoff(board, checker, moves[i], depth);
+ *             break;
+ *         }
+ *     }
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see NegamaxStrategy
+ */
+public class MoveOrderer {
+
+    /**
+     * The rank of the hash move.
+     */
+    private static final int HASH_MOVE_RANK = 1 << 30;
+
+    /**
+     * The rank of a move winning at once.
+     */
+    private static final int WIN_RANK = 1 << 29;
+
+    /**
+     * The rank of a move blocking an immediate win of the opponent.
+     */
+    private static final int BLOCK_RANK = 1 << 28;
+
+    /**
+     * The rank of the first killer move of a ply; the second one ranks just below it.
+     */
+    private static final int KILLER_RANK = 1 << 27;
+
+    /**
+     * The smallest remaining depth at which moves are tested for immediate wins and blocks. Closer
+     * to the horizon the tests cost more than searching the moves in a worse order.
+     * (Default: {@value})
+     */
+    public static final int TACTICAL_MIN_DEPTH = 3;
+
+    /**
+     * The history score above which all the history scores are halved, keeping quiet moves below
+     * the killer moves.
+     */
+    private static final int MAX_HISTORY = 1 << 24;
+
+    /**
+     * The number of columns of the ordered boards.
+     */
+    private final int columnCount;
+
+    /**
+     * The column indices from the center outwards, which is the order of moves of equal rank.
+     */
+    private final int[] centerOrder;
+
+    /**
+     * The center bias of every column, larger for columns closer to the center.
+     */
+    private final int[] centerBias;
+
+    /**
+     * The two killer moves of every ply, or {@code -1} if there is none.
+     */
+    private final int[] killers;
+
+    /**
+     * The history score of every column for each player, indexed by
+     * {@code player * columnCount + column}.
+     */
+    private final int[] history;
+
+    /**
+     * The rank of every move being generated, parallel to the moves buffer of the ply.
+     */
+    private final int[] ranks;
+
+    /**
+     * The moves generated for every ply, allocated the first time the ply is reached.
+     */
+    private final int[][] moveBuffers;
+
+    /**
+     * Constructs a new {@link MoveOrderer} instance for boards with the same dimensions as the
+     * specified board.
+     *
+     * @param board a {@link Board} instance with the dimensions of the ordered boards.
+     */
+    public MoveOrderer(Board board) {
+        columnCount = board.getColumnCount();
+        centerOrder = Board.getCenterOrder(columnCount);
+        centerBias = new int[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            centerBias[centerOrder[i]] = columnCount - i;
+        }
+        killers = new int[2 * (board.getCellCount() + 1)];
+        history = new int[2 * columnCount];
+        ranks = new int[columnCount];
+        moveBuffers = new int[board.getCellCount() + 1][];
+        clear();
+    }
+
+    /**
+     * Returns whether the orderer can order the moves of the specified board.
+     *
+     * @param board a {@link Board} instance.
+     * @return {@code true} if the board has the dimensions the orderer was created for;
+     *         Otherwise, {@code false}.
+     */
+    public boolean fits(Board board) {
+        return board.getColumnCount() == columnCount
+                && board.getCellCount() + 1 == moveBuffers.length;
+    }
+
+    /**
+     * Forgets all the killer moves and history scores, for example before a new game.
+     */
+    public void clear() {
+        Arrays.fill(killers, -1);
+        Arrays.fill(history, 0);
+    }
+
+    /**
+     * Generates the legal moves of the specified position, best first, into the buffer of its
+     * ply, which is the number of checkers on the board.
+     *
+     * @param board    a {@link Board} instance representing the position.
+     * @param checker  the checker of the player to move.
+     * @param hashMove the best move stored for the position, or {@code -1} if there is none.
+     * @param depth    the remaining search depth of the position; immediate wins and blocks are
+     *                 only ranked from {@value #TACTICAL_MIN_DEPTH} plies up.
+     * @return the number of legal moves, which fill the start of {@link #getMoves(int)}.
+     */
+    public int generate(Board board, BoardCell checker, int hashMove, int depth) {
+        int ply = board.getMoveCount();
+        int[] moves = moveBuffers[ply];
+        if (moves == null) {
+            moves = new int[columnCount];
+            moveBuffers[ply] = moves;
+        }
+
+        BoardCell opponent = checker.getOpponent();
+        boolean tactical = depth >= TACTICAL_MIN_DEPTH;
+        int historyOffset = checker == BoardCell.PLAYER_A ? 0 : columnCount;
+        int count = 0;
+        for (int column : centerOrder) {
+            if (!board.isValidDrop(column)) {
+                continue;
+            }
+            int rank;
+            if (column == hashMove) {
+                rank = HASH_MOVE_RANK;
+            } else if (tactical && board.isWinningMove(column, checker)) {
+                rank = WIN_RANK;
+            } else if (tactical && board.isWinningMove(column, opponent)) {
+                rank = BLOCK_RANK;
+            } else if (column == killers[2 * ply]) {
+                rank = KILLER_RANK;
+            } else if (column == killers[2 * ply + 1]) {
+                rank = KILLER_RANK - 1;
+            } else {
+                rank = history[historyOffset + column] + centerBias[column];
+            }
+
+            // Insert after the moves of equal rank, so ties keep the center order
+            int i = count++;
+            while (i > 0 && ranks[i - 1] < rank) {
+                moves[i] = moves[i - 1];
+                ranks[i] = ranks[i - 1];
+                i--;
+            }
+            moves[i] = column;
+            ranks[i] = rank;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the buffer of the moves generated for the specified ply.
+     *
+     * @param ply the number of checkers on the board the moves were generated for.
+     * @return the buffer of moves, valid up to the count returned by
+     *         {@link #generate(Board, BoardCell, int, int)}.
+     */
+    public int[] getMoves(int ply) {
+        return moveBuffers[ply];
+    }
+
+    /**
+     * Records a move that caused a cut-off, making it a killer move of its ply and raising its
+     * history score.
+     *
+     * @param board   a {@link Board} instance representing the position the move was made in.
+     * @param checker the checker of the player who made the move.
+     * @param column  the index (0-based) of the column of the move.
+     * @param depth   the remaining search depth of the position.
+     */
+    public void recordCutoff(Board board, BoardCell checker, int column, int depth) {
+        int ply = board.getMoveCount();
+        if (killers[2 * ply] != column) {
+            killers[2 * ply + 1] = killers[2 * ply];
+            killers[2 * ply] = column;
+        }
+        int index = (checker == BoardCell.PLAYER_A ? 0 : columnCount) + column;
+        history[index] += (int) Math.min((long) depth * depth, MAX_HISTORY);
+        if (history[index] > MAX_HISTORY) {
+            for (int i = 0; i < history.length; i++) {
+                history[i] /= 2;
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package ai;
+
+import model.Board;
+import model.BoardCell;
+
+/**
+ * An interface representing the decision-making strategy of a computer player in the Connect 4
+ * game.
+ *
+ * <p>A strategy only decides which column to play; announcing the move and keeping the drop count
+ * is left to the player using it. A strategy holding threads, such as a pool of search workers,
+ * releases them when it is closed, so it must be closed once it is no longer used.</p>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see RandomStrategy
+ * @see NegamaxStrategy
+ */
+public interface MoveStrategy extends AutoCloseable {
+
+    /**
+     * Selects the column to drop the checker in for the current move.
+     *
+     * <p>Implementations may drop and undo checkers on the specified board while thinking, but must
+     * leave it in the same state as it was passed in.</p>
+     *
+     * @param board   a {@link Board} instance representing the current state of the game board.
+     * @param checker a {@link BoardCell} instance representing the checker of the player to move.
+     * @return the index (0-based) of a column where a checker can be dropped.
+     * @throws IllegalStateException if there is no available column to drop the checker.
+     */
+    int selectMove(Board board, BoardCell checker);
+
+    /**
+     * Stops any search the strategy runs in the background between two moves, such as when the
+     * game is over or the player using it is reset, and waits for it to end. It does nothing by
+     * default.
+     */
+    default void stopThinking() {
+    }
+
+    /**
+     * Releases the threads and other resources held by the strategy. The strategy must not be
+     * used afterwards. It does nothing by default.
+     */
+    @Override
+    default void close() {
+    }
+}
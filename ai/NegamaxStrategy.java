@@ -0,0 +1,457 @@
+package ai;
+
+import metrics.EngineMetrics;
+import model.Board;
+import model.BoardCell;
+import model.MoveOutcome;
+
+/**
+ * A {@link MoveStrategy} that searches the game tree with negamax and alpha-beta pruning.
+ *
+ * <p>At the root, columns are tried from the center outwards, since central checkers take part in
+ * the most lines. Below the root a {@link MoveOrderer} ranks the moves by the hash move, immediate
+ * wins and blocks, killer moves and the history heuristic, so that cut-offs come early. The search
+ * deepens iteratively from one ply up to the configured maximum depth, and stops early when the
+ * optional per-move time budget runs out or the searching thread is interrupted, in which case the
+ * best move of the last fully searched depth is played.</p>
+ *
+ * <p>When a {@link TranspositionTable} is given, every searched position is cached by its
+ * {@link Board#getCanonicalKey()}, so positions reached again through a different move order, or
+ * mirror images of positions already searched, are not searched again, and the best move found
+ * for a position is tried first when it is revisited.</p>
+ *
+ * <p>Scores are seen from the player to move. A win scores {@link #WIN_SCORE} plus the number of
+ * cells still empty after the winning drop, so quicker wins score higher; a draw scores
+ * {@code 0}. A position left unresolved at the maximum depth scores {@code 0} as well, unless the
+ * strategy uses a {@link ThreatEvaluator}, which then scores it by its open windows, threats and
+ * column control.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     // A computer player that looks 10 plies ahead, or thinks for at most 500 ms per move:
+ *     Player player = new ComputerPlayer(name, checker, new NegamaxStrategy(10, 500));
+ *
+ *     // The same player, caching positions in a 64 MB transposition table:
+ *     Player player = new ComputerPlayer(name, checker,
+ *             new NegamaxStrategy(10, 500, new TranspositionTable(64)));
+ *
+ *     // A player scoring the positions at its horizon with a heuristic evaluator:
+ *     Player player = new ComputerPlayer(name, checker,
+ *             new NegamaxStrategy(6, 0, null, true));
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see MoveStrategy
+ * @see TranspositionTable
+ */
+public class NegamaxStrategy implements MoveStrategy {
+
+    /**
+     * The base score of a won position. (Default: {@value})
+     */
+    public static final int WIN_SCORE = 1_000_000;
+
+    /**
+     * The number of nodes searched between two checks of the time budget and of the interrupt
+     * status of the searching thread.
+     */
+    private static final int CLOCK_CHECK_INTERVAL = 4096;
+
+    /**
+     * The maximum number of plies to search ahead.
+     */
+    private final int maxDepth;
+
+    /**
+     * The time budget per move in milliseconds, or {@code 0} if the search is only bounded by
+     * depth.
+     */
+    private final long timeBudgetMillis;
+
+    /**
+     * A {@link TranspositionTable} instance caching searched positions, or {@code null} if
+     * positions are not cached.
+     */
+    private final TranspositionTable table;
+
+    /**
+     * Whether the positions at the maximum depth are scored by a {@link ThreatEvaluator}.
+     */
+    private final boolean heuristic;
+
+    /**
+     * The {@link ThreatEvaluator} instance mirroring the board being searched, or {@code null} if
+     * the strategy does not use one.
+     */
+    private ThreatEvaluator evaluator;
+
+    /**
+     * The column indices in the order they are searched, center first. It is rebuilt whenever a
+     * board with a different number of columns is searched.
+     */
+    private int[] columnOrder;
+
+    /**
+     * The {@link MoveOrderer} instance ordering the moves below the root. It is rebuilt whenever a
+     * board with different dimensions is searched.
+     */
+    private MoveOrderer orderer;
+
+    /**
+     * The number of nodes visited by the last call to {@link #selectMove(Board, BoardCell)}.
+     */
+    private long nodeCount;
+
+    /**
+     * The {@link System#nanoTime()} after which the current search is aborted, or {@code 0} if
+     * there is no time limit.
+     */
+    private long deadline;
+
+    /**
+     * Whether the current search has run out of time or been interrupted.
+     */
+    private boolean aborted;
+
+    /**
+     * The score of the move returned by the last call to {@link #selectMove(Board, BoardCell)}.
+     */
+    private int lastScore;
+
+    /**
+     * Constructs a new {@link NegamaxStrategy} instance bounded only by search depth.
+     *
+     * @param maxDepth the maximum number of plies to search ahead.
+     * @throws IllegalArgumentException if the maximum depth is not positive.
+     */
+    public NegamaxStrategy(int maxDepth) {
+        this(maxDepth, 0);
+    }
+
+    /**
+     * Constructs a new {@link NegamaxStrategy} instance bounded by search depth and a time budget.
+     *
+     * @param maxDepth         the maximum number of plies to search ahead.
+     * @param timeBudgetMillis the time budget per move in milliseconds, or {@code 0} for none.
+     * @throws IllegalArgumentException if the maximum depth is not positive or the time budget is
+     *                                  negative.
+     */
+    public NegamaxStrategy(int maxDepth, long timeBudgetMillis) {
+        this(maxDepth, timeBudgetMillis, null);
+    }
+
+    /**
+     * Constructs a new {@link NegamaxStrategy} instance bounded by search depth and a time budget,
+     * which caches searched positions in the specified transposition table.
+     *
+     * @param maxDepth         the maximum number of plies to search ahead.
+     * @param timeBudgetMillis the time budget per move in milliseconds, or {@code 0} for none.
+     * @param table            a {@link TranspositionTable} instance caching searched positions, or
+     *                         {@code null} if positions are not to be cached.
+     * @throws IllegalArgumentException if the maximum depth is not positive or the time budget is
+     *                                  negative.
+     */
+    public NegamaxStrategy(int maxDepth, long timeBudgetMillis, TranspositionTable table) {
+        this(maxDepth, timeBudgetMillis, table, false);
+    }
+
+    /**
+     * Constructs a new {@link NegamaxStrategy} instance bounded by search depth and a time budget,
+     * which caches searched positions in the specified transposition table, and optionally scores
+     * the positions at the maximum depth with a {@link ThreatEvaluator}.
+     *
+     * @param maxDepth         the maximum number of plies to search ahead.
+     * @param timeBudgetMillis the time budget per move in milliseconds, or {@code 0} for none.
+     * @param table            a {@link TranspositionTable} instance caching searched positions, or
+     *                         {@code null} if positions are not to be cached.
+     * @param heuristic        {@code true} to score the positions at the maximum depth with a
+     *                         {@link ThreatEvaluator}, or {@code false} to score them {@code 0}.
+     * @throws IllegalArgumentException if the maximum depth is not positive or the time budget is
+     *                                  negative.
+     */
+    public NegamaxStrategy(int maxDepth, long timeBudgetMillis, TranspositionTable table,
+                           boolean heuristic) {
+        if (maxDepth <= 0) {
+            throw new IllegalArgumentException("Invalid search depth: " + maxDepth +
+                    ". Must be positive.");
+        }
+        if (timeBudgetMillis < 0) {
+            throw new IllegalArgumentException("Invalid time budget: " + timeBudgetMillis +
+                    ". Must not be negative.");
+        }
+        this.maxDepth = maxDepth;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.table = table;
+        this.heuristic = heuristic;
+        columnOrder = new int[0];
+    }
+
+    /**
+     * Prepares the column order and the move orderer for the specified board, if it has different
+     * dimensions than the last board searched.
+     *
+     * @param board the board about to be searched.
+     */
+    private void prepareColumnOrder(Board board) {
+        if (orderer == null || !orderer.fits(board)) {
+            orderer = new MoveOrderer(board);
+        }
+        int columnCount = board.getColumnCount();
+        if (columnOrder.length != columnCount) {
+            columnOrder = Board.getCenterOrder(columnCount);
+        }
+    }
+
+    /**
+     * Searches the game tree and returns the best column found for the current move.
+     *
+     * @param board   a {@link Board} instance representing the current state of the game board.
+     * @param checker a {@link BoardCell} instance representing the checker of the player to move.
+     * @return the index (0-based) of the best column found.
+     * @throws IllegalStateException if there is no available column to drop the checker.
+     */
+    @Override
+    public int selectMove(Board board, BoardCell checker) {
+        if (!EngineMetrics.ENABLED) {
+            return deepen(board, checker);
+        }
+        long probes = table == null ? 0 : table.getProbeCount();
+        long hits = table == null ? 0 : table.getHitCount();
+        int bestMove = deepen(board, checker);
+        recordSearch(probes, hits);
+        return bestMove;
+    }
+
+    /**
+     * Deepens the search iteratively until the maximum depth, a forced result or the end of the
+     * time budget.
+     *
+     * @param board   a {@link Board} instance representing the current state of the game board.
+     * @param checker a {@link BoardCell} instance representing the checker of the player to move.
+     * @return the index (0-based) of the best column found.
+     * @throws IllegalStateException if there is no available column to drop the checker.
+     */
+    private int deepen(Board board, BoardCell checker) {
+        nodeCount = 0;
+        aborted = false;
+        deadline = timeBudgetMillis > 0 ? System.nanoTime() + timeBudgetMillis * 1_000_000L : 0;
+        prepareColumnOrder(board);
+        evaluator = heuristic ? new ThreatEvaluator(board) : null;
+
+        int bestMove = -1;
+        for (int column : columnOrder) {
+            if (board.isValidDrop(column)) {
+                bestMove = column;
+                break;
+            }
+        }
+        if (bestMove < 0) {
+            throw new IllegalStateException("No columns available for the computer player to " +
+                    "drop the checker.");
+        }
+
+        lastScore = 0;
+        int remainingCells = board.getCellCount() - board.getMoveCount();
+        for (int depth = 1; depth <= Math.min(maxDepth, remainingCells); depth++) {
+            int bestScore = -Integer.MAX_VALUE;
+            int bestAtDepth = bestMove;
+            // Try the best move of the previous depth first
+            for (int i = -1; i < columnOrder.length; i++) {
+                int column = i < 0 ? bestMove : columnOrder[i];
+                if ((i >= 0 && column == bestMove) || !board.isValidDrop(column)) {
+                    continue;
+                }
+                int score = scoreDrop(board, checker, column, depth, bestScore,
+                        Integer.MAX_VALUE);
+                if (aborted) {
+                    return bestMove;
+                }
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestAtDepth = column;
+                }
+            }
+            bestMove = bestAtDepth;
+            lastScore = bestScore;
+            if (Math.abs(bestScore) >= WIN_SCORE) {
+                break;
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * Returns the negamax score of the specified position searched to the specified depth, seen
+     * from the player to move.
+     *
+     * <p>The search is not bounded by the time budget. If the searching thread is interrupted, it
+     * stops early and the score is meaningless.</p>
+     *
+     * @param board   a {@link Board} instance representing the position to be searched.
+     * @param checker a {@link BoardCell} instance representing the checker of the player to move.
+     * @param depth   the number of plies to search ahead.
+     * @return the score of the position.
+     * @throws IllegalArgumentException if the depth is not positive.
+     */
+    public int search(Board board, BoardCell checker, int depth) {
+        if (depth <= 0) {
+            throw new IllegalArgumentException("Invalid search depth: " + depth +
+                    ". Must be positive.");
+        }
+        nodeCount = 0;
+        aborted = false;
+        deadline = 0;
+        prepareColumnOrder(board);
+        evaluator = heuristic ? new ThreatEvaluator(board) : null;
+        if (!EngineMetrics.ENABLED) {
+            return negamax(board, checker, depth, -Integer.MAX_VALUE, Integer.MAX_VALUE);
+        }
+        long probes = table == null ? 0 : table.getProbeCount();
+        long hits = table == null ? 0 : table.getHitCount();
+        int score = negamax(board, checker, depth, -Integer.MAX_VALUE, Integer.MAX_VALUE);
+        recordSearch(probes, hits);
+        return score;
+    }
+
+    /**
+     * Reports the work of the last search to the {@link EngineMetrics}.
+     *
+     * @param probes the number of table probes before the search.
+     * @param hits   the number of table hits before the search.
+     */
+    private void recordSearch(long probes, long hits) {
+        if (table == null) {
+            EngineMetrics.recordSearch(nodeCount, 0, 0);
+        } else {
+            EngineMetrics.recordSearch(nodeCount, table.getProbeCount() - probes,
+                    table.getHitCount() - hits);
+        }
+    }
+
+    /**
+     * Returns the number of nodes visited by the last search.
+     *
+     * @return the number of nodes visited by the last search.
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the score of the move returned by the last call to
+     * {@link #selectMove(Board, BoardCell)}, as found by the deepest completed iteration.
+     *
+     * @return the score of the last selected move, seen from the player who made it.
+     */
+    public int getLastScore() {
+        return lastScore;
+    }
+
+    /**
+     * Drops a checker in the specified column, scores the resulting position from the mover's
+     * point of view, and takes the checker back.
+     *
+     * @param board   the board being searched.
+     * @param checker the checker of the player to move.
+     * @param column  the column to drop the checker in; it must not be full.
+     * @param depth   the remaining depth including this drop.
+     * @param alpha   the lower bound of the search window.
+     * @param beta    the upper bound of the search window.
+     * @return the score of the drop.
+     */
+    private int scoreDrop(Board board, BoardCell checker, int column, int depth, int alpha,
+                          int beta) {
+        MoveOutcome outcome = board.dropChecker(column, checker);
+        int score;
+        if (outcome == MoveOutcome.WIN) {
+            score = WIN_SCORE + board.getCellCount() - board.getMoveCount();
+        } else if (outcome == MoveOutcome.DRAW) {
+            score = 0;
+        } else if (evaluator == null) {
+            score = depth == 1 ? 0 : -negamax(board, checker.getOpponent(), depth - 1, -beta,
+                    -alpha);
+        } else {
+            evaluator.drop(column, checker);
+            score = depth == 1 ? evaluator.evaluate(checker)
+                    : -negamax(board, checker.getOpponent(), depth - 1, -beta, -alpha);
+            evaluator.undo(column);
+        }
+        board.undoDrop(column);
+        return score;
+    }
+
+    /**
+     * Returns the negamax score of the current position, seen from the player to move.
+     *
+     * @param board   the board being searched.
+     * @param checker the checker of the player to move.
+     * @param depth   the number of plies to search ahead.
+     * @param alpha   the lower bound of the search window.
+     * @param beta    the upper bound of the search window.
+     * @return the score of the position, or {@code 0} if the search has been aborted.
+     */
+    private int negamax(Board board, BoardCell checker, int depth, int alpha, int beta) {
+        nodeCount++;
+        if (nodeCount % CLOCK_CHECK_INTERVAL == 0 && (deadline != 0
+                && System.nanoTime() > deadline || Thread.currentThread().isInterrupted())) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+
+        int originalAlpha = alpha;
+        int hashMove = -1;
+        if (table != null) {
+            long entry = table.probe(board.getCanonicalKey());
+            if (entry != TranspositionTable.MISS) {
+                hashMove = board.fromCanonicalMove(TranspositionTable.moveOf(entry));
+                if (TranspositionTable.depthOf(entry) >= depth) {
+                    int score = TranspositionTable.scoreOf(entry);
+                    int bound = TranspositionTable.boundOf(entry);
+                    if (bound == TranspositionTable.EXACT) {
+                        return score;
+                    } else if (bound == TranspositionTable.LOWER_BOUND) {
+                        alpha = Math.max(alpha, score);
+                    } else {
+                        beta = Math.min(beta, score);
+                    }
+                    if (alpha >= beta) {
+                        return score;
+                    }
+                }
+            }
+        }
+
+        int bestScore = -Integer.MAX_VALUE;
+        int bestMove = -1;
+        int moveCount = orderer.generate(board, checker, hashMove, depth);
+        int[] moves = orderer.getMoves(board.getMoveCount());
+        for (int i = 0; i < moveCount; i++) {
+            int column = moves[i];
+            int score = scoreDrop(board, checker, column, depth, alpha, beta);
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = column;
+                if (score > alpha) {
+                    alpha = score;
+                }
+                if (alpha >= beta) {
+                    orderer.recordCutoff(board, checker, column, depth);
+                    break;
+                }
+            }
+        }
+
+        if (table != null && !aborted) {
+            int bound = bestScore <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                    : bestScore >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+            table.store(board.getCanonicalKey(), bestScore, depth, bound,
+                    board.toCanonicalMove(bestMove));
+        }
+        return bestScore;
+    }
+}
@@ -0,0 +1,188 @@
+package ai;
+
+import model.Board;
+import model.BoardCell;
+
+/**
+ * A {@link MoveStrategy} that plays the move leading to the position valued best by an
+ * {@link EvaluationNetwork}.
+ *
+ * <p>A winning move is played at once. Otherwise, the positions after every legal move are
+ * evaluated by the network in a single batch, from the view of the opponent, and the move leaving
+ * the opponent the lowest value is played. A position the opponent can win at once is valued as a
+ * win for them and a full board as a draw, whatever the network says, so the strategy does not
+ * blunder into an immediate loss while other moves are left.</p>
+ *
+ * <p>The strategy keeps scratch arrays between moves, so it must not be shared between threads;
+ * the network itself may be shared by many strategies.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     EvaluationNetwork network = EvaluationNetwork.load(Path.of("value.c4nn"));
+ *     Player player = new ComputerPlayer(name, checker, new NeuralNetworkStrategy(network));
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see EvaluationNetwork
+ */
+public class NeuralNetworkStrategy implements MoveStrategy {
+
+    /**
+     * The {@link EvaluationNetwork} instance evaluating the positions.
+     */
+    private final EvaluationNetwork network;
+
+    /**
+     * The columns in the order they are tried, from the center outwards.
+     */
+    private final int[] columnOrder;
+
+    /**
+     * The bitboards of the checkers of the opponent after every candidate move.
+     */
+    private final long[] current;
+
+    /**
+     * The bitboards of all the checkers after every candidate move.
+     */
+    private final long[] occupied;
+
+    /**
+     * The values of the positions after every candidate move, seen from the opponent.
+     */
+    private final float[] values;
+
+    /**
+     * The column of every candidate move.
+     */
+    private final int[] candidates;
+
+    /**
+     * The value of the position after every candidate move known without the network, or
+     * {@link Float#NaN} if none.
+     */
+    private final float[] knownValues;
+
+    /**
+     * The value of the position after the last move played, seen from the player who played it.
+     */
+    private float lastValue;
+
+    /**
+     * Constructs a new {@link NeuralNetworkStrategy} instance.
+     *
+     * @param network the {@link EvaluationNetwork} instance evaluating the positions.
+     * @throws IllegalArgumentException if the network is {@code null}.
+     */
+    public NeuralNetworkStrategy(EvaluationNetwork network) {
+        if (network == null) {
+            throw new IllegalArgumentException("Invalid network strategy: the network must not " +
+                    "be null.");
+        }
+        this.network = network;
+        int columnCount = network.getColumnCount();
+        columnOrder = Board.getCenterOrder(columnCount);
+        current = new long[columnCount];
+        occupied = new long[columnCount];
+        values = new float[columnCount];
+        candidates = new int[columnCount];
+        knownValues = new float[columnCount];
+    }
+
+    /**
+     * Selects the move leaving the opponent the position with the lowest value.
+     *
+     * @param board   a {@link Board} instance representing the current state of the game board.
+     * @param checker a {@link BoardCell} instance representing the checker of the player to move.
+     * @return the index (0-based) of the best column found.
+     * @throws IllegalArgumentException if the board has different dimensions than the network.
+     * @throws IllegalStateException    if there is no available column to drop the checker.
+     */
+    @Override
+    public int selectMove(Board board, BoardCell checker) {
+        if (board.getRowCount() != network.getRowCount()
+                || board.getColumnCount() != network.getColumnCount()
+                || board.getConnectLength() != network.getConnectLength()) {
+            throw new IllegalArgumentException("Invalid board: " + board.getRowCount() + "x" +
+                    board.getColumnCount() + " connect " + board.getConnectLength() +
+                    ". Must be " + network.getRowCount() + "x" + network.getColumnCount() +
+                    " connect " + network.getConnectLength() + ".");
+        }
+        BoardCell opponent = checker.getOpponent();
+        int count = 0;
+        for (int column : columnOrder) {
+            if (!board.isValidDrop(column)) {
+                continue;
+            }
+            if (board.isWinningMove(column, checker)) {
+                lastValue = 1;
+                return column;
+            }
+            board.dropChecker(column, checker);
+            candidates[count] = column;
+            current[count] = board.getBitboard(opponent);
+            occupied[count] = current[count] | board.getBitboard(checker);
+            knownValues[count] = board.isFull() ? 0 : opponentCanWin(board, opponent) ? 1
+                    : Float.NaN;
+            board.undoDrop(column);
+            count++;
+        }
+        if (count == 0) {
+            throw new IllegalStateException("No columns available for the computer player to " +
+                    "drop the checker.");
+        }
+
+        network.evaluate(current, occupied, count, values);
+        int best = 0;
+        for (int i = 0; i < count; i++) {
+            if (!Float.isNaN(knownValues[i])) {
+                values[i] = knownValues[i];
+            }
+            // Strictly lower, so the most central move wins ties
+            if (values[i] < values[best]) {
+                best = i;
+            }
+        }
+        lastValue = -values[best];
+        return candidates[best];
+    }
+
+    /**
+     * Returns whether the opponent can win with their next move.
+     *
+     * @param board    a {@link Board} instance representing the position.
+     * @param opponent a {@link BoardCell} instance representing the checker of the opponent.
+     * @return {@code true} if some column wins the game for the opponent; Otherwise,
+     *         {@code false}.
+     */
+    private boolean opponentCanWin(Board board, BoardCell opponent) {
+        for (int column = 0; column < board.getColumnCount(); column++) {
+            if (board.isWinningMove(column, opponent)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the value of the position after the last move played, seen from the player who
+     * played it.
+     *
+     * @return the value, between -1 and 1, or 1 if the move won the game.
+     */
+    public float getLastValue() {
+        return lastValue;
+    }
+
+    /**
+     * Returns the {@link EvaluationNetwork} instance evaluating the positions.
+     *
+     * @return the network.
+     */
+    public EvaluationNetwork getNetwork() {
+        return network;
+    }
+}
@@ -0,0 +1,127 @@
+package ai;
+
+import model.Board;
+import model.BoardCell;
+
+import java.util.Random;
+
+/**
+ * A {@link MoveStrategy} that plays a random move now and then instead of the move of another
+ * strategy.
+ *
+ * <p>With the configured probability, a move is chosen by a {@link RandomStrategy}; otherwise it
+ * is chosen by the wrapped strategy. Deterministic strategies such as {@link NegamaxStrategy}
+ * play the same game over and over against each other, so a little noise is what makes
+ * self-play games, and the positions they reach, diverse.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     // Play a random move 10% of the time, and search 8 plies ahead otherwise:
+ *     Player player = new ComputerPlayer(name, checker,
+ *             new NoisyStrategy(new NegamaxStrategy(8), 0.1));
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see RandomStrategy
+ */
+public class NoisyStrategy implements MoveStrategy {
+
+    /**
+     * The {@link MoveStrategy} instance choosing the moves that are not random.
+     */
+    private final MoveStrategy strategy;
+
+    /**
+     * The probability of playing a random move.
+     */
+    private final double noise;
+
+    /**
+     * The {@link RandomStrategy} instance choosing the random moves.
+     */
+    private final RandomStrategy randomStrategy;
+
+    /**
+     * A {@link Random} instance for deciding whether a move is random.
+     */
+    private final Random random;
+
+    /**
+     * Constructs a new {@link NoisyStrategy} instance.
+     *
+     * @param strategy the {@link MoveStrategy} instance choosing the moves that are not random.
+     * @param noise    the probability of playing a random move, between 0 and 1.
+     * @throws IllegalArgumentException if the strategy is {@code null}, or the probability is out
+     *                                  of bounds.
+     */
+    public NoisyStrategy(MoveStrategy strategy, double noise) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("Invalid noisy strategy: the strategy must not " +
+                    "be null.");
+        }
+        if (!(noise >= 0 && noise <= 1)) {
+            throw new IllegalArgumentException("Invalid noise: " + noise +
+                    ". Must be between 0 and 1.");
+        }
+        this.strategy = strategy;
+        this.noise = noise;
+        randomStrategy = new RandomStrategy();
+        random = new Random();
+    }
+
+    /**
+     * Selects a random column with the configured probability, or asks the wrapped strategy
+     * otherwise. A random move stops the background search of the wrapped strategy first, since
+     * that search would be on a position the wrapped strategy never gets to answer.
+     *
+     * @param board   a {@link Board} instance representing the current state of the game board.
+     * @param checker a {@link BoardCell} instance representing the checker of the player to move.
+     * @return the index (0-based) of a column where a checker can be dropped.
+     * @throws IllegalStateException if there is no available column to drop the checker.
+     */
+    @Override
+    public int selectMove(Board board, BoardCell checker) {
+        if (noise > 0 && random.nextDouble() < noise) {
+            strategy.stopThinking();
+            return randomStrategy.selectMove(board, checker);
+        }
+        return strategy.selectMove(board, checker);
+    }
+
+    /**
+     * Returns the {@link MoveStrategy} instance choosing the moves that are not random.
+     *
+     * @return the wrapped strategy.
+     */
+    public MoveStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Returns the probability of playing a random move.
+     *
+     * @return the probability, between 0 and 1.
+     */
+    public double getNoise() {
+        return noise;
+    }
+
+    /**
+     * Stops the background search of the strategy choosing the moves that are not random.
+     */
+    @Override
+    public void stopThinking() {
+        strategy.stopThinking();
+    }
+
+    /**
+     * Closes the strategy choosing the moves that are not random.
+     */
+    @Override
+    public void close() {
+        strategy.close();
+    }
+}
@@ -0,0 +1,246 @@
+package ai;
+
+import model.Board;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only book of precomputed moves for early positions, looked up through a memory-mapped
+ * file.
+ *
+ * <p>The book file starts with a {@value #HEADER_SIZE}-byte header (the magic number
+ * {@code "C4OB"}, the format version, the number of rows, columns and connect length of the board,
+ * a reserved byte and the number of entries), followed by fixed-size entries sorted by position
+ * key. Each {@value #ENTRY_SIZE}-byte entry holds the
+ * {@link Board#getCanonicalKey()} of a position and a packed value made of the score (upper 24
+ * bits) and the best column in the canonical orientation (lower 8 bits), so a position and its
+ * mirror image share one entry. Because the entries are sorted, a lookup is a binary search
+ * straight over the mapped file: nothing is loaded into the heap, and the operating system shares
+ * the pages between all the processes using the same book.</p>
+ *
+ * <p>Book files are created by {@link OpeningBookGenerator}. They are only valid for the board
+ * dimensions and position keys they were generated with: position keys only depend on the number
+ * of cells, so boards of another shape or connect length are rejected by the lookups rather than
+ * answered with moves of the wrong game.</p>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see OpeningBookGenerator
+ * @see OpeningBookStrategy
+ */
+public class OpeningBook {
+
+    /**
+     * The magic number at the start of every book file ({@code "C4OB"}).
+     */
+    static final int MAGIC = 0x43344F42;
+
+    /**
+     * The version of the book file format. (Default: {@value})
+     */
+    static final int VERSION = 3;
+
+    /**
+     * The size of the file header in bytes. (Default: {@value})
+     */
+    static final int HEADER_SIZE = 16;
+
+    /**
+     * The size of an entry in bytes. (Default: {@value})
+     */
+    static final int ENTRY_SIZE = 12;
+
+    /**
+     * The mapped content of the book file.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The number of rows of the board the book was generated for.
+     */
+    private final int rowCount;
+
+    /**
+     * The number of columns of the board the book was generated for.
+     */
+    private final int columnCount;
+
+    /**
+     * The connect length of the board the book was generated for.
+     */
+    private final int connectLength;
+
+    /**
+     * The number of entries in the book.
+     */
+    private final int entryCount;
+
+    /**
+     * Opens the book stored in the specified file.
+     *
+     * @param file the {@link Path} of the book file.
+     * @throws IOException              if the file cannot be read or mapped.
+     * @throws IllegalArgumentException if the file is not a valid book file.
+     */
+    public OpeningBook(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid opening book size: " + channel.size() +
+                        " bytes.");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+                throw new IllegalArgumentException("Invalid opening book file: " + file);
+            }
+            rowCount = Byte.toUnsignedInt(mapped.get(8));
+            columnCount = Byte.toUnsignedInt(mapped.get(9));
+            connectLength = Byte.toUnsignedInt(mapped.get(10));
+            entryCount = mapped.getInt(12);
+            if ((long) HEADER_SIZE + (long) entryCount * ENTRY_SIZE != channel.size()) {
+                throw new IllegalArgumentException("Truncated opening book file: " + file);
+            }
+            buffer = mapped;
+        }
+    }
+
+    /**
+     * Returns the number of positions in the book.
+     *
+     * @return the number of positions in the book.
+     */
+    public int size() {
+        return entryCount;
+    }
+
+    /**
+     * Returns the number of rows of the board the book was generated for.
+     *
+     * @return the number of rows.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the number of columns of the board the book was generated for.
+     *
+     * @return the number of columns.
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Returns the connect length of the board the book was generated for.
+     *
+     * @return the connect length.
+     */
+    public int getConnectLength() {
+        return connectLength;
+    }
+
+    /**
+     * Looks up the best move of the specified position.
+     *
+     * @param board a {@link Board} instance representing the position to be looked up.
+     * @return the index (0-based) of the best column, or {@code -1} if the position is not in the
+     *         book.
+     * @throws IllegalArgumentException if the board has different dimensions than the book.
+     */
+    public int lookup(Board board) {
+        checkBoard(board);
+        int index = indexOf(board.getCanonicalKey());
+        if (index < 0) {
+            return -1;
+        }
+        return board.fromCanonicalMove(buffer.getInt(HEADER_SIZE + index * ENTRY_SIZE + 8) & 0xFF);
+    }
+
+    /**
+     * Looks up the score of the best move of the specified position.
+     *
+     * @param board a {@link Board} instance representing the position to be looked up.
+     * @return the score of the best move, seen from the player to move, or {@code 0} if the
+     *         position is not in the book.
+     * @throws IllegalArgumentException if the board has different dimensions than the book.
+     */
+    public int lookupScore(Board board) {
+        checkBoard(board);
+        int index = indexOf(board.getCanonicalKey());
+        return index < 0 ? 0 : buffer.getInt(HEADER_SIZE + index * ENTRY_SIZE + 8) >> 8;
+    }
+
+    /**
+     * Checks that the specified board has the dimensions the book was generated for.
+     *
+     * @param board a {@link Board} instance representing the position to be looked up.
+     * @throws IllegalArgumentException if the board has different dimensions than the book.
+     */
+    private void checkBoard(Board board) {
+        if (board.getRowCount() != rowCount || board.getColumnCount() != columnCount
+                || board.getConnectLength() != connectLength) {
+            throw new IllegalArgumentException("Invalid board: " + board.getRowCount() + "x" +
+                    board.getColumnCount() + " connect " + board.getConnectLength() +
+                    ". Must be " + rowCount + "x" + columnCount + " connect " + connectLength +
+                    ".");
+        }
+    }
+
+    /**
+     * Returns the index of the entry with the specified key.
+     *
+     * @param key the position key to be found.
+     * @return the index of the entry, or {@code -1} if there is none.
+     */
+    private int indexOf(long key) {
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleKey = buffer.getLong(HEADER_SIZE + middle * ENTRY_SIZE);
+            if (middleKey < key) {
+                low = middle + 1;
+            } else if (middleKey > key) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Writes a book file with the specified entries.
+     *
+     * @param out    the {@link OutputStream} to write the book to.
+     * @param board  a {@link Board} instance with the dimensions the book is generated for.
+     * @param keys   the position keys of the entries, sorted in ascending order without duplicates.
+     * @param scores the scores of the best moves, parallel to the keys.
+     * @param moves  the best columns, parallel to the keys.
+     * @throws IOException if the book cannot be written.
+     */
+    static void write(OutputStream out, Board board, long[] keys, int[] scores, int[] moves)
+            throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeByte(board.getRowCount());
+        data.writeByte(board.getColumnCount());
+        data.writeByte(board.getConnectLength());
+        // Reserved
+        data.writeByte(0);
+        data.writeInt(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            data.writeLong(keys[i]);
+            data.writeInt((scores[i] << 8) | (moves[i] & 0xFF));
+        }
+        data.flush();
+    }
+}
@@ -0,0 +1,197 @@
+package ai;
+
+import model.Board;
+import model.BoardCell;
+import model.MoveOutcome;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An offline generator of {@link OpeningBook} files.
+ *
+ * <p>It enumerates every distinct position reachable from an empty board with up to the specified
+ * number of checkers, searches each of them with a {@link NegamaxStrategy} backed by a
+ * {@link TranspositionTable}, and writes the best moves to a book file sorted by position key.
+ * Positions are searched in parallel, one strategy and table per thread.</p>
+ *
+ * <p>Usage: {@code java ai.OpeningBookGenerator <file> [plies] [depth] [threads] [tableMB]}.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     // Book every position with up to 6 checkers, searched 14 plies deep:
+ *     java ai.OpeningBookGenerator opening.book 6 14
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see OpeningBook
+ */
+public class OpeningBookGenerator {
+
+    /**
+     * The default maximum number of checkers of a booked position. (Default: {@value})
+     */
+    private static final int DEFAULT_PLIES = 6;
+
+    /**
+     * The default search depth of a booked position. (Default: {@value})
+     */
+    private static final int DEFAULT_DEPTH = 12;
+
+    /**
+     * The default size of the transposition table of each thread in megabytes. (Default: {@value})
+     */
+    private static final int DEFAULT_TABLE_MEGABYTES = 64;
+
+    /**
+     * Collects every distinct position reachable from the current one with up to the specified
+     * number of checkers, where the game is still going on. A position and its mirror image count
+     * as one, since they share a canonical key.
+     *
+     * @param board     the board in the current position; it is restored before returning.
+     * @param checker   the checker of the player to move.
+     * @param plies     the maximum number of checkers of a collected position.
+     * @param moves     the columns (1-indexed) played to reach the current position.
+     * @param positions the collected positions, mapping their canonical keys to the moves reaching
+     *                  them.
+     */
+    private static void collect(Board board, BoardCell checker, int plies, StringBuilder moves,
+                                Map<Long, String> positions) {
+        if (positions.putIfAbsent(board.getCanonicalKey(), moves.toString()) != null
+                || board.getMoveCount() >= plies) {
+            return;
+        }
+        for (int i = 0; i < board.getColumnCount(); i++) {
+            if (!board.isValidDrop(i)) {
+                continue;
+            }
+            if (board.dropChecker(i, checker) == MoveOutcome.CONTINUE) {
+                moves.append((char) ('1' + i));
+                collect(board, checker.getOpponent(), plies, moves, positions);
+                moves.setLength(moves.length() - 1);
+            }
+            board.undoDrop(i);
+        }
+    }
+
+    /**
+     * Generates a book of every position with up to the specified number of checkers.
+     *
+     * @param out            the {@link OutputStream} to write the book to.
+     * @param plies          the maximum number of checkers of a booked position.
+     * @param depth          the search depth of every booked position.
+     * @param threadCount    the number of threads searching at once.
+     * @param tableMegabytes the size of the transposition table of each thread in megabytes.
+     * @return the number of positions written to the book.
+     * @throws IOException          if the book cannot be written.
+     * @throws InterruptedException if the calling thread is interrupted while waiting.
+     */
+    public static int generate(OutputStream out, int plies, int depth, int threadCount,
+                               int tableMegabytes) throws IOException, InterruptedException {
+        Map<Long, String> positions = new HashMap<>();
+        collect(new Board(), BoardCell.PLAYER_A, plies, new StringBuilder(), positions);
+
+        long[] keys = new long[positions.size()];
+        String[] sequences = new String[positions.size()];
+        int count = 0;
+        for (Map.Entry<Long, String> position : positions.entrySet()) {
+            keys[count] = position.getKey();
+            sequences[count++] = position.getValue();
+        }
+
+        int[] scores = new int[count];
+        int[] moves = new int[count];
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threadCount; t++) {
+                workers.add(executor.submit(() -> {
+                    NegamaxStrategy search = new NegamaxStrategy(depth, 0,
+                            new TranspositionTable(tableMegabytes));
+                    for (int i = next.getAndIncrement(); i < keys.length;
+                         i = next.getAndIncrement()) {
+                        Board board = new Board();
+                        BoardCell checker = BoardCell.PLAYER_A;
+                        for (int j = 0; j < sequences[i].length(); j++) {
+                            board.dropChecker(sequences[i].charAt(j) - '1', checker);
+                            checker = checker.getOpponent();
+                        }
+                        moves[i] = board.toCanonicalMove(search.selectMove(board, checker));
+                        scores[i] = search.getLastScore();
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Searching a book position failed.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Sort the entries by key
+        Map<Long, Integer> indices = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            indices.put(keys[i], i);
+        }
+        long[] sortedKeys = keys.clone();
+        Arrays.sort(sortedKeys);
+        int[] sortedScores = new int[count];
+        int[] sortedMoves = new int[count];
+        for (int i = 0; i < count; i++) {
+            int index = indices.get(sortedKeys[i]);
+            sortedScores[i] = scores[index];
+            sortedMoves[i] = moves[index];
+        }
+        OpeningBook.write(out, new Board(), sortedKeys, sortedScores, sortedMoves);
+        return count;
+    }
+
+    /**
+     * The main entry point of the generator.
+     *
+     * @param args the book file, followed by the optional number of plies, search depth, number of
+     *             threads and table size in megabytes.
+     * @throws IOException          if the book cannot be written.
+     * @throws InterruptedException if the main thread is interrupted while waiting.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Usage: java ai.OpeningBookGenerator <file> [plies] [depth] " +
+                    "[threads] [tableMB]");
+            return;
+        }
+        Path file = Path.of(args[0]);
+        int plies = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PLIES;
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_DEPTH;
+        int threads = args.length > 3 ? Integer.parseInt(args[3])
+                : Runtime.getRuntime().availableProcessors();
+        int tableMegabytes = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_TABLE_MEGABYTES;
+
+        long start = System.nanoTime();
+        int count;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            count = generate(out, plies, depth, threads, tableMegabytes);
+        }
+        System.out.printf("Wrote %,d positions (up to %d plies, depth %d) to %s in %.1f s%n",
+                count, plies, depth, file, (System.nanoTime() - start) / 1e9);
+    }
+}
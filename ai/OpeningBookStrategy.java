@@ -0,0 +1,81 @@
+package ai;
+
+import model.Board;
+import model.BoardCell;
+
+/**
+ * A {@link MoveStrategy} that plays moves from an {@link OpeningBook} while the position is in the
+ * book, and falls back to another strategy once it is not.
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     OpeningBook book = new OpeningBook(Path.of("opening.book"));
+ *     Player player = new ComputerPlayer(name, checker,
+ *             new OpeningBookStrategy(book, new NegamaxStrategy(12, 500)));
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see OpeningBook
+ */
+public class OpeningBookStrategy implements MoveStrategy {
+
+    /**
+     * The {@link OpeningBook} instance looked up first.
+     */
+    private final OpeningBook book;
+
+    /**
+     * The {@link MoveStrategy} instance used for positions outside the book.
+     */
+    private final MoveStrategy fallback;
+
+    /**
+     * Constructs a new {@link OpeningBookStrategy} instance.
+     *
+     * @param book     the {@link OpeningBook} instance looked up first; it may be shared between
+     *                 strategies and threads.
+     * @param fallback the {@link MoveStrategy} instance used for positions outside the book.
+     */
+    public OpeningBookStrategy(OpeningBook book, MoveStrategy fallback) {
+        this.book = book;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Returns the book move of the current position, or asks the fallback strategy if there is
+     * none.
+     *
+     * @param board   a {@link Board} instance representing the current state of the game board.
+     * @param checker a {@link BoardCell} instance representing the checker of the player to move.
+     * @return the index (0-based) of the column to drop the checker in.
+     * @throws IllegalArgumentException if the board has different dimensions than the book.
+     * @throws IllegalStateException    if there is no available column to drop the checker.
+     */
+    @Override
+    public int selectMove(Board board, BoardCell checker) {
+        int move = book.lookup(board);
+        if (move >= 0 && move < board.getColumnCount() && board.isValidDrop(move)) {
+            return move;
+        }
+        return fallback.selectMove(board, checker);
+    }
+
+    /**
+     * Stops the background search of the fallback strategy.
+     */
+    @Override
+    public void stopThinking() {
+        fallback.stopThinking();
+    }
+
+    /**
+     * Closes the fallback strategy.
+     */
+    @Override
+    public void close() {
+        fallback.close();
+    }
+}
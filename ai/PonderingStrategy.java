@@ -0,0 +1,248 @@
+package ai;
+
+import model.Board;
+import model.BoardCell;
+import model.MoveOutcome;
+
+/**
+ * A {@link MoveStrategy} that keeps searching on the opponent's time.
+ *
+ * <p>Moves are chosen by a {@link NegamaxStrategy}. As soon as a move is chosen, a background
+ * thread starts pondering the position after it: it predicts the opponent's reply by searching
+ * the position from their side, and then searches the position after every reply, the predicted
+ * one first, with a second {@link NegamaxStrategy}. Both strategies share the
+ * {@link TranspositionTable}, so when the actual reply arrives and the next move is asked for,
+ * the positions below it are already in the table, and the search is answered mostly from it.
+ * Pondering is stopped, by interrupting its thread, before the next move is searched, so the two
+ * searches never compete for the processor, and also by {@link #stopThinking()} once the game is
+ * over or the player is reset, and by {@link #close()}.</p>
+ *
+ * <p>Pondering pays off when the opponent is slow, like a human player typing their moves; when
+ * both players are computer players on the same processors, the pondering thread competes with the
+ * opponent instead. It uses no time of its own: a move is searched with the same depth and time
+ * budget as without pondering, only faster.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     // Search 12 plies ahead, and keep searching while the opponent thinks:
+ *     Player player = new ComputerPlayer(name, checker,
+ *             new PonderingStrategy(12, 0, new TranspositionTable(64), true));
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see NegamaxStrategy
+ * @see TranspositionTable
+ */
+public class PonderingStrategy implements MoveStrategy {
+
+    /**
+     * The {@link NegamaxStrategy} instance choosing the moves.
+     */
+    private final NegamaxStrategy strategy;
+
+    /**
+     * The {@link NegamaxStrategy} instance searching on the opponent's time, only used by the
+     * pondering thread.
+     */
+    private final NegamaxStrategy ponderer;
+
+    /**
+     * The thread pondering the position after the last move, or {@code null} if none.
+     */
+    private Thread ponderThread;
+
+    /**
+     * Whether the last pondering predicted a reply.
+     */
+    private volatile boolean predicted;
+
+    /**
+     * The {@link Board#getKey()} of the position after the predicted reply.
+     */
+    private volatile long predictedKey;
+
+    /**
+     * The number of moves chosen after a predicted reply.
+     */
+    private long predictionCount;
+
+    /**
+     * The number of moves chosen after a reply which had been predicted correctly.
+     */
+    private long hitCount;
+
+    /**
+     * Constructs a new {@link PonderingStrategy} instance.
+     *
+     * @param maxDepth         the maximum number of plies to search ahead.
+     * @param timeBudgetMillis the time budget per move in milliseconds, or {@code 0} for none.
+     * @param table            the {@link TranspositionTable} instance shared by the searches.
+     * @param heuristic        {@code true} to score the positions at the maximum depth with a
+     *                         {@link ThreatEvaluator}, or {@code false} to score them {@code 0}.
+     * @throws IllegalArgumentException if the table is {@code null}, the maximum depth is not
+     *                                  positive or the time budget is negative.
+     */
+    public PonderingStrategy(int maxDepth, long timeBudgetMillis, TranspositionTable table,
+                             boolean heuristic) {
+        if (table == null) {
+            throw new IllegalArgumentException("Invalid pondering strategy: the transposition " +
+                    "table must not be null.");
+        }
+        strategy = new NegamaxStrategy(maxDepth, timeBudgetMillis, table, heuristic);
+        ponderer = new NegamaxStrategy(maxDepth, 0, table, heuristic);
+    }
+
+    /**
+     * Stops pondering, searches the best move, and starts pondering the position after it.
+     *
+     * @param board   a {@link Board} instance representing the current state of the game board.
+     * @param checker a {@link BoardCell} instance representing the checker of the player to move.
+     * @return the index (0-based) of the best column found.
+     * @throws IllegalStateException if there is no available column to drop the checker.
+     */
+    @Override
+    public synchronized int selectMove(Board board, BoardCell checker) {
+        stopPondering();
+        if (predicted) {
+            predicted = false;
+            predictionCount++;
+            if (board.getKey() == predictedKey) {
+                hitCount++;
+            }
+        }
+
+        int move = strategy.selectMove(board, checker);
+        Board next = board.copy();
+        if (next.dropChecker(move, checker) == MoveOutcome.CONTINUE) {
+            ponderThread = new Thread(() -> ponder(next, checker.getOpponent()), "ponder");
+            ponderThread.setDaemon(true);
+            ponderThread.start();
+        }
+        return move;
+    }
+
+    /**
+     * Searches the replies to the last move until they have all been searched, or the thread is
+     * interrupted.
+     *
+     * @param board    a {@link Board} instance owned by the thread, representing the position
+     *                 after the last move.
+     * @param opponent a {@link BoardCell} instance representing the checker of the opponent.
+     */
+    private void ponder(Board board, BoardCell opponent) {
+        // The reply we would play in the opponent's place is the most likely one
+        int reply = ponderer.selectMove(board, opponent);
+        if (Thread.currentThread().isInterrupted()) {
+            return;
+        }
+        board.dropChecker(reply, opponent);
+        predictedKey = board.getKey();
+        predicted = true;
+        board.undoDrop(reply);
+        ponderReply(board, reply, opponent);
+
+        for (int column : Board.getCenterOrder(board.getColumnCount())) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            if (column != reply) {
+                ponderReply(board, column, opponent);
+            }
+        }
+    }
+
+    /**
+     * Searches the position after the specified reply, if it can be played and does not end the
+     * game.
+     *
+     * @param board    a {@link Board} instance owned by the thread, representing the position
+     *                 after the last move.
+     * @param column   the index (0-based) of the column of the reply.
+     * @param opponent a {@link BoardCell} instance representing the checker of the opponent.
+     */
+    private void ponderReply(Board board, int column, BoardCell opponent) {
+        if (!board.isValidDrop(column)) {
+            return;
+        }
+        if (board.dropChecker(column, opponent) == MoveOutcome.CONTINUE) {
+            ponderer.selectMove(board, opponent.getOpponent());
+        }
+        board.undoDrop(column);
+    }
+
+    /**
+     * Stops pondering once the game is over or the player is reset, and waits for the pondering
+     * thread to finish. The prediction made for the game so far is discarded, so it does not count
+     * as a miss against the first move of the next game.
+     */
+    @Override
+    public synchronized void stopThinking() {
+        stopPondering();
+        predicted = false;
+    }
+
+    /**
+     * Stops pondering, and waits for the pondering thread to finish. The prediction of the
+     * pondering is kept for {@link #selectMove(Board, BoardCell)} to check.
+     */
+    private void stopPondering() {
+        if (ponderThread == null) {
+            return;
+        }
+        ponderThread.interrupt();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                ponderThread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        ponderThread = null;
+    }
+
+    /**
+     * Stops pondering. The strategy holds no other threads, so it may still be used afterwards.
+     */
+    @Override
+    public void close() {
+        stopThinking();
+    }
+
+    /**
+     * Returns the score of the move returned by the last call to
+     * {@link #selectMove(Board, BoardCell)}.
+     *
+     * @return the score of the last selected move, seen from the player who made it.
+     * @see NegamaxStrategy#getLastScore()
+     */
+    public synchronized int getLastScore() {
+        return strategy.getLastScore();
+    }
+
+    /**
+     * Returns the number of moves chosen after pondering had predicted the opponent's reply.
+     *
+     * @return the number of predictions.
+     */
+    public synchronized long getPredictionCount() {
+        return predictionCount;
+    }
+
+    /**
+     * Returns the number of moves chosen after pondering had predicted the opponent's reply
+     * correctly.
+     *
+     * @return the number of correct predictions.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+}
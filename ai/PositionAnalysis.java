@@ -0,0 +1,141 @@
+package ai;
+
+import model.Board;
+
+/**
+ * Represents the analysis of a position by an {@link AnalysisService}: the score of every column
+ * and the best of them.
+ *
+ * <p>Scores are seen from the player to move, in the scale of {@link NegamaxStrategy}: a win
+ * scores above {@link NegamaxStrategy#WIN_SCORE}, a loss below its negation, and anything else is
+ * a heuristic estimate. A full column has no score. Instances are immutable, so a cached analysis
+ * can be handed to any number of callers.</p>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see AnalysisService
+ */
+public class PositionAnalysis {
+
+    /**
+     * The score of a full column, which cannot be played.
+     */
+    public static final int NO_SCORE = Integer.MIN_VALUE;
+
+    /**
+     * The score of every column, or {@link #NO_SCORE} for a full column.
+     */
+    private final int[] scores;
+
+    /**
+     * The index (0-based) of the column with the best score.
+     */
+    private final int bestMove;
+
+    /**
+     * Constructs a new {@link PositionAnalysis} instance. The best move is the column with the
+     * highest score, and the one closest to the center among equal scores.
+     *
+     * @param scores the score of every column, or {@link #NO_SCORE} for a full column; the array
+     *               is kept, not copied.
+     * @throws IllegalArgumentException if every column is full.
+     */
+    PositionAnalysis(int[] scores) {
+        int best = -1;
+        for (int columnId : Board.getCenterOrder(scores.length)) {
+            if (scores[columnId] != NO_SCORE && (best < 0 || scores[columnId] > scores[best])) {
+                best = columnId;
+            }
+        }
+        if (best < 0) {
+            throw new IllegalArgumentException("Invalid analysis: every column is full.");
+        }
+        this.scores = scores;
+        bestMove = best;
+    }
+
+    /**
+     * Returns the number of columns of the analyzed board.
+     *
+     * @return the number of columns.
+     */
+    public int getColumnCount() {
+        return scores.length;
+    }
+
+    /**
+     * Returns whether a checker can be dropped in the specified column.
+     *
+     * @param columnId the index (0-based) of the column.
+     * @return {@code true} if the column is not full; Otherwise, {@code false}.
+     */
+    public boolean isLegal(int columnId) {
+        return scores[columnId] != NO_SCORE;
+    }
+
+    /**
+     * Returns the score of dropping a checker in the specified column.
+     *
+     * @param columnId the index (0-based) of the column.
+     * @return the score of the move seen from the player to move, or {@link #NO_SCORE} if the
+     *         column is full.
+     */
+    public int getScore(int columnId) {
+        return scores[columnId];
+    }
+
+    /**
+     * Returns the scores of all the columns.
+     *
+     * @return a copy of the score of every column, with {@link #NO_SCORE} for full columns.
+     */
+    public int[] getScores() {
+        return scores.clone();
+    }
+
+    /**
+     * Returns the best column of the position.
+     *
+     * @return the index (0-based) of the column with the best score.
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * Returns the score of the best column of the position.
+     *
+     * @return the score of the best move seen from the player to move.
+     */
+    public int getBestScore() {
+        return scores[bestMove];
+    }
+
+    /**
+     * Returns the analysis of the mirror image of the analyzed position across the center column.
+     *
+     * @return a new {@link PositionAnalysis} instance with the scores of the columns mirrored.
+     */
+    PositionAnalysis mirror() {
+        int[] mirrored = new int[scores.length];
+        for (int i = 0; i < scores.length; i++) {
+            mirrored[i] = scores[scores.length - 1 - i];
+        }
+        return new PositionAnalysis(mirrored);
+    }
+
+    /**
+     * Returns a one-line description of the analysis, with columns 1-indexed.
+     *
+     * @return the score of every column followed by the best move.
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < scores.length; i++) {
+            text.append(i + 1).append(": ");
+            text.append(scores[i] == NO_SCORE ? "-" : String.valueOf(scores[i])).append("  ");
+        }
+        return text.append("best ").append(bestMove + 1).toString();
+    }
+}
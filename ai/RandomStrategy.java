@@ -0,0 +1,59 @@
+package ai;
+
+import model.Board;
+import model.BoardCell;
+
+import java.util.Random;
+
+/**
+ * A {@link MoveStrategy} that drops the checker in a random available column.
+ *
+ * <p>Choosing a move does not allocate, so the strategy is cheap enough for playouts.</p>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see MoveStrategy
+ */
+public class RandomStrategy implements MoveStrategy {
+
+    /**
+     * A {@link Random} instance for randomly selecting the next column to drop the checker.
+     */
+    private final Random random;
+
+    /**
+     * Constructs a new {@link RandomStrategy} instance.
+     */
+    public RandomStrategy() {
+        random = new Random();
+    }
+
+    /**
+     * Selects a random valid column for the current move.
+     *
+     * @param board   a {@link Board} instance representing the current state of the game board.
+     * @param checker a {@link BoardCell} instance representing the checker of the player to move.
+     * @return the index (0-based) of a randomly chosen available column.
+     * @throws IllegalStateException if there is no available column to drop the checker.
+     */
+    @Override
+    public int selectMove(Board board, BoardCell checker) {
+        int availableCount = 0;
+        for (int i = 0; i < board.getColumnCount(); i++) {
+            if (board.isValidDrop(i)) {
+                availableCount++;
+            }
+        }
+        if (availableCount == 0) {
+            throw new IllegalStateException("No columns available for the computer player to " +
+                    "drop the checker.");
+        }
+        // Walk to the chosen available column instead of collecting them all
+        int choice = random.nextInt(availableCount);
+        for (int i = 0; ; i++) {
+            if (board.isValidDrop(i) && choice-- == 0) {
+                return i;
+            }
+        }
+    }
+}
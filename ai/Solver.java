@@ -0,0 +1,473 @@
+package ai;
+
+import metrics.EngineMetrics;
+import model.Board;
+import model.BoardCell;
+import model.MoveOutcome;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A perfect solver finding the exact game-theoretic value of any position.
+ *
+ * <p>Unlike {@link NegamaxStrategy}, the search always runs to the end of the game. The value is
+ * found by a sequence of null-window searches, each of which only answers whether the value is
+ * above a guess, narrowing the range of possible values until a single one is left. Null-window
+ * searches prune far more than a search with the full window, and the transposition table carries
+ * their results from one iteration to the next.</p>
+ *
+ * <p>Within a search, a move winning at once is played without searching further, a single
+ * immediate threat of the opponent must be blocked, and two of them lose at once. The score is
+ * bounded by the number of empty cells, so windows that cannot be reached are cut off.</p>
+ *
+ * <p>With more than one thread the search is parallelized with Lazy SMP: helper threads search
+ * the same position at the same time on their own boards, each trying the columns in a different
+ * order, and share their results with the main thread only through the transposition table, which
+ * is thread-safe. The helpers are stopped as soon as the main thread has the value, and their
+ * threads are kept for the next position until the solver is closed.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     Solver solver = new Solver(4);
+ *     SolverResult result = solver.solve(board);
+ *     System.out.println(result + ", best column: " + (result.getBestMove() + 1));
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see SolverResult
+ * @see SolverStrategy
+ * @see TranspositionTable
+ */
+public class Solver implements AutoCloseable {
+
+    /**
+     * The size of the transposition table created by default in megabytes. (Default: {@value})
+     */
+    public static final int DEFAULT_TABLE_MEGABYTES = 64;
+
+    /**
+     * The number of threads searching at once, including the calling thread.
+     */
+    private final int threadCount;
+
+    /**
+     * The {@link TranspositionTable} instance shared by all the search threads.
+     */
+    private final TranspositionTable table;
+
+    /**
+     * An {@link ExecutorService} instance running the helper threads, or {@code null} if the
+     * search is single-threaded.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Whether the helper threads are to stop searching the current position.
+     */
+    private volatile boolean stopped;
+
+    /**
+     * Constructs a new {@link Solver} instance with a transposition table of the default size.
+     *
+     * @param threadCount the number of threads searching at once, including the calling thread.
+     * @throws IllegalArgumentException if the thread count is not positive.
+     */
+    public Solver(int threadCount) {
+        this(threadCount, new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * Constructs a new {@link Solver} instance using the specified transposition table.
+     *
+     * <p>The table may be shared with a {@link NegamaxStrategy}, since both use the same scores,
+     * and the solver only trusts entries searched to the end of the game.</p>
+     *
+     * @param threadCount the number of threads searching at once, including the calling thread.
+     * @param table       the {@link TranspositionTable} instance shared by all the search threads.
+     * @throws IllegalArgumentException if the thread count is not positive or the table is
+     *                                  {@code null}.
+     */
+    public Solver(int threadCount, TranspositionTable table) {
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException("Invalid thread count: " + threadCount +
+                    ". Must be positive.");
+        }
+        if (table == null) {
+            throw new IllegalArgumentException("Invalid transposition table: null.");
+        }
+        this.threadCount = threadCount;
+        this.table = table;
+        executor = threadCount == 1 ? null : Executors.newFixedThreadPool(threadCount - 1,
+                runnable -> {
+                    Thread thread = new Thread(runnable, "solver-helper");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Stops the helper threads. The solver must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the {@link TranspositionTable} instance shared by all the search threads.
+     *
+     * @return the transposition table of the solver.
+     */
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Solves the specified position.
+     *
+     * <p>The player to move is the first player if an even number of checkers has been dropped,
+     * and the second player otherwise. The board is not modified.</p>
+     *
+     * @param board a {@link Board} instance representing the position to be solved.
+     * @return a {@link SolverResult} instance holding the value of the position.
+     * @throws IllegalArgumentException if the game is already over in the specified position.
+     * @throws IllegalStateException    if a helper thread fails or the caller is interrupted.
+     */
+    public synchronized SolverResult solve(Board board) {
+        if (board.isFull() || board.checkIfWinning(BoardCell.PLAYER_A)
+                || board.checkIfWinning(BoardCell.PLAYER_B)) {
+            throw new IllegalArgumentException("Invalid position: the game is already over.");
+        }
+
+        long probes = table.getProbeCount();
+        long hits = table.getHitCount();
+        stopped = false;
+        List<Worker> helpers = new ArrayList<>();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 1; i < threadCount; i++) {
+            Worker helper = new Worker(board.copy(), i);
+            helpers.add(helper);
+            futures.add(executor.submit(helper::solveScore));
+        }
+
+        Worker main = new Worker(board.copy(), 0);
+        int score;
+        int bestMove;
+        try {
+            score = main.solveScore();
+            bestMove = main.findMove(score);
+        } finally {
+            stopped = true;
+        }
+
+        long nodeCount = main.nodeCount;
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                futures.get(i).get();
+                nodeCount += helpers.get(i).nodeCount;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while solving.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A helper thread failed.", e.getCause());
+        }
+        if (EngineMetrics.ENABLED) {
+            EngineMetrics.recordSearch(nodeCount, table.getProbeCount() - probes,
+                    table.getHitCount() - hits);
+        }
+
+        // Count the plies up to the winning drop, or the drop filling the board
+        int lastPly = score == 0 ? board.getCellCount()
+                : board.getCellCount() - (Math.abs(score) - NegamaxStrategy.WIN_SCORE);
+        return new SolverResult(score, lastPly - board.getMoveCount(), bestMove, nodeCount);
+    }
+
+    /**
+     * Returns the score of a value in the range searched by the null-window searches.
+     *
+     * <p>Values order the outcomes from the worst to the best without gaps: {@code 0} is a draw,
+     * {@code 1} the slowest possible win, {@code 2} a win one ply faster and so on, and negative
+     * values are the losses in the same way.</p>
+     *
+     * @param value the value of a position.
+     * @return the score in the scale of {@link NegamaxStrategy#WIN_SCORE}.
+     */
+    private static int scoreOf(int value) {
+        if (value == 0) {
+            return 0;
+        }
+        return value > 0 ? NegamaxStrategy.WIN_SCORE + value - 1
+                : -(NegamaxStrategy.WIN_SCORE - value - 1);
+    }
+
+    /**
+     * Returns the value of a score, the inverse of {@link #scoreOf(int)}.
+     *
+     * <p>Scores between a draw and the slowest win or loss are rounded towards a draw.</p>
+     *
+     * @param score the score in the scale of {@link NegamaxStrategy#WIN_SCORE}.
+     * @return the value of the score.
+     */
+    private static int valueOf(int score) {
+        if (Math.abs(score) < NegamaxStrategy.WIN_SCORE) {
+            return 0;
+        }
+        return score > 0 ? score - NegamaxStrategy.WIN_SCORE + 1
+                : score + NegamaxStrategy.WIN_SCORE - 1;
+    }
+
+    /**
+     * A single search thread with its own board, node count and column order.
+     */
+    private final class Worker {
+
+        /**
+         * The board searched in place by the worker.
+         */
+        private final Board board;
+
+        /**
+         * The column indices in the order they are searched.
+         */
+        private final int[] columnOrder;
+
+        /**
+         * Whether the worker is a helper, which stops when the main thread is done.
+         */
+        private final boolean helper;
+
+        /**
+         * The number of nodes visited by the worker.
+         */
+        private long nodeCount;
+
+        /**
+         * Constructs a new {@link Worker} instance.
+         *
+         * @param board    the board to be searched in place.
+         * @param workerId the index of the worker; {@code 0} is the main thread, and every helper
+         *                 rotates the column order by its index.
+         */
+        private Worker(Board board, int workerId) {
+            this.board = board;
+            helper = workerId != 0;
+            int columnCount = board.getColumnCount();
+            int[] centerOrder = Board.getCenterOrder(columnCount);
+            columnOrder = new int[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                columnOrder[i] = centerOrder[(i + workerId) % columnCount];
+            }
+        }
+
+        /**
+         * Returns the checker of the player to move on the board.
+         *
+         * @return the checker of the player to move.
+         */
+        private BoardCell sideToMove() {
+            return board.getMoveCount() % 2 == 0 ? BoardCell.PLAYER_A : BoardCell.PLAYER_B;
+        }
+
+        /**
+         * Finds the exact score of the board by narrowing the range of possible scores with
+         * null-window searches.
+         *
+         * @return the exact score, or an arbitrary score if the worker is a helper and has been
+         *         stopped.
+         */
+        private int solveScore() {
+            int remainingCells = board.getCellCount() - board.getMoveCount();
+            BoardCell checker = sideToMove();
+            // From losing on the opponent's next drop to winning with this one
+            int min = -(remainingCells - 1);
+            int max = remainingCells;
+            while (min < max && !(helper && stopped)) {
+                // Guess close to a draw first, where the cut-offs are quickest
+                int guess = min + (max - min) / 2;
+                if (guess <= 0 && min / 2 < guess) {
+                    guess = min / 2;
+                } else if (guess >= 0 && max / 2 > guess) {
+                    guess = max / 2;
+                }
+                int bound = scoreOf(guess);
+                int score = negamax(checker, bound, bound + 1);
+                // A failed search still bounds the value by the score it returned
+                if (score <= bound) {
+                    max = Math.min(guess, valueOf(score));
+                } else {
+                    min = Math.max(guess + 1, valueOf(score));
+                }
+            }
+            return scoreOf(min);
+        }
+
+        /**
+         * Finds a column achieving the specified score of the board.
+         *
+         * @param score the exact score of the board.
+         * @return the index (0-based) of a column achieving the score.
+         */
+        private int findMove(int score) {
+            BoardCell checker = sideToMove();
+            int bestMove = -1;
+            for (int column : columnOrder) {
+                if (!board.isValidDrop(column)) {
+                    continue;
+                }
+                if (bestMove < 0) {
+                    bestMove = column;
+                }
+                MoveOutcome outcome = board.dropChecker(column, checker);
+                int moveScore;
+                if (outcome == MoveOutcome.WIN) {
+                    moveScore = NegamaxStrategy.WIN_SCORE + board.getCellCount()
+                            - board.getMoveCount();
+                } else if (outcome == MoveOutcome.DRAW) {
+                    moveScore = 0;
+                } else {
+                    // Only test whether the move reaches the score
+                    moveScore = -negamax(checker.getOpponent(), -score, -score + 1);
+                }
+                board.undoDrop(column);
+                if (moveScore >= score) {
+                    return column;
+                }
+            }
+            return bestMove;
+        }
+
+        /**
+         * Returns the negamax score of the board searched to the end of the game, seen from the
+         * player to move.
+         *
+         * @param checker the checker of the player to move.
+         * @param alpha   the lower bound of the search window.
+         * @param beta    the upper bound of the search window.
+         * @return the score of the board, or {@code 0} if the worker has been stopped.
+         */
+        private int negamax(BoardCell checker, int alpha, int beta) {
+            nodeCount++;
+            if (helper && stopped) {
+                return 0;
+            }
+
+            int remainingCells = board.getCellCount() - board.getMoveCount();
+            for (int column = 0; column < columnOrder.length; column++) {
+                if (board.isValidDrop(column)) {
+                    MoveOutcome outcome = board.dropChecker(column, checker);
+                    board.undoDrop(column);
+                    if (outcome == MoveOutcome.WIN) {
+                        return NegamaxStrategy.WIN_SCORE + remainingCells - 1;
+                    }
+                }
+            }
+            if (remainingCells == 1) {
+                return 0;
+            }
+
+            // A column the opponent would win in must be blocked, and two of them cannot be
+            BoardCell opponent = checker.getOpponent();
+            int forcedMove = -1;
+            for (int column = 0; column < columnOrder.length; column++) {
+                if (board.isValidDrop(column)) {
+                    MoveOutcome outcome = board.dropChecker(column, opponent);
+                    board.undoDrop(column);
+                    if (outcome == MoveOutcome.WIN) {
+                        if (forcedMove >= 0) {
+                            return -(NegamaxStrategy.WIN_SCORE + remainingCells - 2);
+                        }
+                        forcedMove = column;
+                    }
+                }
+            }
+
+            // The opponent wins on its next drop at the earliest, and the player on the one after
+            int min = -(NegamaxStrategy.WIN_SCORE + remainingCells - 2);
+            int max = remainingCells >= 3 ? NegamaxStrategy.WIN_SCORE + remainingCells - 3 : 0;
+            if (alpha < min) {
+                alpha = min;
+                if (alpha >= beta) {
+                    return alpha;
+                }
+            }
+            if (beta > max) {
+                beta = max;
+                if (alpha >= beta) {
+                    return beta;
+                }
+            }
+
+            int originalAlpha = alpha;
+            int hashMove = -1;
+            long key = board.getCanonicalKey();
+            long entry = table.probe(key);
+            if (entry != TranspositionTable.MISS) {
+                hashMove = board.fromCanonicalMove(TranspositionTable.moveOf(entry));
+                // Only entries searched to the end of the game are exact enough
+                if (TranspositionTable.depthOf(entry) >= remainingCells) {
+                    int score = TranspositionTable.scoreOf(entry);
+                    int bound = TranspositionTable.boundOf(entry);
+                    if (bound == TranspositionTable.EXACT) {
+                        return score;
+                    } else if (bound == TranspositionTable.LOWER_BOUND) {
+                        alpha = Math.max(alpha, score);
+                    } else {
+                        beta = Math.min(beta, score);
+                    }
+                    if (alpha >= beta) {
+                        return score;
+                    }
+                }
+            }
+            if (forcedMove >= 0) {
+                hashMove = forcedMove;
+            }
+
+            int bestScore = -Integer.MAX_VALUE;
+            int bestMove = -1;
+            // Try the forced move or the best move stored in the table first
+            for (int i = hashMove < 0 ? 0 : -1; i < columnOrder.length; i++) {
+                int column = i < 0 ? hashMove : columnOrder[i];
+                if ((i >= 0 && column == hashMove) || !board.isValidDrop(column)) {
+                    continue;
+                }
+                int score = board.dropChecker(column, checker) == MoveOutcome.DRAW ? 0
+                        : -negamax(opponent, -beta, -alpha);
+                board.undoDrop(column);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestMove = column;
+                    if (score > alpha) {
+                        alpha = score;
+                    }
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+                if (forcedMove >= 0) {
+                    break;
+                }
+            }
+
+            if (!(helper && stopped)) {
+                int bound = bestScore <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                        : bestScore >= beta ? TranspositionTable.LOWER_BOUND
+                        : TranspositionTable.EXACT;
+                table.store(key, bestScore, remainingCells, bound,
+                        board.toCanonicalMove(bestMove));
+            }
+            return bestScore;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package ai;
+
+/**
+ * Represents the exact game-theoretic value of a position, as found by a {@link Solver}.
+ *
+ * <p>The value is seen from the player to move, and assumes both players play perfectly from the
+ * position on: the winner wins as quickly as possible, and the loser delays the loss as long as
+ * possible.</p>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see Solver#solve(model.Board)
+ */
+public class SolverResult {
+
+    /**
+     * The score of the position in the scale of {@link NegamaxStrategy#WIN_SCORE}.
+     */
+    private final int score;
+
+    /**
+     * The number of plies from the position to the end of the game.
+     */
+    private final int distance;
+
+    /**
+     * The index (0-based) of a column achieving the score.
+     */
+    private final int bestMove;
+
+    /**
+     * The number of nodes visited to solve the position, over all search threads.
+     */
+    private final long nodeCount;
+
+    /**
+     * Constructs a new {@link SolverResult} instance.
+     *
+     * @param score     the score of the position in the scale of
+     *                  {@link NegamaxStrategy#WIN_SCORE}.
+     * @param distance  the number of plies from the position to the end of the game.
+     * @param bestMove  the index (0-based) of a column achieving the score.
+     * @param nodeCount the number of nodes visited to solve the position.
+     */
+    public SolverResult(int score, int distance, int bestMove, long nodeCount) {
+        this.score = score;
+        this.distance = distance;
+        this.bestMove = bestMove;
+        this.nodeCount = nodeCount;
+    }
+
+    /**
+     * Returns whether the player to move wins with perfect play.
+     *
+     * @return {@code true} if the player to move wins; Otherwise, {@code false}.
+     */
+    public boolean isWin() {
+        return score > 0;
+    }
+
+    /**
+     * Returns whether the player to move loses against perfect play.
+     *
+     * @return {@code true} if the player to move loses; Otherwise, {@code false}.
+     */
+    public boolean isLoss() {
+        return score < 0;
+    }
+
+    /**
+     * Returns whether the game ends in a draw with perfect play.
+     *
+     * @return {@code true} if the game ends in a draw; Otherwise, {@code false}.
+     */
+    public boolean isDraw() {
+        return score == 0;
+    }
+
+    /**
+     * Returns the score of the position in the scale used by {@link NegamaxStrategy}: a win scores
+     * {@link NegamaxStrategy#WIN_SCORE} plus the number of cells still empty after the winning
+     * drop, a loss the opposite, and a draw {@code 0}.
+     *
+     * @return the score of the position, seen from the player to move.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Returns the number of plies from the position to the end of the game with perfect play,
+     * counting the winning drop, or the drop filling the board for a draw.
+     *
+     * @return the number of plies to the end of the game.
+     */
+    public int getDistance() {
+        return distance;
+    }
+
+    /**
+     * Returns a column achieving the value of the position.
+     *
+     * @return the index (0-based) of the best column.
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * Returns the number of nodes visited to solve the position, over all search threads.
+     *
+     * @return the number of nodes visited.
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns a short description of the value, for example {@code "win in 7"}.
+     *
+     * @return the description of the value.
+     */
+    @Override
+    public String toString() {
+        return (isWin() ? "win in " : isLoss() ? "loss in " : "draw in ") + distance;
+    }
+}
@@ -0,0 +1,125 @@
+package ai;
+
+import model.Board;
+import model.BoardCell;
+
+/**
+ * A {@link MoveStrategy} that plays perfectly once few enough cells are left to solve the game.
+ *
+ * <p>While the board still has more empty cells than the configured limit, solving a position
+ * would take too long, and the moves are chosen by a fallback strategy instead. From then on every
+ * move is solved by a {@link Solver}, so a won position is won as quickly as possible, and a lost
+ * one is lost as slowly as possible.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     // Search 10 plies ahead in the opening, and solve the last 24 cells with 4 threads:
+ *     Solver solver = new Solver(4);
+ *     Player player = new ComputerPlayer(name, checker, new SolverStrategy(solver,
+ *             new NegamaxStrategy(10, 0, solver.getTable()), 24));
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see Solver
+ */
+public class SolverStrategy implements MoveStrategy {
+
+    /**
+     * The {@link Solver} instance solving the positions.
+     */
+    private final Solver solver;
+
+    /**
+     * The {@link MoveStrategy} instance choosing the moves of positions with too many empty cells.
+     */
+    private final MoveStrategy fallback;
+
+    /**
+     * The maximum number of empty cells of a position to be solved.
+     */
+    private final int maxEmptyCells;
+
+    /**
+     * The value of the last solved position, or {@code null} if the last move was chosen by the
+     * fallback strategy.
+     */
+    private SolverResult lastResult;
+
+    /**
+     * Constructs a new {@link SolverStrategy} instance.
+     *
+     * @param solver        the {@link Solver} instance solving the positions, which is closed
+     *                      along with the strategy.
+     * @param fallback      the {@link MoveStrategy} instance choosing the moves of positions with
+     *                      more empty cells than the limit.
+     * @param maxEmptyCells the maximum number of empty cells of a position to be solved.
+     * @throws IllegalArgumentException if the solver or the fallback strategy is {@code null}, or
+     *                                  the limit is negative.
+     */
+    public SolverStrategy(Solver solver, MoveStrategy fallback, int maxEmptyCells) {
+        if (solver == null || fallback == null) {
+            throw new IllegalArgumentException("Invalid solver strategy: the solver and the " +
+                    "fallback strategy must not be null.");
+        }
+        if (maxEmptyCells < 0) {
+            throw new IllegalArgumentException("Invalid empty cell limit: " + maxEmptyCells +
+                    ". Must not be negative.");
+        }
+        this.solver = solver;
+        this.fallback = fallback;
+        this.maxEmptyCells = maxEmptyCells;
+    }
+
+    /**
+     * Solves the current position and returns a best move, or asks the fallback strategy if the
+     * board has too many empty cells.
+     *
+     * @param board   a {@link Board} instance representing the current state of the game board.
+     * @param checker a {@link BoardCell} instance representing the checker of the player to move.
+     * @return the index (0-based) of the column to drop the checker in.
+     * @throws IllegalStateException if there is no available column to drop the checker.
+     */
+    @Override
+    public int selectMove(Board board, BoardCell checker) {
+        if (board.isFull()) {
+            throw new IllegalStateException("No columns available for the computer player to " +
+                    "drop the checker.");
+        }
+        if (board.getCellCount() - board.getMoveCount() > maxEmptyCells) {
+            lastResult = null;
+            return fallback.selectMove(board, checker);
+        }
+        lastResult = solver.solve(board);
+        return lastResult.getBestMove();
+    }
+
+    /**
+     * Returns the value of the position of the last move, if it was solved.
+     *
+     * @return the {@link SolverResult} instance of the last move, or {@code null} if it was chosen
+     *         by the fallback strategy.
+     */
+    public SolverResult getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * Stops the background search of the fallback strategy.
+     */
+    @Override
+    public void stopThinking() {
+        fallback.stopThinking();
+    }
+
+    /**
+     * Closes the solver, stopping its helper threads, and the fallback strategy.
+     */
+    @Override
+    public void close() {
+        solver.close();
+        fallback.close();
+    }
+}
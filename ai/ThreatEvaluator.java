@@ -0,0 +1,344 @@
+package ai;
+
+import model.Board;
+import model.BoardCell;
+
+import java.util.Arrays;
+
+/**
+ * A heuristic evaluator of positions, updated incrementally as checkers are dropped and taken
+ * back.
+ *
+ * <p>The evaluation is built from the windows of the board, every run of
+ * {@link Board#getConnectLength()} cells in a line. A window holding checkers of only one player
+ * is still open for that player, and is worth more the more checkers it holds. A window one
+ * checker short of a line makes its empty cell a threat, and threats are told apart by the parity
+ * of their row: in the endgame the first player can usually force play onto odd rows (counted from
+ * the bottom) and the second player onto even rows, so a threat on the right parity is worth much
+ * more. Finally, checkers closer to the center column control more lines and count for column
+ * control.</p>
+ *
+ * <p>The evaluator mirrors a board: every {@link Board#dropChecker(int, BoardCell)} and
+ * {@link Board#undoDrop(int)} on the board has to be followed by {@link #drop(int, BoardCell)} or
+ * preceded by {@link #undo(int)} on the evaluator. Both only touch the windows through the
+ * changed cell, so keeping them in sync costs far less than evaluating from scratch.</p>
+ *
+ * <p>Scores never reach {@link NegamaxStrategy#WIN_SCORE}, so a heuristic score is never taken for
+ * a won or lost position.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     ThreatEvaluator evaluator = new ThreatEvaluator(board);
+ *     board.dropChecker(columnId, checker);
+ *     evaluator.drop(columnId, checker);
+ *     int score = evaluator.evaluate(checker);
+ *     evaluator.undo(columnId);
+ *     board.undoDrop(columnId);
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see NegamaxStrategy
+ */
+public class ThreatEvaluator {
+
+    /**
+     * The largest absolute score returned by {@link #evaluate(BoardCell)}.
+     */
+    public static final int MAX_SCORE = NegamaxStrategy.WIN_SCORE / 2;
+
+    /**
+     * The weight of a threat on a row of the right parity for its player. (Default: {@value})
+     */
+    public static final int GOOD_THREAT_WEIGHT = 32;
+
+    /**
+     * The weight of a threat on a row of the wrong parity for its player. (Default: {@value})
+     */
+    public static final int BAD_THREAT_WEIGHT = 8;
+
+    /**
+     * The weight of a checker for every column it is closer to the edge than to the center.
+     * (Default: {@value})
+     */
+    public static final int CENTER_WEIGHT = 1;
+
+    /**
+     * The column steps of the vertical, horizontal and both diagonal directions.
+     */
+    private static final int[] COLUMN_STEPS = {0, 1, 1, 1};
+
+    /**
+     * The height steps of the vertical, horizontal and both diagonal directions.
+     */
+    private static final int[] HEIGHT_STEPS = {1, 0, -1, 1};
+
+    /**
+     * The marker of an empty cell in {@link #owners}.
+     */
+    private static final byte EMPTY = -1;
+
+    /**
+     * The number of rows of the board.
+     */
+    private final int rowCount;
+
+    /**
+     * The number of columns of the board.
+     */
+    private final int columnCount;
+
+    /**
+     * The number of cells of a window.
+     */
+    private final int connectLength;
+
+    /**
+     * The number of cells of the board; cell {@code c * rowCount + h} is column {@code c} at
+     * height {@code h}.
+     */
+    private final int cellCount;
+
+    /**
+     * The weight of an open window by the number of checkers it holds.
+     */
+    private final int[] windowWeights;
+
+    /**
+     * The index of the player owning every cell, or {@link #EMPTY}.
+     */
+    private final byte[] owners;
+
+    /**
+     * The number of checkers in every column.
+     */
+    private final int[] heights;
+
+    /**
+     * The number of checkers of each player in every window, indexed by
+     * {@code player * 4 * cellCount + direction * cellCount + firstCell}.
+     */
+    private final int[] windowCounts;
+
+    /**
+     * The number of windows making every cell a threat, indexed by
+     * {@code player * cellCount + cell}.
+     */
+    private final int[] threatCounts;
+
+    /**
+     * The sum of the weights of the open windows of each player.
+     */
+    private final int[] windowScores;
+
+    /**
+     * The column control of each player.
+     */
+    private final int[] centerScores;
+
+    /**
+     * The number of threat cells of each player on a row of the right parity.
+     */
+    private final int[] goodThreats;
+
+    /**
+     * The number of threat cells of each player on a row of the wrong parity.
+     */
+    private final int[] badThreats;
+
+    /**
+     * Constructs a new {@link ThreatEvaluator} instance mirroring the specified board.
+     *
+     * @param board a {@link Board} instance whose dimensions and checkers are to be mirrored.
+     */
+    public ThreatEvaluator(Board board) {
+        rowCount = board.getRowCount();
+        columnCount = board.getColumnCount();
+        connectLength = board.getConnectLength();
+        cellCount = board.getCellCount();
+        windowWeights = new int[connectLength + 1];
+        for (int i = 2; i < connectLength; i++) {
+            // Open twos, threes and so on; single checkers and full lines do not count
+            windowWeights[i] = 2 * (i - 1) * (i - 1);
+        }
+        owners = new byte[cellCount];
+        heights = new int[columnCount];
+        windowCounts = new int[2 * COLUMN_STEPS.length * cellCount];
+        threatCounts = new int[2 * cellCount];
+        windowScores = new int[2];
+        centerScores = new int[2];
+        goodThreats = new int[2];
+        badThreats = new int[2];
+        Arrays.fill(owners, EMPTY);
+
+        for (int columnId = 0; columnId < columnCount; columnId++) {
+            for (int rowId = rowCount - 1; rowId >= 0; rowId--) {
+                BoardCell cell = board.getCell(rowId, columnId);
+                if (cell == BoardCell.EMPTY) {
+                    break;
+                }
+                drop(columnId, cell);
+            }
+        }
+    }
+
+    /**
+     * Mirrors a checker dropped in the specified column.
+     *
+     * @param columnId the index (0-indexed) of the column the checker was dropped in.
+     * @param checker  the checker dropped (Must be either 'X' or 'O').
+     */
+    public void drop(int columnId, BoardCell checker) {
+        int height = heights[columnId]++;
+        int player = checker == BoardCell.PLAYER_A ? 0 : 1;
+        updateWindows(columnId, height, -1);
+        owners[columnId * rowCount + height] = (byte) player;
+        centerScores[player] += centerWeight(columnId);
+        updateWindows(columnId, height, 1);
+    }
+
+    /**
+     * Mirrors the top checker of the specified column taken back.
+     *
+     * @param columnId the index (0-indexed) of the column the checker is taken from.
+     */
+    public void undo(int columnId) {
+        int height = --heights[columnId];
+        int cell = columnId * rowCount + height;
+        int player = owners[cell];
+        updateWindows(columnId, height, -1);
+        owners[cell] = EMPTY;
+        centerScores[player] -= centerWeight(columnId);
+        updateWindows(columnId, height, 1);
+    }
+
+    /**
+     * Returns the heuristic score of the mirrored position.
+     *
+     * @param checker the checker of the player the score is seen from (Must be either 'X' or
+     *                'O').
+     * @return the score of the position, between {@code -MAX_SCORE} and {@link #MAX_SCORE}.
+     */
+    public int evaluate(BoardCell checker) {
+        int player = checker == BoardCell.PLAYER_A ? 0 : 1;
+        int score = scoreOf(player) - scoreOf(1 - player);
+        return Math.max(-MAX_SCORE, Math.min(MAX_SCORE, score));
+    }
+
+    /**
+     * Returns the number of threat cells of the specified player.
+     *
+     * @param checker    the checker of the player (Must be either 'X' or 'O').
+     * @param goodParity {@code true} to count the threats on rows of the right parity for the
+     *                   player, {@code false} for the others.
+     * @return the number of empty cells completing a line of the player.
+     */
+    public int getThreatCount(BoardCell checker, boolean goodParity) {
+        int player = checker == BoardCell.PLAYER_A ? 0 : 1;
+        return goodParity ? goodThreats[player] : badThreats[player];
+    }
+
+    /**
+     * Returns the unclamped heuristic score of a single player.
+     *
+     * @param player the index of the player.
+     * @return the score of the player.
+     */
+    private int scoreOf(int player) {
+        return windowScores[player] + GOOD_THREAT_WEIGHT * goodThreats[player]
+                + BAD_THREAT_WEIGHT * badThreats[player] + CENTER_WEIGHT * centerScores[player];
+    }
+
+    /**
+     * Returns the column control of a checker in the specified column.
+     *
+     * @param columnId the index (0-indexed) of the column.
+     * @return the number of columns between the column and the nearer edge.
+     */
+    private int centerWeight(int columnId) {
+        return Math.min(columnId, columnCount - 1 - columnId);
+    }
+
+    /**
+     * Removes or adds the contribution of every window through the specified cell, as it is with
+     * the current owners of the cells.
+     *
+     * <p>A change of a cell is mirrored by removing the contributions, changing the owner and
+     * adding them back, so the window counts are rebuilt from the owners in the second call.</p>
+     *
+     * @param columnId the index (0-indexed) of the column of the cell.
+     * @param height   the index (0-indexed, bottom row first) of the row of the cell.
+     * @param sign     {@code -1} to remove the contributions, or {@code 1} to add them.
+     */
+    private void updateWindows(int columnId, int height, int sign) {
+        int changedCell = columnId * rowCount + height;
+        int owner = owners[changedCell];
+        for (int direction = 0; direction < COLUMN_STEPS.length; direction++) {
+            int columnStep = COLUMN_STEPS[direction];
+            int heightStep = HEIGHT_STEPS[direction];
+            for (int offset = 0; offset < connectLength; offset++) {
+                int firstColumn = columnId - offset * columnStep;
+                int firstHeight = height - offset * heightStep;
+                int lastColumn = firstColumn + (connectLength - 1) * columnStep;
+                int lastHeight = firstHeight + (connectLength - 1) * heightStep;
+                if (firstColumn < 0 || lastColumn >= columnCount || firstHeight < 0
+                        || firstHeight >= rowCount || lastHeight < 0 || lastHeight >= rowCount) {
+                    continue;
+                }
+                int window = direction * cellCount + firstColumn * rowCount + firstHeight;
+                if (sign > 0 && owner != EMPTY) {
+                    windowCounts[owner * COLUMN_STEPS.length * cellCount + window]++;
+                }
+                int countA = windowCounts[window];
+                int countB = windowCounts[COLUMN_STEPS.length * cellCount + window];
+                if (countB == 0) {
+                    updateWindow(0, countA, firstColumn, firstHeight, direction, sign);
+                }
+                if (countA == 0) {
+                    updateWindow(1, countB, firstColumn, firstHeight, direction, sign);
+                }
+                if (sign < 0 && owner != EMPTY) {
+                    windowCounts[owner * COLUMN_STEPS.length * cellCount + window]--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes or adds the contribution of a window open for the specified player.
+     *
+     * @param player      the index of the player the window is open for.
+     * @param count       the number of checkers of the player in the window.
+     * @param firstColumn the column of the first cell of the window.
+     * @param firstHeight the height of the first cell of the window.
+     * @param direction   the index of the direction of the window.
+     * @param sign        {@code -1} to remove the contribution, or {@code 1} to add it.
+     */
+    private void updateWindow(int player, int count, int firstColumn, int firstHeight,
+                              int direction, int sign) {
+        windowScores[player] += sign * windowWeights[count];
+        if (count != connectLength - 1) {
+            return;
+        }
+        // Find the single empty cell of the window, which the window makes a threat
+        int columnId = firstColumn;
+        int height = firstHeight;
+        while (owners[columnId * rowCount + height] != EMPTY) {
+            columnId += COLUMN_STEPS[direction];
+            height += HEIGHT_STEPS[direction];
+        }
+        int index = player * cellCount + columnId * rowCount + height;
+        threatCounts[index] += sign;
+        if (threatCounts[index] == (sign > 0 ? 1 : 0)) {
+            // The first row is odd, which is the right parity for the first player
+            boolean good = (height % 2 == 0) == (player == 0);
+            if (good) {
+                goodThreats[player] += sign;
+            } else {
+                badThreats[player] += sign;
+            }
+        }
+    }
+}
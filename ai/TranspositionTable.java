@@ -0,0 +1,253 @@
+package ai;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size transposition table caching search results by position key.
+ *
+ * <p>Entries live in two parallel primitive arrays, one for the keys and one for the packed
+ * results, so storing an entry never allocates. The table is split into buckets of two slots with
+ * a two-tier replacement policy: the first slot keeps the deepest result seen for the bucket, and
+ * the second slot always takes the newest result that did not qualify for the first one.</p>
+ *
+ * <p>A packed entry holds the score, the searched depth, the bound type and the best move. It is
+ * returned by {@link #probe(long)} as a single {@code long} and decoded with the static accessors,
+ * for example:</p>
+ * <pre>
+ * {@code
+ *     // Keyed by the canonical key, so a position and its mirror image share an entry
+ *     long entry = table.probe(board.getCanonicalKey());
+ *     if (entry != TranspositionTable.MISS && TranspositionTable.depthOf(entry) >= depth) {
+ *         int score = TranspositionTable.scoreOf(entry);
+ *         int hashMove = board.fromCanonicalMove(TranspositionTable.moveOf(entry));
+ *         ...
+ *     }
+ * }
+ * </pre>
+ *
+ * <p>A table may be shared by several search threads without locking. Every slot stores its key
+ * XOR-ed with its entry, so a slot torn by two threads writing at once no longer matches the key
+ * of either position and simply reads as a miss. The probe and hit counts are not synchronized,
+ * and are only approximate while several threads use the table.</p>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see NegamaxStrategy
+ */
+public class TranspositionTable {
+
+    /**
+     * The value returned by {@link #probe(long)} when the position is not in the table.
+     */
+    public static final long MISS = 0;
+
+    /**
+     * The bound type of a score that is exact.
+     */
+    public static final int EXACT = 0;
+
+    /**
+     * The bound type of a score that is a lower bound of the real score (the search failed high).
+     */
+    public static final int LOWER_BOUND = 1;
+
+    /**
+     * The bound type of a score that is an upper bound of the real score (the search failed low).
+     */
+    public static final int UPPER_BOUND = 2;
+
+    /**
+     * The number of bytes used by a single slot (a key and a packed entry).
+     */
+    private static final int BYTES_PER_SLOT = 2 * Long.BYTES;
+
+    /**
+     * The bit set in every stored entry, so that a stored entry is never equal to {@link #MISS}.
+     */
+    private static final long VALID_BIT = 1L << 62;
+
+    /**
+     * The position keys of the slots XOR-ed with their entries, two consecutive slots per bucket.
+     */
+    private final long[] keys;
+
+    /**
+     * The packed entries of the slots, parallel to {@link #keys}.
+     */
+    private final long[] entries;
+
+    /**
+     * The mask applied to a key to get its bucket index.
+     */
+    private final int bucketMask;
+
+    /**
+     * The number of probes since the table was created or cleared.
+     */
+    private long probeCount;
+
+    /**
+     * The number of probes that found their position since the table was created or cleared.
+     */
+    private long hitCount;
+
+    /**
+     * Constructs a new {@link TranspositionTable} instance using at most the specified amount of
+     * memory.
+     *
+     * <p>The number of buckets is the largest power of two that fits in the memory limit.</p>
+     *
+     * @param sizeInMegabytes the maximum memory used by the table, in megabytes.
+     * @throws IllegalArgumentException if the size is not between 1 and 16384 megabytes.
+     */
+    public TranspositionTable(int sizeInMegabytes) {
+        if (sizeInMegabytes < 1 || sizeInMegabytes > 16384) {
+            throw new IllegalArgumentException("Invalid table size: " + sizeInMegabytes +
+                    " MB. Must be between 1 and 16384.");
+        }
+        long bucketLimit = ((long) sizeInMegabytes << 20) / (2 * BYTES_PER_SLOT);
+        // Keep the slot count within the maximum array length
+        int bucketCount = (int) Long.highestOneBit(Math.min(bucketLimit, 1L << 29));
+        keys = new long[2 * bucketCount];
+        entries = new long[2 * bucketCount];
+        bucketMask = bucketCount - 1;
+    }
+
+    /**
+     * Looks up the specified position.
+     *
+     * @param key the hash key of the position.
+     * @return the packed entry of the position, or {@link #MISS} if it is not in the table.
+     */
+    public long probe(long key) {
+        probeCount++;
+        int slot = bucketOf(key);
+        for (int i = slot; i < slot + 2; i++) {
+            // Read the entry once, as another thread may replace it at any time
+            long entry = entries[i];
+            if (entry != MISS && (keys[i] ^ entry) == key) {
+                hitCount++;
+                return entry;
+            }
+        }
+        return MISS;
+    }
+
+    /**
+     * Stores the search result of the specified position.
+     *
+     * @param key   the hash key of the position.
+     * @param score the score of the position.
+     * @param depth the number of plies the position was searched (0 to 65535).
+     * @param bound the bound type of the score ({@link #EXACT}, {@link #LOWER_BOUND} or
+     *              {@link #UPPER_BOUND}).
+     * @param move  the index (0-based) of the best column found (0 to 254), or {@code -1} if none.
+     */
+    public void store(long key, int score, int depth, int bound, int move) {
+        long entry = VALID_BIT | ((long) (move + 1) << 50) | ((long) bound << 48)
+                | ((long) depth << 32) | (score & 0xFFFFFFFFL);
+        int slot = bucketOf(key);
+        long firstEntry = entries[slot];
+        long firstKey = keys[slot] ^ firstEntry;
+        if (firstKey == key || firstEntry == MISS || depth >= depthOf(firstEntry)) {
+            // Keep the result that is being replaced in the second tier
+            if (firstKey != key && firstEntry != MISS) {
+                keys[slot + 1] = firstKey ^ firstEntry;
+                entries[slot + 1] = firstEntry;
+            }
+            keys[slot] = key ^ entry;
+            entries[slot] = entry;
+        } else {
+            keys[slot + 1] = key ^ entry;
+            entries[slot + 1] = entry;
+        }
+    }
+
+    /**
+     * Removes all the entries and resets the statistics of the table.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(entries, MISS);
+        probeCount = 0;
+        hitCount = 0;
+    }
+
+    /**
+     * Returns the number of entries the table can hold.
+     *
+     * @return the number of slots in the table.
+     */
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    /**
+     * Returns the number of probes since the table was created or cleared.
+     *
+     * @return the number of probes.
+     */
+    public long getProbeCount() {
+        return probeCount;
+    }
+
+    /**
+     * Returns the number of probes that found their position since the table was created or
+     * cleared.
+     *
+     * @return the number of hits.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the score of a packed entry.
+     *
+     * @param entry a packed entry returned by {@link #probe(long)}.
+     * @return the score of the entry.
+     */
+    public static int scoreOf(long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * Returns the searched depth of a packed entry.
+     *
+     * @param entry a packed entry returned by {@link #probe(long)}.
+     * @return the number of plies the position was searched.
+     */
+    public static int depthOf(long entry) {
+        return (int) (entry >>> 32) & 0xFFFF;
+    }
+
+    /**
+     * Returns the bound type of a packed entry.
+     *
+     * @param entry a packed entry returned by {@link #probe(long)}.
+     * @return {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}.
+     */
+    public static int boundOf(long entry) {
+        return (int) (entry >>> 48) & 0x3;
+    }
+
+    /**
+     * Returns the best move of a packed entry.
+     *
+     * @param entry a packed entry returned by {@link #probe(long)}.
+     * @return the index (0-based) of the best column, or {@code -1} if none was stored.
+     */
+    public static int moveOf(long entry) {
+        return ((int) (entry >>> 50) & 0xFF) - 1;
+    }
+
+    /**
+     * Returns the index of the first slot of the bucket of the specified key.
+     *
+     * @param key the hash key of a position.
+     * @return the index of the first slot of the bucket.
+     */
+    private int bucketOf(long key) {
+        return ((int) (key ^ (key >>> 32)) & bucketMask) << 1;
+    }
+}
@@ -0,0 +1,212 @@
+package benchmark;
+
+import ai.BatchEvaluator;
+import ai.EvaluationNetwork;
+import ai.NegamaxStrategy;
+import ai.TranspositionTable;
+import game.Connect4Game;
+import game.GameListener;
+import model.Board;
+import model.BoardCell;
+import model.MoveOutcome;
+import player.ComputerPlayer;
+
+import java.util.Random;
+
+/**
+ * A command-line benchmark suite for the {@code model} and {@code player} packages.
+ *
+ * <p>The board operations and the search players are measured on positions at several fill levels
+ * (the number of checkers already on the board), since their cost depends on how full the board
+ * is. Each fill level uses a fixed pool of random positions where the game is still going on, and
+ * every operation moves on to the next position of the pool.</p>
+ *
+ * <p>Every line reports the throughput, the time per operation and the bytes allocated per
+ * operation, so that both speed and garbage regressions show up.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     // Run the whole suite at the default fill levels:
+ *     java benchmark.EngineBenchmark
+ *
+ *     // Run it at fill levels 0 and 30 only:
+ *     java benchmark.EngineBenchmark 0 30
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see MicroBenchmark
+ */
+public class EngineBenchmark {
+
+    /**
+     * The default fill levels of the benchmarked positions.
+     */
+    private static final int[] DEFAULT_FILL_LEVELS = {0, 10, 20, 30};
+
+    /**
+     * The number of positions in the pool of every fill level. Must be a power of two.
+     */
+    private static final int POOL_SIZE = 1024;
+
+    /**
+     * The search depth of the benchmarked negamax player. (Default: {@value})
+     */
+    private static final int SEARCH_DEPTH = 6;
+
+    /**
+     * The hidden layer sizes of the benchmarked evaluation network.
+     */
+    private static final int[] NETWORK_HIDDEN_SIZES = {64, 32};
+
+    /**
+     * Creates a pool of random positions with the specified number of checkers where the game is
+     * still going on.
+     *
+     * @param fillLevel the number of checkers on every position.
+     * @param random    the random generator.
+     * @return an array of {@value POOL_SIZE} positions.
+     */
+    private static Board[] createPositions(int fillLevel, Random random) {
+        Board[] positions = new Board[POOL_SIZE];
+        for (int i = 0; i < POOL_SIZE; ) {
+            Board board = new Board();
+            BoardCell checker = BoardCell.PLAYER_A;
+            while (board.getMoveCount() < fillLevel) {
+                int columnId = random.nextInt(Board.COLUMN_CNT);
+                if (board.isValidDrop(columnId)) {
+                    if (board.dropChecker(columnId, checker) != MoveOutcome.CONTINUE) {
+                        break;
+                    }
+                    checker = checker.getOpponent();
+                }
+            }
+            if (board.getMoveCount() == fillLevel) {
+                positions[i++] = board;
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Returns the checker of the player to move in the specified position.
+     *
+     * @param board a {@link Board} instance representing a position.
+     * @return the checker of the player to move.
+     */
+    private static BoardCell sideToMove(Board board) {
+        return board.getMoveCount() % 2 == 0 ? BoardCell.PLAYER_A : BoardCell.PLAYER_B;
+    }
+
+    /**
+     * Runs the board and search benchmarks at the specified fill level.
+     *
+     * @param fillLevel the number of checkers on the benchmarked positions.
+     */
+    private static void runFillLevel(int fillLevel) {
+        Board[] positions = createPositions(fillLevel, new Random(fillLevel));
+        int[] next = new int[1];
+        String suffix = " [fill=" + fillLevel + "]";
+
+        MicroBenchmark.run("Board.dropChecker+undoDrop" + suffix, () -> {
+            Board board = positions[next[0]++ & (POOL_SIZE - 1)];
+            int columnId = board.getMoveCount() % Board.COLUMN_CNT;
+            while (!board.isValidDrop(columnId)) {
+                columnId = (columnId + 1) % Board.COLUMN_CNT;
+            }
+            MoveOutcome outcome = board.dropChecker(columnId, sideToMove(board));
+            board.undoDrop(columnId);
+            return outcome.ordinal();
+        });
+        MicroBenchmark.run("Board.checkIfWinning" + suffix, () -> {
+            Board board = positions[next[0]++ & (POOL_SIZE - 1)];
+            return board.checkIfWinning(BoardCell.PLAYER_A) ? 1 : 0;
+        });
+        MicroBenchmark.run("Board.isFull" + suffix, () -> {
+            Board board = positions[next[0]++ & (POOL_SIZE - 1)];
+            return board.isFull() ? 1 : 0;
+        });
+        MicroBenchmark.run("Board.copy" + suffix, () -> {
+            Board board = positions[next[0]++ & (POOL_SIZE - 1)];
+            return board.copy().getMoveCount();
+        });
+
+        // One operation evaluates the whole pool, against one Board call per column and player
+        BatchEvaluator evaluator = new BatchEvaluator();
+        long[] current = new long[POOL_SIZE];
+        long[] occupied = new long[POOL_SIZE];
+        for (int i = 0; i < POOL_SIZE; i++) {
+            evaluator.encode(positions[i], current, occupied, i);
+        }
+        long[] legalMoves = new long[POOL_SIZE];
+        long[] wins = new long[POOL_SIZE];
+        long[] blocks = new long[POOL_SIZE];
+        int[] scores = new int[POOL_SIZE];
+        MicroBenchmark.run("BatchEvaluator.evaluate(x" + POOL_SIZE + ")" + suffix, () -> {
+            evaluator.evaluate(current, occupied, POOL_SIZE, legalMoves, wins, blocks, scores);
+            return wins[next[0]++ & (POOL_SIZE - 1)];
+        });
+        // Random weights cost the same to evaluate as trained ones
+        EvaluationNetwork network = EvaluationNetwork.createRandom(Board.ROW_CNT,
+                Board.COLUMN_CNT, Board.CONNECT_LENGTH, NETWORK_HIDDEN_SIZES, fillLevel);
+        float[] values = new float[POOL_SIZE];
+        MicroBenchmark.run("EvaluationNetwork.evaluate(x" + POOL_SIZE + ")" + suffix, () -> {
+            network.evaluate(current, occupied, POOL_SIZE, values);
+            return Float.floatToIntBits(values[next[0]++ & (POOL_SIZE - 1)]);
+        });
+        MicroBenchmark.run("Board win and block scan(x" + POOL_SIZE + ")" + suffix, () -> {
+            long found = 0;
+            for (Board board : positions) {
+                BoardCell checker = sideToMove(board);
+                for (int columnId = 0; columnId < Board.COLUMN_CNT; columnId++) {
+                    if (board.isValidDrop(columnId)) {
+                        found += board.dropChecker(columnId, checker).ordinal();
+                        board.undoDrop(columnId);
+                        found += board.dropChecker(columnId, checker.getOpponent()).ordinal();
+                        board.undoDrop(columnId);
+                    }
+                }
+            }
+            return found;
+        });
+
+        NegamaxStrategy negamax = new NegamaxStrategy(SEARCH_DEPTH);
+        MicroBenchmark.run("NegamaxStrategy(depth=" + SEARCH_DEPTH + ")" + suffix, () -> {
+            Board board = positions[next[0]++ & (POOL_SIZE - 1)];
+            return negamax.selectMove(board, sideToMove(board));
+        });
+        TranspositionTable table = new TranspositionTable(16);
+        NegamaxStrategy cachedNegamax = new NegamaxStrategy(SEARCH_DEPTH, 0, table);
+        String cachedName = "NegamaxStrategy(depth=" + SEARCH_DEPTH + ", table=16MB)" + suffix;
+        MicroBenchmark.run(cachedName, () -> {
+            Board board = positions[next[0]++ & (POOL_SIZE - 1)];
+            return cachedNegamax.selectMove(board, sideToMove(board));
+        });
+    }
+
+    /**
+     * The main entry point of the benchmark suite.
+     *
+     * @param args optional fill levels to be benchmarked instead of the default ones.
+     */
+    public static void main(String[] args) {
+        int[] fillLevels = DEFAULT_FILL_LEVELS;
+        if (args.length > 0) {
+            fillLevels = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                fillLevels[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        for (int fillLevel : fillLevels) {
+            runFillLevel(fillLevel);
+        }
+
+        MicroBenchmark.run("Random playout via ComputerPlayer", () -> new Connect4Game(
+                new ComputerPlayer("A", BoardCell.PLAYER_A),
+                new ComputerPlayer("B", BoardCell.PLAYER_B),
+                GameListener.NONE).play().getMoveCount());
+    }
+}
@@ -0,0 +1,121 @@
+package benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * A minimal harness for measuring the throughput and allocation rate of small operations.
+ *
+ * <p>A benchmark is a {@link Workload} run over and over on the calling thread. After a few warmup
+ * iterations, which let the JIT compiler settle, several timed iterations report the mean
+ * throughput with its standard deviation, the time per operation, and the bytes allocated per
+ * operation as measured by the thread allocation counter of the JVM.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     MicroBenchmark.run("Board.isFull", () -> board.isFull() ? 1 : 0);
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see EngineBenchmark
+ */
+public class MicroBenchmark {
+
+    /**
+     * The number of warmup iterations. (Default: {@value})
+     */
+    private static final int WARMUP_ITERATIONS = 3;
+
+    /**
+     * The number of timed iterations. (Default: {@value})
+     */
+    private static final int MEASURED_ITERATIONS = 5;
+
+    /**
+     * The duration of an iteration in milliseconds. (Default: {@value})
+     */
+    private static final long ITERATION_MILLIS = 500;
+
+    /**
+     * The number of operations run between two reads of the clock.
+     */
+    private static final int BATCH_SIZE = 64;
+
+    /**
+     * A value every operation result is folded into, so the JIT compiler cannot drop the work.
+     */
+    private static volatile long sink;
+
+    /**
+     * An interface representing a single benchmarked operation.
+     */
+    @FunctionalInterface
+    public interface Workload {
+
+        /**
+         * Runs the operation once.
+         *
+         * @return any value depending on the work done, to keep it from being optimized away.
+         */
+        long run();
+    }
+
+    /**
+     * Runs the specified workload and prints one line of statistics.
+     *
+     * @param name     the name of the benchmark.
+     * @param workload the {@link Workload} to be measured.
+     */
+    public static void run(String name, Workload workload) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iterate(workload);
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        double[] throughputs = new double[MEASURED_ITERATIONS];
+        long totalOperations = 0;
+        long totalNanos = 0;
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            long operations = iterate(workload);
+            long elapsed = System.nanoTime() - start;
+            throughputs[i] = operations / (elapsed / 1e9);
+            totalOperations += operations;
+            totalNanos += elapsed;
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        double mean = Arrays.stream(throughputs).average().orElse(0);
+        double variance = Arrays.stream(throughputs).map(t -> (t - mean) * (t - mean)).sum()
+                / Math.max(1, MEASURED_ITERATIONS - 1);
+        System.out.printf("%-44s %,16.0f +- %,12.0f ops/s  %,12.1f ns/op  %,10.1f B/op%n", name,
+                mean, Math.sqrt(variance), (double) totalNanos / totalOperations,
+                (double) allocated / totalOperations);
+    }
+
+    /**
+     * Runs the specified workload for one iteration.
+     *
+     * @param workload the {@link Workload} to be run.
+     * @return the number of operations run.
+     */
+    private static long iterate(Workload workload) {
+        long deadline = System.nanoTime() + ITERATION_MILLIS * 1_000_000L;
+        long operations = 0;
+        long result = 0;
+        do {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                result += workload.run();
+            }
+            operations += BATCH_SIZE;
+        } while (System.nanoTime() < deadline);
+        sink += result;
+        return operations;
+    }
+}
@@ -0,0 +1,148 @@
+package benchmark;
+
+import ai.NegamaxStrategy;
+import ai.TranspositionTable;
+import model.Board;
+import model.BoardCell;
+import model.MoveOutcome;
+
+/**
+ * A command-line benchmark for the {@link NegamaxStrategy} search engine.
+ *
+ * <p>It searches a fixed suite of positions and reports, for every position, the score, the number
+ * of nodes visited, the time taken and the resulting nodes per second. Opening positions are
+ * searched to a fixed depth, while endgame positions are solved to the end of the game.</p>
+ *
+ * <p>Positions are written as the sequence of columns (1-indexed) played from an empty board, so
+ * {@code "4453"} is the position after moves in columns 4, 4, 5 and 3.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     // Search the opening positions 12 plies deep:
+ *     java benchmark.SearchBenchmark 12
+ *
+ *     // The same, caching positions in a 64 MB transposition table:
+ *     java benchmark.SearchBenchmark 12 64
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see NegamaxStrategy
+ */
+public class SearchBenchmark {
+
+    /**
+     * The opening positions searched to a fixed depth.
+     */
+    private static final String[] OPENING_POSITIONS = {
+            "", "4", "44", "43", "4444", "4455", "4352", "434343"
+    };
+
+    /**
+     * The endgame positions solved to the end of the game.
+     */
+    private static final String[] ENDGAME_POSITIONS = {
+            "4114111662637152666422", "3363753541432736547266", "5646154447636452373265",
+            "5335121161471363321237", "3675233132263112734644", "3131267125726252667655"
+    };
+
+    /**
+     * The default number of plies to search the opening positions. (Default: {@value})
+     */
+    private static final int DEFAULT_DEPTH = 10;
+
+    /**
+     * The default size of the transposition table in megabytes, or {@code 0} for none.
+     * (Default: {@value})
+     */
+    private static final int DEFAULT_TABLE_MEGABYTES = 0;
+
+    /**
+     * Replays the specified move sequence on an empty board.
+     *
+     * @param moves the columns (1-indexed) played from an empty board.
+     * @return a {@link Board} instance representing the resulting position.
+     * @throws IllegalArgumentException if the sequence contains an invalid move or a finished game.
+     */
+    static Board replay(String moves) {
+        Board board = new Board();
+        BoardCell checker = BoardCell.PLAYER_A;
+        for (int i = 0; i < moves.length(); i++) {
+            int columnId = moves.charAt(i) - '1';
+            if (columnId < 0 || columnId >= board.getColumnCount()
+                    || board.dropChecker(columnId, checker) != MoveOutcome.CONTINUE) {
+                throw new IllegalArgumentException("Invalid move sequence: " + moves);
+            }
+            checker = checker.getOpponent();
+        }
+        return board;
+    }
+
+    /**
+     * Returns the checker of the player to move in the specified position.
+     *
+     * @param board a {@link Board} instance representing a position.
+     * @return the checker of the player to move.
+     */
+    static BoardCell sideToMove(Board board) {
+        return board.getMoveCount() % 2 == 0 ? BoardCell.PLAYER_A : BoardCell.PLAYER_B;
+    }
+
+    /**
+     * Searches the specified position and prints one line of statistics.
+     *
+     * @param moves the columns (1-indexed) played from an empty board.
+     * @param depth the number of plies to search ahead.
+     * @param table a {@link TranspositionTable} instance to be cleared and used by the search, or
+     *              {@code null} to search without one.
+     */
+    private static void run(String moves, int depth, TranspositionTable table) {
+        Board board = replay(moves);
+        if (table != null) {
+            table.clear();
+        }
+        NegamaxStrategy search = new NegamaxStrategy(depth, 0, table);
+        long start = System.nanoTime();
+        int score = search.search(board, sideToMove(board), depth);
+        long elapsed = System.nanoTime() - start;
+        long nodes = search.getNodeCount();
+        System.out.printf("%-24s depth %2d  score %8d  nodes %,14d  time %,10.1f ms  " +
+                        "%,12.0f nodes/s",
+                moves.isEmpty() ? "(empty)" : moves, depth, score, nodes, elapsed / 1e6,
+                nodes / (elapsed / 1e9));
+        if (table != null) {
+            System.out.printf("  table hits %5.1f%%",
+                    100.0 * table.getHitCount() / Math.max(1, table.getProbeCount()));
+        }
+        System.out.println();
+    }
+
+    /**
+     * The main entry point of the benchmark.
+     *
+     * @param args an optional search depth for the opening positions, followed by an optional
+     *             transposition table size in megabytes.
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        int tableMegabytes = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TABLE_MEGABYTES;
+        TranspositionTable table = tableMegabytes > 0
+                ? new TranspositionTable(tableMegabytes) : null;
+
+        // Let the JIT compiler warm up before measuring
+        for (int i = 0; i < 5; i++) {
+            new NegamaxStrategy(8).search(new Board(), BoardCell.PLAYER_A, 8);
+        }
+
+        System.out.println("Opening positions (fixed depth):");
+        for (String moves : OPENING_POSITIONS) {
+            run(moves, depth, table);
+        }
+        System.out.println("Endgame positions (solved):");
+        for (String moves : ENDGAME_POSITIONS) {
+            run(moves, Board.ROW_CNT * Board.COLUMN_CNT - moves.length(), table);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package benchmark;
+
+import ai.Solver;
+import ai.SolverResult;
+import ai.TranspositionTable;
+import model.Board;
+
+/**
+ * A command-line benchmark for the {@link Solver}.
+ *
+ * <p>It solves a fixed suite of positions, from endgames with few empty cells to middle games
+ * with many, and reports for every position the value, the best column, the number of nodes
+ * visited and the time taken, followed by the total time of the suite. Running it with different
+ * thread counts shows how well the parallel search scales.</p>
+ *
+ * <p>Positions are written as the sequence of columns (1-indexed) played from an empty board, as
+ * in {@link SearchBenchmark}.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     // Solve the suite with 4 threads and a 256 MB transposition table:
+ *     java benchmark.SolverBenchmark 4 256
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see Solver
+ */
+public class SolverBenchmark {
+
+    /**
+     * The positions to be solved, roughly from the easiest to the hardest.
+     */
+    private static final String[] POSITIONS = {
+            "4114111662637152666422", "3363753541432736547266", "5646154447636452373265",
+            "5335121161471363321237", "3675233132263112734644", "3131267125726252667655",
+            "35321626766545535174", "33577534273111437561", "213174553623674777",
+            "7623476414461446", "26432377253472", "11711416273222", "536262377426",
+            "666165143723"
+    };
+
+    /**
+     * The default number of threads searching at once. (Default: {@value})
+     */
+    private static final int DEFAULT_THREADS = 1;
+
+    /**
+     * The default size of the transposition table in megabytes. (Default: {@value})
+     */
+    private static final int DEFAULT_TABLE_MEGABYTES = 256;
+
+    /**
+     * The main entry point of the benchmark.
+     *
+     * @param args an optional number of threads, followed by an optional transposition table size
+     *             in megabytes.
+     */
+    public static void main(String[] args) {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_THREADS;
+        int tableMegabytes = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TABLE_MEGABYTES;
+        TranspositionTable table = new TranspositionTable(tableMegabytes);
+        Solver solver = new Solver(threads, table);
+
+        // Let the JIT compiler warm up before measuring
+        for (int i = 0; i < 3; i++) {
+            table.clear();
+            solver.solve(SearchBenchmark.replay(POSITIONS[0]));
+        }
+
+        long totalNanos = 0;
+        long totalNodes = 0;
+        for (String moves : POSITIONS) {
+            Board board = SearchBenchmark.replay(moves);
+            table.clear();
+            long start = System.nanoTime();
+            SolverResult result = solver.solve(board);
+            long elapsed = System.nanoTime() - start;
+            totalNanos += elapsed;
+            totalNodes += result.getNodeCount();
+            System.out.printf("%-40s %-12s column %d  nodes %,14d  time %,10.1f ms%n", moves,
+                    result, result.getBestMove() + 1, result.getNodeCount(), elapsed / 1e6);
+        }
+        System.out.printf("Threads: %d  Total: %,d nodes in %,.1f ms (%,.0f nodes/s)%n", threads,
+                totalNodes, totalNanos / 1e6, totalNodes / (totalNanos / 1e9));
+        solver.close();
+    }
+}
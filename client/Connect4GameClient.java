@@ -42,7 +42,7 @@ public class Connect4GameClient {
     }
 
     public static void main(String[] args) {
-        Scanner scanner = new Scanner(System.in);
+        Scanner scanner = HumanPlayer.getInputScanner();
         System.out.println("Welcome to Connect 4 Game!");
 
         // Get player names
@@ -66,8 +66,6 @@ public class Connect4GameClient {
         // Initialize and start the game
         Connect4Game game = new Connect4Game(player1, player2);
         game.play();
-
-        scanner.close();
     }
 
 }
@@ -0,0 +1,395 @@
+package client;
+
+import game.LatencyHistogram;
+import model.Board;
+import model.BoardCell;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A Client application for load testing a {@link server.GameServer}.
+ *
+ * <p>It opens many connections at once, each playing random moves in back-to-back games, and
+ * measures the latency of every move: the time from sending {@code MOVE} to receiving the next
+ * {@code TURN}, or the end of the game, which includes the reply of the server's computer player.
+ * All the connections are driven by a single selector thread, so the client itself does not limit
+ * the number of sessions. Lines that do not fit in the socket buffer wait for the channel to become
+ * writable instead of spinning, so the client does not take processor time away from the server
+ * it measures.</p>
+ *
+ * <p>The first seconds are a warmup and are not measured. Afterwards it prints the moves per
+ * second every second, and at the end the sustained throughput and the latency distribution.</p>
+ *
+ * <p>Usage: {@code java client.LoadGeneratorClient <host> <port> <sessions> [seconds]
+ * [rows columns connect]}.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     java client.LoadGeneratorClient localhost 4444 2000 30
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see server.GameServer
+ */
+public class LoadGeneratorClient {
+
+    /**
+     * The default duration of the measurement in seconds. (Default: {@value})
+     */
+    private static final int DEFAULT_SECONDS = 30;
+
+    /**
+     * The duration of the warmup in seconds. (Default: {@value})
+     */
+    private static final int WARMUP_SECONDS = 3;
+
+    /**
+     * The size of the read buffer of every connection in bytes. (Default: {@value})
+     */
+    private static final int READ_BUFFER_SIZE = 1024;
+
+    /**
+     * The command starting a new game, with the dimensions of the board if any.
+     */
+    private final String newGameCommand;
+
+    /**
+     * The random generator choosing the moves.
+     */
+    private final SplittableRandom random;
+
+    /**
+     * The latency of every move in the current measurement, in nanoseconds.
+     */
+    private LatencyHistogram latencies;
+
+    /**
+     * The number of moves in the current measurement.
+     */
+    private long moveCount;
+
+    /**
+     * The number of games finished in the current measurement.
+     */
+    private long gameCount;
+
+    /**
+     * The number of connections closed by the server or after a protocol error.
+     */
+    private long errorCount;
+
+    /**
+     * Constructs a new {@link LoadGeneratorClient} instance.
+     *
+     * @param newGameCommand the command starting a new game.
+     */
+    private LoadGeneratorClient(String newGameCommand) {
+        this.newGameCommand = newGameCommand;
+        random = new SplittableRandom();
+        latencies = new LatencyHistogram();
+    }
+
+    /**
+     * The state of a single connection to the server.
+     */
+    private static final class Connection {
+
+        /**
+         * The {@link SocketChannel} instance connected to the server.
+         */
+        private final SocketChannel channel;
+
+        /**
+         * The bytes received from the server that do not form a complete line yet.
+         */
+        private final ByteBuffer readBuffer;
+
+        /**
+         * The lines waiting for the channel to become writable.
+         */
+        private final Queue<ByteBuffer> outbox;
+
+        /**
+         * The selection key of the channel, or {@code null} before it is registered.
+         */
+        private SelectionKey key;
+
+        /**
+         * A replica of the board of the current game, or {@code null} if there is none.
+         */
+        private Board board;
+
+        /**
+         * The {@link System#nanoTime()} the last move was sent, or {@code 0} if no move is waiting
+         * for an answer.
+         */
+        private long sentNanos;
+
+        /**
+         * Constructs a new {@link Connection} instance.
+         *
+         * @param channel the {@link SocketChannel} instance connected to the server.
+         */
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+            readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            outbox = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Sends a line to the server, or queues it until the channel becomes writable if it does not
+     * fit in the socket buffer.
+     *
+     * @param connection the connection to send the line on.
+     * @param line       the line to be sent, without the line terminator.
+     * @throws IOException if the channel cannot be written.
+     */
+    private static void send(Connection connection, String line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.US_ASCII));
+        if (connection.outbox.isEmpty()) {
+            connection.channel.write(buffer);
+            if (!buffer.hasRemaining()) {
+                return;
+            }
+        }
+        connection.outbox.add(buffer);
+        connection.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+    }
+
+    /**
+     * Writes as many queued lines as the channel accepts, and stops watching it for writability
+     * once they have all been written.
+     *
+     * @param connection the connection to be flushed.
+     * @throws IOException if the channel cannot be written.
+     */
+    private static void flush(Connection connection) throws IOException {
+        while (!connection.outbox.isEmpty()) {
+            ByteBuffer buffer = connection.outbox.peek();
+            connection.channel.write(buffer);
+            if (buffer.hasRemaining()) {
+                return;
+            }
+            connection.outbox.poll();
+        }
+        connection.key.interestOps(SelectionKey.OP_READ);
+    }
+
+    /**
+     * Reads the bytes available from the connection, and handles every complete line.
+     *
+     * @param connection the connection to be read.
+     * @return {@code false} if the connection has been closed; Otherwise, {@code true}.
+     * @throws IOException if the channel cannot be read or written.
+     */
+    private boolean read(Connection connection) throws IOException {
+        ByteBuffer buffer = connection.readBuffer;
+        if (connection.channel.read(buffer) < 0) {
+            return false;
+        }
+        buffer.flip();
+        int start = 0;
+        for (int i = 0; i < buffer.limit(); i++) {
+            if (buffer.get(i) == '\n') {
+                byte[] line = new byte[i - start];
+                buffer.get(start, line);
+                if (!handle(connection, new String(line, StandardCharsets.US_ASCII).trim())) {
+                    return false;
+                }
+                start = i + 1;
+            }
+        }
+        buffer.position(start);
+        buffer.compact();
+        return true;
+    }
+
+    /**
+     * Handles a line received from the server.
+     *
+     * @param connection the connection the line was received on.
+     * @param line       the line, without the line terminator.
+     * @return {@code false} if the connection is to be closed; Otherwise, {@code true}.
+     * @throws IOException if the channel cannot be written.
+     */
+    private boolean handle(Connection connection, String line) throws IOException {
+        String[] parts = line.split(" ");
+        switch (parts[0]) {
+            case "HELLO":
+                send(connection, newGameCommand);
+                return true;
+            case "GAME":
+                connection.board = new Board(Integer.parseInt(parts[1]),
+                        Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+                return true;
+            case "PLAYED":
+                BoardCell checker = parts[1].equals("X") ? BoardCell.PLAYER_A : BoardCell.PLAYER_B;
+                connection.board.dropChecker(Integer.parseInt(parts[2]) - 1, checker);
+                return true;
+            case "INVALID":
+                return true;
+            case "TURN":
+                recordAnswer(connection);
+                sendRandomMove(connection);
+                return true;
+            case "WIN":
+            case "DRAW":
+                recordAnswer(connection);
+                gameCount++;
+                connection.board = null;
+                send(connection, newGameCommand);
+                return true;
+            default:
+                System.err.println("Unexpected reply: " + line);
+                errorCount++;
+                return false;
+        }
+    }
+
+    /**
+     * Records the latency of the move waiting for an answer, if any.
+     *
+     * @param connection the connection the answer was received on.
+     */
+    private void recordAnswer(Connection connection) {
+        if (connection.sentNanos != 0) {
+            latencies.record(System.nanoTime() - connection.sentNanos);
+            moveCount++;
+            connection.sentNanos = 0;
+        }
+    }
+
+    /**
+     * Sends a random valid move.
+     *
+     * @param connection the connection to send the move on.
+     * @throws IOException if the channel cannot be written.
+     */
+    private void sendRandomMove(Connection connection) throws IOException {
+        Board board = connection.board;
+        int columnId;
+        do {
+            columnId = random.nextInt(board.getColumnCount());
+        } while (!board.isValidDrop(columnId));
+        connection.sentNanos = System.nanoTime();
+        send(connection, "MOVE " + (columnId + 1));
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param address  the address of the server.
+     * @param sessions the number of connections.
+     * @param seconds  the duration of the measurement in seconds.
+     * @throws IOException if a connection cannot be established.
+     */
+    private void run(InetSocketAddress address, int sessions, int seconds) throws IOException {
+        Selector selector = Selector.open();
+        for (int i = 0; i < sessions; i++) {
+            SocketChannel channel = SocketChannel.open(address);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.configureBlocking(false);
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        }
+        System.out.println("Connected " + sessions + " sessions to " + address + ".");
+
+        long start = System.nanoTime();
+        long measureStart = start + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+        long end = measureStart + TimeUnit.SECONDS.toNanos(seconds);
+        long nextReport = measureStart + TimeUnit.SECONDS.toNanos(1);
+        long lastMoves = 0;
+        boolean measuring = false;
+        while (System.nanoTime() < end && !selector.keys().isEmpty()) {
+            selector.select(100);
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                Connection connection = (Connection) key.attachment();
+                boolean open = true;
+                try {
+                    if (key.isReadable()) {
+                        open = read(connection);
+                    }
+                    if (open && key.isWritable()) {
+                        flush(connection);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Connection failed: " + e);
+                    errorCount++;
+                    open = false;
+                }
+                if (!open) {
+                    key.cancel();
+                    connection.channel.close();
+                }
+            }
+
+            long now = System.nanoTime();
+            if (!measuring && now >= measureStart) {
+                measuring = true;
+                latencies = new LatencyHistogram();
+                moveCount = 0;
+                gameCount = 0;
+            } else if (measuring && now >= nextReport) {
+                System.out.printf("%,d moves/s%n", moveCount - lastMoves);
+                lastMoves = moveCount;
+                nextReport += TimeUnit.SECONDS.toNanos(1);
+            }
+        }
+        double elapsed = (System.nanoTime() - measureStart) / 1e9;
+
+        for (SelectionKey key : selector.keys()) {
+            ((Connection) key.attachment()).channel.close();
+        }
+        selector.close();
+
+        System.out.printf("Sessions: %,d  Duration: %.1f s  Errors: %,d%n", sessions, elapsed,
+                errorCount);
+        System.out.printf("Moves: %,d (%,.0f moves/s)  Games: %,d (%,.0f games/s)%n", moveCount,
+                moveCount / elapsed, gameCount, gameCount / elapsed);
+        System.out.printf("Move latency (us): mean %.1f  p50 %.1f  p90 %.1f  p99 %.1f  " +
+                        "p99.9 %.1f  max %.1f%n", latencies.getMean() / 1e3,
+                latencies.getPercentile(50) / 1e3, latencies.getPercentile(90) / 1e3,
+                latencies.getPercentile(99) / 1e3, latencies.getPercentile(99.9) / 1e3,
+                latencies.getMax() / 1e3);
+    }
+
+    /**
+     * The main entry point of the load generator.
+     *
+     * @param args the host and port of the server, the number of sessions, and optionally the
+     *             duration in seconds and the rows, columns and connect length of the games.
+     * @throws IOException if a connection cannot be established.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3 || (args.length > 4 && args.length != 7)) {
+            System.out.println("Usage: java client.LoadGeneratorClient <host> <port> <sessions> " +
+                    "[seconds] [rows columns connect]");
+            return;
+        }
+        InetSocketAddress address = new InetSocketAddress(args[0], Integer.parseInt(args[1]));
+        int sessions = Integer.parseInt(args[2]);
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_SECONDS;
+        String newGameCommand = args.length == 7
+                ? "NEW X " + args[4] + " " + args[5] + " " + args[6] : "NEW X";
+        new LoadGeneratorClient(newGameCommand).run(address, sessions, seconds);
+    }
+}
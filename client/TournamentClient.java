@@ -0,0 +1,87 @@
+package client;
+
+import game.GameRecordWriter;
+import game.Tournament;
+import metrics.EngineMetrics;
+import model.BoardCell;
+import player.Player;
+import player.PlayerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+
+/**
+ * A Client application for playing a headless tournament between two computer players.
+ *
+ * <p>Usage: {@code java client.TournamentClient <games> <contenderA> <contenderB> [threads]
+ * [recordFile]}, where a contender is {@code random}, {@code negamax:<depth>[:heuristic]},
+ * {@code ponder:<depth>[:heuristic][:<tableMB>]}, {@code mcts:<millis>[:<threads>]},
+ * {@code solver:<emptyCells>[:<threads>[:<tableMB>]]} or {@code network:<file>}. The number of
+ * threads defaults to the number of available processors. If a record file is given, every game
+ * is appended to it with a {@link GameRecordWriter}. With {@code -Dconnect4.metrics=true}, the
+ * {@link EngineMetrics} are printed every {@value #METRICS_PERIOD_MILLIS} ms and once more at the
+ * end.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     java client.TournamentClient 10000 negamax:6 random
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see Tournament
+ * @see PlayerFactory#parseComputerPlayer(String, String)
+ */
+public class TournamentClient {
+
+    /**
+     * The time between two metrics snapshots in milliseconds. (Default: {@value})
+     */
+    public static final long METRICS_PERIOD_MILLIS = 10_000;
+
+    /**
+     * The main entry point of the tournament client.
+     *
+     * @param args the number of games, the two contender descriptions, and an optional number of
+     *             threads and record file.
+     * @throws IOException          if the record file cannot be written.
+     * @throws InterruptedException if the main thread is interrupted while waiting for the games.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 3) {
+            System.out.println("Usage: java client.TournamentClient <games> <contenderA> " +
+                    "<contenderB> [threads] [recordFile]");
+            System.out.println("A contender is 'random', 'negamax:<depth>[:heuristic]', " +
+                    "'ponder:<depth>[:heuristic][:<tableMB>]', 'mcts:<millis>[:<threads>]', " +
+                    "'solver:<emptyCells>[:<threads>[:<tableMB>]]' or 'network:<file>'.");
+            return;
+        }
+        int games = Integer.parseInt(args[0]);
+        Function<BoardCell, Player> contenderA = PlayerFactory.parseComputerPlayer("A", args[1]);
+        Function<BoardCell, Player> contenderB = PlayerFactory.parseComputerPlayer("B", args[2]);
+        int threads = args.length > 3 ? Integer.parseInt(args[3])
+                : Runtime.getRuntime().availableProcessors();
+
+        System.out.println("Playing " + games + " games of " + args[1] + " (A) against " +
+                args[2] + " (B) on " + threads + " threads...");
+        Tournament tournament = new Tournament(contenderA, contenderB, threads);
+        ScheduledExecutorService reporter = EngineMetrics.ENABLED
+                ? EngineMetrics.startReporter(System.out, METRICS_PERIOD_MILLIS) : null;
+        if (args.length > 4) {
+            try (GameRecordWriter writer = new GameRecordWriter(Path.of(args[4]))) {
+                tournament.setGameListener(writer);
+                System.out.print(tournament.run(games));
+            }
+        } else {
+            System.out.print(tournament.run(games));
+        }
+        if (reporter != null) {
+            reporter.shutdownNow();
+            System.out.print(EngineMetrics.snapshot());
+        }
+    }
+}
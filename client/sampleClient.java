@@ -1,7 +1,10 @@
 package client;
 
 import game.Connect4Game;
+import game.ConsoleGameListener;
+import model.Board;
 import model.BoardCell;
+import player.HumanPlayer;
 import player.Player;
 import player.PlayerFactory;
 
@@ -25,13 +28,14 @@ public class sampleClient {
      * <p>
      * The game continues until a player wins or the board is full. Players take turns dropping
      * checkers into a 6x7 grid, and the first player to connect four checkers in a row (vertically,
-     * horizontally, or diagonally) wins.
+     * horizontally, or diagonally) wins. Other variants can be played by passing the number of
+     * rows, the number of columns and the connect length on the command line.
      * </p>
      *
-     * @param args command-line arguments (not used in this implementation).
+     * @param args optional number of rows, number of columns and connect length.
      */
     public static void main(String[] args) {
-        Scanner scanner = new Scanner(System.in);
+        Scanner scanner = HumanPlayer.getInputScanner();
         System.out.println("Welcome to Connect 4 Game!");
 
         // Get player names using PlayerFactory
@@ -43,9 +47,11 @@ public class sampleClient {
         Player player2 = PlayerFactory.choosePlayerType(scanner, name2, BoardCell.PLAYER_B);
 
         // Initialize and start the game
-        Connect4Game game = new Connect4Game(player1, player2);
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : Board.ROW_CNT;
+        int columns = args.length > 1 ? Integer.parseInt(args[1]) : Board.COLUMN_CNT;
+        int connectLength = args.length > 2 ? Integer.parseInt(args[2]) : Board.CONNECT_LENGTH;
+        Connect4Game game = new Connect4Game(player1, player2, rows, columns, connectLength,
+                new ConsoleGameListener());
         game.play();
-
-        scanner.close();
     }
 }
@@ -1,8 +1,17 @@
 package game;
 
+import metrics.EngineMetrics;
 import model.Board;
+import model.MoveOutcome;
 import player.Player;
 
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 /**
  * Represents the game flow of the Connect 4 Game.
  *
@@ -17,6 +26,21 @@ import player.Player;
  *     // Start a Connect 4 game with players created:
  *     Connect4Game game = new Connect4Game(player1, player2);
  *     game.play();
+ *
+ *     // Or play it headless, without rendering anything, keeping only the result:
+ *     GameResult result = new Connect4Game(player1, player2, GameListener.NONE).play();
+ *
+ *     // Or give every move a 2-second clock, with the players thinking on a worker pool, and
+ *     // drive many such games from a single scheduler thread:
+ *     game.setMoveClock(2000, workers);
+ *     CompletableFuture<GameResult> future = game.playAsync(scheduler);
+ *
+ *     // Or play it again with the same board, after a previous game is over:
+ *     game.reset(player1, player2);
+ *     game.play();
+ *
+ *     // Or play connect 5 on a 9x10 board:
+ *     new Connect4Game(player1, player2, 9, 10, 5, new ConsoleGameListener()).play();
  * }
  * </pre>
  *
@@ -24,6 +48,7 @@ import player.Player;
  * @version 1.0
  * @see Board
  * @see Player
+ * @see GameListener
  */
 public class Connect4Game {
 
@@ -42,45 +67,393 @@ public class Connect4Game {
      */
     private int currentPlayerId;
 
+    /**
+     * The {@link GameListener} instances notified of the game events.
+     */
+    private GameListener[] listeners;
+
+    /**
+     * The total time spent by the players choosing every move, in nanoseconds, indexed by ply.
+     */
+    private long[] thinkTimes;
+
+    /**
+     * The time budget of every move in milliseconds, or {@code 0} if moves are not timed.
+     */
+    private long moveTimeoutMillis;
+
+    /**
+     * The {@link Executor} the players think on, or {@code null} if they think on the thread
+     * running the game.
+     */
+    private Executor moveExecutor;
+
+    /**
+     * Whether the game is over.
+     */
+    private boolean over;
+
+    /**
+     * An integer index representing the player who won the game, or {@code -1} if nobody has.
+     */
+    private int winnerId;
+
     /**
      * Constructs a new {@link Connect4Game} instance with two specified players, and initializes
-     * the game board.
+     * the default game board. The game flow is rendered to the console.
      *
      * @param playerA the first player.
      * @param playerB the second player.
      */
     public Connect4Game(Player playerA, Player playerB) {
-        board = new Board();
+        this(playerA, playerB, new ConsoleGameListener());
+    }
+
+    /**
+     * Constructs a new {@link Connect4Game} instance with two specified players, and initializes
+     * the default game board. The game events are only reported to the specified listener.
+     *
+     * @param playerA  the first player.
+     * @param playerB  the second player.
+     * @param listener a {@link GameListener} instance notified of the game events, such as
+     *                 {@link GameListener#NONE} for a headless game.
+     */
+    public Connect4Game(Player playerA, Player playerB, GameListener listener) {
+        this(playerA, playerB, Board.ROW_CNT, Board.COLUMN_CNT, Board.CONNECT_LENGTH, listener);
+    }
+
+    /**
+     * Constructs a new {@link Connect4Game} instance with two specified players, and initializes
+     * a game board of the specified dimensions. The game events are only reported to the
+     * specified listener.
+     *
+     * @param playerA       the first player.
+     * @param playerB       the second player.
+     * @param rowCount      the number of rows of the board.
+     * @param columnCount   the number of columns of the board.
+     * @param connectLength the number of consecutive checkers needed to win.
+     * @param listener      a {@link GameListener} instance notified of the game events, such as
+     *                      {@link GameListener#NONE} for a headless game.
+     * @throws IllegalArgumentException if any of the dimensions is out of bounds.
+     * @see Board#Board(int, int, int)
+     */
+    public Connect4Game(Player playerA, Player playerB, int rowCount, int columnCount,
+                        int connectLength, GameListener listener) {
+        board = new Board(rowCount, columnCount, connectLength);
         players = new Player[]{playerA, playerB};
         currentPlayerId = 0;
+        thinkTimes = new long[board.getCellCount()];
+        over = false;
+        winnerId = -1;
+        listeners = listener == GameListener.NONE ? new GameListener[0]
+                : new GameListener[]{listener};
+        if (EngineMetrics.ENABLED) {
+            EngineMetrics.recordGameStarted();
+        }
+    }
+
+    /**
+     * Prepares the game to be played again from an empty board by the same players.
+     *
+     * @see #reset(Player, Player)
+     */
+    public void reset() {
+        reset(players[0], players[1]);
+    }
+
+    /**
+     * Prepares the game to be played again from an empty board by the specified players, keeping
+     * the board dimensions and the listeners.
+     *
+     * <p>The board and the other per-game state are reused and the players are reset, so a game
+     * and its players can be recycled from a pool instead of being created for every game. A
+     * {@link GameResult} returned before stays unchanged.</p>
+     *
+     * @param playerA the first player.
+     * @param playerB the second player.
+     */
+    public void reset(Player playerA, Player playerB) {
+        board.reset();
+        players[0] = playerA;
+        players[1] = playerB;
+        playerA.reset();
+        playerB.reset();
+        currentPlayerId = 0;
+        Arrays.fill(thinkTimes, 0);
+        over = false;
+        winnerId = -1;
+        if (EngineMetrics.ENABLED) {
+            EngineMetrics.recordGameStarted();
+        }
+    }
+
+    /**
+     * Adds a listener to be notified of the game events, after the existing ones.
+     *
+     * @param listener a {@link GameListener} instance to be added.
+     */
+    public void addListener(GameListener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
     }
 
     /**
      * Starts and manages the game flow until a player wins or a draw occurs.
+     *
+     * @return a {@link GameResult} instance representing the result of the game.
      */
-    public void play() {
-        while (true) {
-            Player currentPlayer = players[currentPlayerId];
-            System.out.print("\n============ " + currentPlayer.getName() + "'s Turn (" +
-                    currentPlayer.getChecker().getStatus() + ") ============");
-            board.display();
-            int columnToDrop = currentPlayer.getMove(board);
-            boolean success = board.dropChecker(columnToDrop, currentPlayer.getChecker());
-            if (success) {
-                if (board.checkIfWinning(currentPlayer.getChecker())) {
-                    board.display();
-                    System.out.println("Congratulations " + currentPlayer.getName() +
-                            "! You have won the game!");
-                    break;
-                } else if (board.isFull()) {
-                    board.display();
-                    System.out.println("The game is a draw.");
-                    break;
+    public GameResult play() {
+        while (!over) {
+            playTurn();
+        }
+        return getResult();
+    }
+
+    /**
+     * Sets a clock on every move: each player has the specified time to choose a move, and thinks
+     * on the specified executor while the game waits. A player who runs out of time is not waited
+     * for any longer; the valid column closest to the center is played on its behalf instead.
+     *
+     * @param timeoutMillis the time budget of every move in milliseconds, or {@code 0} for none.
+     * @param executor      the {@link Executor} the players think on.
+     * @throws IllegalArgumentException if the time budget is negative or the executor is
+     *                                  {@code null}.
+     */
+    public void setMoveClock(long timeoutMillis, Executor executor) {
+        if (timeoutMillis < 0) {
+            throw new IllegalArgumentException("Invalid move timeout: " + timeoutMillis +
+                    ". Must not be negative.");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Invalid executor: null. Players need an executor " +
+                    "to think on.");
+        }
+        moveTimeoutMillis = timeoutMillis;
+        moveExecutor = executor;
+    }
+
+    /**
+     * Plays a single turn: asks the current player for a move, drops the checker and notifies the
+     * listeners. If the move is invalid, the same player stays to move.
+     *
+     * <p>It lets a caller that learns the moves of a player from elsewhere, such as a game server
+     * reading them from a connection, drive the game one move at a time instead of blocking in
+     * {@link #play()}.</p>
+     *
+     * @return a {@link MoveOutcome} instance representing the outcome of the move.
+     * @throws IllegalStateException if the game is already over.
+     */
+    public MoveOutcome playTurn() {
+        Player currentPlayer = startTurn();
+        long start = System.nanoTime();
+        int columnToDrop = requestMove(currentPlayer);
+        return finishTurn(currentPlayer, columnToDrop, System.nanoTime() - start);
+    }
+
+    /**
+     * Plays the game until a player wins or a draw occurs without blocking the caller.
+     *
+     * <p>Every turn is started and finished on the specified scheduler, while the players think on
+     * the executor set by {@link #setMoveClock(long, Executor)}, or on the scheduler if there is
+     * none. Between two turns the game holds no thread, so a single scheduler thread can drive
+     * many games at once as long as the players think elsewhere.</p>
+     *
+     * @param scheduler the {@link Executor} running the game flow and the listeners.
+     * @return a {@link CompletableFuture} of the result of the game, completed exceptionally if a
+     *         player or a listener fails.
+     */
+    public CompletableFuture<GameResult> playAsync(Executor scheduler) {
+        CompletableFuture<GameResult> result = new CompletableFuture<>();
+        scheduler.execute(() -> playTurnAsync(scheduler, result));
+        return result;
+    }
+
+    /**
+     * Starts the next turn, and schedules its end once the player has chosen a move, or completes
+     * the result if the game is over.
+     *
+     * @param scheduler the {@link Executor} running the game flow.
+     * @param result    the future of the result of the game.
+     */
+    private void playTurnAsync(Executor scheduler, CompletableFuture<GameResult> result) {
+        try {
+            if (over) {
+                result.complete(getResult());
+                return;
+            }
+            Player currentPlayer = startTurn();
+            long start = System.nanoTime();
+            CompletableFuture<Integer> move = currentPlayer.getMoveAsync(board,
+                    moveExecutor != null ? moveExecutor : scheduler);
+            if (moveTimeoutMillis > 0) {
+                move.completeOnTimeout(null, moveTimeoutMillis, TimeUnit.MILLISECONDS);
+            }
+            move.whenCompleteAsync((column, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                    return;
+                }
+                try {
+                    int columnToDrop = column != null ? column : timeOut(currentPlayer);
+                    finishTurn(currentPlayer, columnToDrop, System.nanoTime() - start);
+                    playTurnAsync(scheduler, result);
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
                 }
-                currentPlayerId = 1 - currentPlayerId;
-            } else {
-                System.out.println("Invalid move. Please try again.");
+            }, scheduler);
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Notifies the listeners that the current player's turn has started.
+     *
+     * @return the {@link Player} instance whose turn it is.
+     * @throws IllegalStateException if the game is already over.
+     */
+    private Player startTurn() {
+        if (over) {
+            throw new IllegalStateException("The game is already over.");
+        }
+        Player currentPlayer = players[currentPlayerId];
+        for (GameListener listener : listeners) {
+            listener.onTurnStarted(currentPlayer, board);
+        }
+        return currentPlayer;
+    }
+
+    /**
+     * Asks the specified player for a move, on the move executor and within the time budget if
+     * there is a move clock.
+     *
+     * @param player the {@link Player} instance whose turn it is.
+     * @return the index (0-based) of the column to drop the checker in.
+     * @throws IllegalStateException if the thread is interrupted while waiting, or the player
+     *                               fails with a checked exception.
+     */
+    private int requestMove(Player player) {
+        if (moveExecutor == null) {
+            return player.getMove(board);
+        }
+        CompletableFuture<Integer> move = player.getMoveAsync(board, moveExecutor);
+        try {
+            return moveTimeoutMillis > 0 ? move.get(moveTimeoutMillis, TimeUnit.MILLISECONDS)
+                    : move.get();
+        } catch (TimeoutException e) {
+            move.cancel(false);
+            return timeOut(player);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a move.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
+            throw new IllegalStateException("The player failed to choose a move.", e.getCause());
+        }
+    }
+
+    /**
+     * Chooses the fallback move of a player who ran out of time, and notifies the listeners.
+     *
+     * @param player the {@link Player} instance who ran out of time.
+     * @return the index (0-based) of the valid column closest to the center.
+     */
+    private int timeOut(Player player) {
+        int columnToDrop = -1;
+        for (int columnId : Board.getCenterOrder(board.getColumnCount())) {
+            if (board.isValidDrop(columnId)) {
+                columnToDrop = columnId;
+                break;
+            }
+        }
+        for (GameListener listener : listeners) {
+            listener.onMoveTimedOut(player, columnToDrop);
+        }
+        return columnToDrop;
+    }
+
+    /**
+     * Drops the checker of the specified move, records its think time and notifies the listeners.
+     *
+     * @param currentPlayer the {@link Player} instance whose turn it is.
+     * @param columnToDrop  the index (0-based) of the column chosen by the player.
+     * @param thinkNanos    the time the player took to choose the move, in nanoseconds.
+     * @return a {@link MoveOutcome} instance representing the outcome of the move.
+     */
+    private MoveOutcome finishTurn(Player currentPlayer, int columnToDrop, long thinkNanos) {
+        thinkTimes[board.getMoveCount()] += thinkNanos;
+        MoveOutcome outcome = board.dropChecker(columnToDrop, currentPlayer.getChecker());
+        if (outcome == MoveOutcome.INVALID) {
+            for (GameListener listener : listeners) {
+                listener.onInvalidMove(currentPlayer, columnToDrop);
+            }
+            return outcome;
+        }
+
+        if (EngineMetrics.ENABLED) {
+            EngineMetrics.recordMove(currentPlayer, thinkNanos);
+            if (outcome.isGameOver()) {
+                EngineMetrics.recordGameFinished();
+            }
+        }
+        for (GameListener listener : listeners) {
+            listener.onMoveMade(currentPlayer, columnToDrop, board);
+        }
+        if (outcome.isGameOver()) {
+            // Nothing is left to think about, such as a reply pondered on the opponent's time
+            players[0].stopThinking();
+            players[1].stopThinking();
+        }
+        if (outcome == MoveOutcome.WIN) {
+            over = true;
+            winnerId = currentPlayerId;
+            for (GameListener listener : listeners) {
+                listener.onGameWon(currentPlayer, board);
+            }
+        } else if (outcome == MoveOutcome.DRAW) {
+            over = true;
+            for (GameListener listener : listeners) {
+                listener.onGameDrawn(board);
+            }
+        } else {
+            currentPlayerId = 1 - currentPlayerId;
+        }
+        return outcome;
+    }
+
+    /**
+     * Returns whether the game is over.
+     *
+     * @return {@code true} if a player has won or a draw has occurred; Otherwise, {@code false}.
+     */
+    public boolean isOver() {
+        return over;
+    }
+
+    /**
+     * Returns the player who should move in the current round.
+     *
+     * @return the {@link Player} instance to move next, or the winner if the game is over.
+     */
+    public Player getCurrentPlayer() {
+        return players[currentPlayerId];
+    }
+
+    /**
+     * Returns the result of the game.
+     *
+     * @return a {@link GameResult} instance representing the result of the game.
+     * @throws IllegalStateException if the game is not over yet.
+     */
+    public GameResult getResult() {
+        if (!over) {
+            throw new IllegalStateException("The game is not over yet.");
         }
+        return winnerId >= 0
+                ? new GameResult(winnerId, players[winnerId],
+                        Arrays.copyOf(thinkTimes, board.getMoveCount()))
+                : new GameResult(-1, null, thinkTimes.clone());
     }
 }
@@ -0,0 +1,113 @@
+package game;
+
+import model.Board;
+import player.Player;
+
+import java.io.PrintStream;
+
+/**
+ * A {@link GameListener} that renders the game flow as text, for playing on the console.
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see GameListener
+ */
+public class ConsoleGameListener implements GameListener {
+
+    /**
+     * A {@link PrintStream} instance the game flow is written to.
+     */
+    private final PrintStream out;
+
+    /**
+     * Constructs a new {@link ConsoleGameListener} instance writing to the console.
+     */
+    public ConsoleGameListener() {
+        this(System.out);
+    }
+
+    /**
+     * Constructs a new {@link ConsoleGameListener} instance writing to the specified output stream.
+     *
+     * @param out a {@link PrintStream} instance the game flow is written to.
+     */
+    public ConsoleGameListener(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Prints the turn banner and the current game board.
+     *
+     * @param player the {@link Player} instance whose turn it is.
+     * @param board  the {@link Board} instance representing the current state of the game board.
+     */
+    @Override
+    public void onTurnStarted(Player player, Board board) {
+        out.print("\n============ " + player.getName() + "'s Turn (" +
+                player.getChecker().getStatus() + ") ============");
+        board.display(out);
+    }
+
+    /**
+     * Prints the column the player dropped the checker in, numbering the drop from the moves on
+     * the board, so that a fallback move played on a player's behalf is counted as well.
+     *
+     * @param player   the {@link Player} instance who made the move.
+     * @param columnId the index (0-indexed) of the column the checker was dropped in.
+     * @param board    the {@link Board} instance representing the game board after the move.
+     */
+    @Override
+    public void onMoveMade(Player player, int columnId, Board board) {
+        // Every player drops on every other move, so the n-th drop of either player is move
+        // 2n - 1 or 2n
+        out.println("[" + player.getName() + " (" + player.getChecker().getStatus() + ") Drop " +
+                (board.getMoveCount() + 1) / 2 + "] Dropped a checker in column " +
+                (columnId + 1) + ".");
+    }
+
+    /**
+     * Prints that the player ran out of time.
+     *
+     * @param player   the {@link Player} instance who ran out of time.
+     * @param columnId the index (0-indexed) of the column of the fallback move.
+     */
+    @Override
+    public void onMoveTimedOut(Player player, int columnId) {
+        out.println(player.getName() + " ran out of time. A checker is dropped in column " +
+                (columnId + 1) + " instead.");
+    }
+
+    /**
+     * Prints that the move was invalid.
+     *
+     * @param player   the {@link Player} instance who made the move.
+     * @param columnId the index (0-indexed) of the column the player chose.
+     */
+    @Override
+    public void onInvalidMove(Player player, int columnId) {
+        out.println("Invalid move. Please try again.");
+    }
+
+    /**
+     * Prints the final game board and congratulates the winner.
+     *
+     * @param winner the {@link Player} instance who won the game.
+     * @param board  the {@link Board} instance representing the final game board.
+     */
+    @Override
+    public void onGameWon(Player winner, Board board) {
+        board.display(out);
+        out.println("Congratulations " + winner.getName() + "! You have won the game!");
+    }
+
+    /**
+     * Prints the final game board and announces the draw.
+     *
+     * @param board the {@link Board} instance representing the final game board.
+     */
+    @Override
+    public void onGameDrawn(Board board) {
+        board.display(out);
+        out.println("The game is a draw.");
+    }
+}
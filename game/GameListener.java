@@ -0,0 +1,84 @@
+package game;
+
+import model.Board;
+import player.Player;
+
+/**
+ * An interface for receiving the events of a {@link Connect4Game} as it is played.
+ *
+ * <p>Every method has an empty default implementation, so a listener only overrides the events it
+ * is interested in. {@link #NONE} ignores all events and is meant for headless games, where nothing
+ * should be rendered at all.</p>
+ *
+ * <p>The {@link Board} passed to a listener is the live game board; it must not be modified.</p>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see Connect4Game
+ * @see ConsoleGameListener
+ */
+public interface GameListener {
+
+    /**
+     * A {@link GameListener} instance that ignores all events.
+     */
+    GameListener NONE = new GameListener() {
+    };
+
+    /**
+     * Called before a player is asked for a move.
+     *
+     * @param player the {@link Player} instance whose turn it is.
+     * @param board  the {@link Board} instance representing the current state of the game board.
+     */
+    default void onTurnStarted(Player player, Board board) {
+    }
+
+    /**
+     * Called after a player's checker has been dropped. The move is the
+     * {@link Board#getMoveCount()}-th of the game, including any fallback moves played on behalf
+     * of a player who ran out of time.
+     *
+     * @param player   the {@link Player} instance who made the move.
+     * @param columnId the index (0-indexed) of the column the checker was dropped in.
+     * @param board    the {@link Board} instance representing the game board after the move.
+     */
+    default void onMoveMade(Player player, int columnId, Board board) {
+    }
+
+    /**
+     * Called when a player has run out of time for a move, before the fallback move is played on
+     * the player's behalf.
+     *
+     * @param player   the {@link Player} instance who ran out of time.
+     * @param columnId the index (0-indexed) of the column of the fallback move.
+     */
+    default void onMoveTimedOut(Player player, int columnId) {
+    }
+
+    /**
+     * Called when a player's move could not be played, before the player is asked again.
+     *
+     * @param player   the {@link Player} instance who made the move.
+     * @param columnId the index (0-indexed) of the column the player chose.
+     */
+    default void onInvalidMove(Player player, int columnId) {
+    }
+
+    /**
+     * Called when a player has won the game.
+     *
+     * @param winner the {@link Player} instance who won the game.
+     * @param board  the {@link Board} instance representing the final game board.
+     */
+    default void onGameWon(Player winner, Board board) {
+    }
+
+    /**
+     * Called when the game has ended in a draw.
+     *
+     * @param board the {@link Board} instance representing the final game board.
+     */
+    default void onGameDrawn(Board board) {
+    }
+}
@@ -0,0 +1,297 @@
+package game;
+
+import model.Board;
+import model.BoardCell;
+import model.MoveOutcome;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A streaming reader of games written by {@link GameRecordWriter}.
+ *
+ * <p>Games are decoded one at a time straight from the stream, so files of any size can be
+ * replayed with a constant amount of memory. {@link #nextGame(int[])} only decodes the moves,
+ * while {@link #replayNext()} also replays them through a {@link Board} and checks that they make
+ * a valid, finished game. {@link #replayNext(Board)} does the same on a board reused for every
+ * game.</p>
+ *
+ * <p>Usage: {@code java game.GameRecordReader <file>} replays every game of a file and prints a
+ * summary.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     try (GameRecordReader reader = new GameRecordReader(Path.of("games.c4gr"))) {
+ *         for (Board board = reader.replayNext(); board != null; board = reader.replayNext()) {
+ *             // Analyze the final position
+ *         }
+ *     }
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see GameRecordWriter
+ */
+public class GameRecordReader implements Closeable {
+
+    /**
+     * The {@link InputStream} the records are read from.
+     */
+    private final InputStream in;
+
+    /**
+     * The number of rows of every recorded board.
+     */
+    private final int rowCount;
+
+    /**
+     * The number of columns of every recorded board.
+     */
+    private final int columnCount;
+
+    /**
+     * The connect length of every recorded board.
+     */
+    private final int connectLength;
+
+    /**
+     * A buffer of the moves of the game being replayed.
+     */
+    private final int[] moves;
+
+    /**
+     * The bits read but not decoded yet, in the low {@link #bitCount} bits.
+     */
+    private int bitBuffer;
+
+    /**
+     * The number of bits in {@link #bitBuffer}.
+     */
+    private int bitCount;
+
+    /**
+     * Constructs a new {@link GameRecordReader} instance reading the specified file.
+     *
+     * @param file the {@link Path} of the record file.
+     * @throws IOException              if the file cannot be opened or its header read.
+     * @throws IllegalArgumentException if the file is not a valid record file.
+     */
+    public GameRecordReader(Path file) throws IOException {
+        this(Files.newInputStream(file));
+    }
+
+    /**
+     * Constructs a new {@link GameRecordReader} instance reading the specified stream, starting
+     * with its header.
+     *
+     * @param in the {@link InputStream} to read the records from.
+     * @throws IOException              if the header cannot be read.
+     * @throws IllegalArgumentException if the stream is not a valid record stream.
+     */
+    public GameRecordReader(InputStream in) throws IOException {
+        this.in = new BufferedInputStream(in);
+        DataInputStream header = new DataInputStream(this.in);
+        try {
+            if (header.readInt() != GameRecordWriter.MAGIC
+                    || header.readUnsignedByte() != GameRecordWriter.VERSION) {
+                throw new IllegalArgumentException("Invalid game record stream.");
+            }
+            rowCount = header.readUnsignedByte();
+            columnCount = header.readUnsignedByte();
+            connectLength = header.readUnsignedByte();
+        } catch (EOFException e) {
+            throw new IllegalArgumentException("Invalid game record stream: the header is " +
+                    "truncated.");
+        }
+        if (columnCount > GameRecordWriter.MAX_COLUMN_CNT) {
+            throw new IllegalArgumentException("Invalid column count: " + columnCount +
+                    ". Must be at most " + GameRecordWriter.MAX_COLUMN_CNT + ".");
+        }
+        Board.validateDimensions(rowCount, columnCount, connectLength);
+        moves = new int[rowCount * columnCount];
+    }
+
+    /**
+     * Returns the number of rows of every recorded board.
+     *
+     * @return the number of rows.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the number of columns of every recorded board.
+     *
+     * @return the number of columns.
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Returns the connect length of every recorded board.
+     *
+     * @return the connect length.
+     */
+    public int getConnectLength() {
+        return connectLength;
+    }
+
+    /**
+     * Decodes the moves of the next game, without replaying them.
+     *
+     * @param gameMoves the array to store the columns (0-indexed) of the moves in; it must hold at
+     *                  least as many entries as there are cells on the board.
+     * @return the number of moves of the game, or {@code -1} if there are no more games.
+     * @throws IOException if the stream cannot be read, or holds more moves than fit on the board
+     *                     or a truncated game.
+     */
+    public int nextGame(int[] gameMoves) throws IOException {
+        int moveCount = 0;
+        while (true) {
+            int code = readCode();
+            if (code < 0) {
+                if (moveCount > 0) {
+                    throw new IOException("Truncated game record after " + moveCount + " moves.");
+                }
+                return -1;
+            } else if (code == GameRecordWriter.END_OF_GAME) {
+                // Games without moves are only padding
+                if (moveCount > 0) {
+                    return moveCount;
+                }
+            } else if (moveCount == gameMoves.length || code >= columnCount) {
+                throw new IOException("Corrupt game record: invalid move " + code + " at ply " +
+                        moveCount + ".");
+            } else {
+                gameMoves[moveCount++] = code;
+            }
+        }
+    }
+
+    /**
+     * Decodes the next game and replays it on a new board.
+     *
+     * @return a {@link Board} instance holding the final position and the moves of the game, or
+     *         {@code null} if there are no more games.
+     * @throws IOException if the stream cannot be read, or the game is not a valid, finished
+     *                     game.
+     */
+    public Board replayNext() throws IOException {
+        Board board = new Board(rowCount, columnCount, connectLength);
+        return replayNext(board) ? board : null;
+    }
+
+    /**
+     * Decodes the next game and replays it on the specified board, which is reset first. Reusing
+     * a single board saves allocating one per game when many games are replayed.
+     *
+     * @param board a {@link Board} instance with the dimensions of the records, receiving the final
+     *              position and the moves of the game.
+     * @return {@code true} if a game has been replayed, or {@code false} if there are no more
+     *         games.
+     * @throws IllegalArgumentException if the board has different dimensions than the records.
+     * @throws IOException              if the stream cannot be read, or the game is not a valid,
+     *                                  finished game.
+     */
+    public boolean replayNext(Board board) throws IOException {
+        if (board.getRowCount() != rowCount || board.getColumnCount() != columnCount
+                || board.getConnectLength() != connectLength) {
+            throw new IllegalArgumentException("Invalid board: " + board.getRowCount() + "x" +
+                    board.getColumnCount() + " connect " + board.getConnectLength() +
+                    ". Must be " + rowCount + "x" + columnCount + " connect " + connectLength +
+                    ".");
+        }
+        int moveCount = nextGame(moves);
+        if (moveCount < 0) {
+            return false;
+        }
+        board.reset();
+        BoardCell checker = BoardCell.PLAYER_A;
+        for (int ply = 0; ply < moveCount; ply++) {
+            MoveOutcome outcome = board.dropChecker(moves[ply], checker);
+            boolean last = ply == moveCount - 1;
+            if (outcome == MoveOutcome.INVALID || outcome.isGameOver() != last) {
+                throw new IOException("Corrupt game record: move " + (moves[ply] + 1) + " at ply " +
+                        ply + " is " + outcome + ".");
+            }
+            checker = checker.getOpponent();
+        }
+        return true;
+    }
+
+    /**
+     * Decodes the next code of the bit stream.
+     *
+     * @return the code, or {@code -1} if the stream ends before a whole code.
+     * @throws IOException if the stream cannot be read.
+     */
+    private int readCode() throws IOException {
+        if (bitCount < GameRecordWriter.CODE_BITS) {
+            int next = in.read();
+            if (next < 0) {
+                return -1;
+            }
+            bitBuffer = (bitBuffer << Byte.SIZE) | next;
+            bitCount += Byte.SIZE;
+        }
+        bitCount -= GameRecordWriter.CODE_BITS;
+        return (bitBuffer >>> bitCount) & GameRecordWriter.END_OF_GAME;
+    }
+
+    /**
+     * Closes the underlying stream.
+     *
+     * @throws IOException if the stream cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Replays every game of a record file and prints a summary.
+     *
+     * @param args the record file.
+     * @throws IOException if the file cannot be read or holds invalid games.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println("Usage: java game.GameRecordReader <file>");
+            return;
+        }
+        long games = 0;
+        long moves = 0;
+        long winsA = 0;
+        long winsB = 0;
+        long start = System.nanoTime();
+        try (GameRecordReader reader = new GameRecordReader(Path.of(args[0]))) {
+            Board board = new Board(reader.getRowCount(), reader.getColumnCount(),
+                    reader.getConnectLength());
+            while (reader.replayNext(board)) {
+                games++;
+                moves += board.getMoveCount();
+                if (board.checkIfWinning(BoardCell.PLAYER_A)) {
+                    winsA++;
+                } else if (board.checkIfWinning(BoardCell.PLAYER_B)) {
+                    winsB++;
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Board: %dx%d connect %d%n", reader.getRowCount(),
+                    reader.getColumnCount(), reader.getConnectLength());
+            System.out.printf("Games: %,d  Moves: %,d  X wins: %,d  O wins: %,d  Draws: %,d%n",
+                    games, moves, winsA, winsB, games - winsA - winsB);
+            System.out.printf("Replayed in %.2f s (%,.0f games/s)%n", seconds, games / seconds);
+        }
+    }
+}
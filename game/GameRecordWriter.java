@@ -0,0 +1,371 @@
+package game;
+
+import model.Board;
+import player.Player;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An append-only writer of finished games in the compact binary game-record format.
+ *
+ * <p>A record file starts with a {@value #HEADER_SIZE}-byte header: the magic number
+ * {@code "C4GR"}, the format version, and the number of rows, columns and connect length of every
+ * recorded game. It is followed by a bit stream in which every move is a 3-bit code holding its
+ * column (0-indexed), and every game ends with the code {@value #END_OF_GAME}. Games are packed
+ * back to back without any alignment, so a typical game of 20 moves takes 8 bytes. Because every
+ * column needs a code of its own, only boards of up to {@value #MAX_COLUMN_CNT} columns can be
+ * recorded.</p>
+ *
+ * <p>When the writer is closed, the stream is padded with {@value #END_OF_GAME} codes up to the
+ * next multiple of {@value #BLOCK_SIZE} bytes, where both the byte and the code boundaries line
+ * up. Readers skip those empty games, and a file can later be reopened to append more games.</p>
+ *
+ * <p>It is a {@link GameListener}, so a game is recorded by adding the writer to it, and writes
+ * every game once it has been won or drawn. A single writer may be shared by games running on
+ * several threads.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     try (GameRecordWriter writer = new GameRecordWriter(Path.of("games.c4gr"))) {
+ *         Connect4Game game = new Connect4Game(player1, player2);
+ *         game.addListener(writer);
+ *         game.play();
+ *     }
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see GameRecordReader
+ */
+public class GameRecordWriter implements GameListener, Closeable {
+
+    /**
+     * The magic number at the start of every record file ({@code "C4GR"}).
+     */
+    static final int MAGIC = 0x43344752;
+
+    /**
+     * The version of the record file format. (Default: {@value})
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The size of the file header in bytes. (Default: {@value})
+     */
+    static final int HEADER_SIZE = 8;
+
+    /**
+     * The number of bits of a code. (Default: {@value})
+     */
+    static final int CODE_BITS = 3;
+
+    /**
+     * The code ending a game. (Default: {@value})
+     */
+    static final int END_OF_GAME = 7;
+
+    /**
+     * The maximum number of columns of a recorded board. (Default: {@value})
+     */
+    static final int MAX_COLUMN_CNT = END_OF_GAME;
+
+    /**
+     * The number of bytes holding a whole number of codes, to which the stream is padded.
+     * (Default: {@value})
+     */
+    static final int BLOCK_SIZE = 3;
+
+    /**
+     * The {@link OutputStream} the records are written to.
+     */
+    private final OutputStream out;
+
+    /**
+     * The number of rows of every recorded board.
+     */
+    private final int rowCount;
+
+    /**
+     * The number of columns of every recorded board.
+     */
+    private final int columnCount;
+
+    /**
+     * The connect length of every recorded board.
+     */
+    private final int connectLength;
+
+    /**
+     * The bits written but not forming a whole byte yet, in the low {@link #bitCount} bits.
+     */
+    private long bitBuffer;
+
+    /**
+     * The number of bits in {@link #bitBuffer}.
+     */
+    private int bitCount;
+
+    /**
+     * The number of bytes written after the header.
+     */
+    private long byteCount;
+
+    /**
+     * The number of games written by this writer.
+     */
+    private long gameCount;
+
+    /**
+     * Constructs a new {@link GameRecordWriter} instance writing games of the default board to
+     * the specified file. If the file already holds records, the new games are appended to them.
+     *
+     * @param file the {@link Path} of the record file.
+     * @throws IOException              if the file cannot be read or written.
+     * @throws IllegalArgumentException if the file holds records of another format or board.
+     */
+    public GameRecordWriter(Path file) throws IOException {
+        this(file, Board.ROW_CNT, Board.COLUMN_CNT, Board.CONNECT_LENGTH);
+    }
+
+    /**
+     * Constructs a new {@link GameRecordWriter} instance writing games of the specified board to
+     * the specified file. If the file already holds records, the new games are appended to them.
+     *
+     * @param file          the {@link Path} of the record file.
+     * @param rowCount      the number of rows of every recorded board.
+     * @param columnCount   the number of columns of every recorded board (at most
+     *                      {@value #MAX_COLUMN_CNT}).
+     * @param connectLength the connect length of every recorded board.
+     * @throws IOException              if the file cannot be read or written.
+     * @throws IllegalArgumentException if the board cannot be recorded, or the file holds records
+     *                                  of another format or board.
+     */
+    public GameRecordWriter(Path file, int rowCount, int columnCount, int connectLength)
+            throws IOException {
+        this(openForAppend(file, rowCount, columnCount, connectLength), rowCount, columnCount,
+                connectLength, Files.exists(file) && Files.size(file) > 0);
+    }
+
+    /**
+     * Constructs a new {@link GameRecordWriter} instance writing a new record stream, starting with
+     * its header, to the specified output stream.
+     *
+     * @param out           the {@link OutputStream} to write the records to.
+     * @param rowCount      the number of rows of every recorded board.
+     * @param columnCount   the number of columns of every recorded board (at most
+     *                      {@value #MAX_COLUMN_CNT}).
+     * @param connectLength the connect length of every recorded board.
+     * @throws IOException              if the header cannot be written.
+     * @throws IllegalArgumentException if the board cannot be recorded.
+     */
+    public GameRecordWriter(OutputStream out, int rowCount, int columnCount, int connectLength)
+            throws IOException {
+        this(out, rowCount, columnCount, connectLength, false);
+    }
+
+    /**
+     * Constructs a new {@link GameRecordWriter} instance.
+     *
+     * @param out           the {@link OutputStream} to write the records to.
+     * @param rowCount      the number of rows of every recorded board.
+     * @param columnCount   the number of columns of every recorded board.
+     * @param connectLength the connect length of every recorded board.
+     * @param appending     whether the stream continues existing records, which already have a
+     *                      header.
+     * @throws IOException              if the header cannot be written.
+     * @throws IllegalArgumentException if the board cannot be recorded.
+     */
+    private GameRecordWriter(OutputStream out, int rowCount, int columnCount, int connectLength,
+                             boolean appending) throws IOException {
+        validateDimensions(rowCount, columnCount, connectLength);
+        this.out = new BufferedOutputStream(out);
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.connectLength = connectLength;
+        if (!appending) {
+            DataOutputStream header = new DataOutputStream(this.out);
+            header.writeInt(MAGIC);
+            header.writeByte(VERSION);
+            header.writeByte(rowCount);
+            header.writeByte(columnCount);
+            header.writeByte(connectLength);
+        }
+    }
+
+    /**
+     * Validates that games of the specified board can be recorded.
+     *
+     * @param rowCount      the number of rows of the board.
+     * @param columnCount   the number of columns of the board.
+     * @param connectLength the connect length of the board.
+     * @throws IllegalArgumentException if the board cannot be recorded.
+     */
+    private static void validateDimensions(int rowCount, int columnCount, int connectLength) {
+        Board.validateDimensions(rowCount, columnCount, connectLength);
+        if (columnCount > MAX_COLUMN_CNT) {
+            throw new IllegalArgumentException("Invalid column count: " + columnCount +
+                    ". Must be at most " + MAX_COLUMN_CNT + " to be recorded.");
+        }
+    }
+
+    /**
+     * Opens the specified file for appending, after checking that its existing records, if any,
+     * are of the specified board.
+     *
+     * @param file          the {@link Path} of the record file.
+     * @param rowCount      the number of rows of every recorded board.
+     * @param columnCount   the number of columns of every recorded board.
+     * @param connectLength the connect length of every recorded board.
+     * @return an {@link OutputStream} appending to the file.
+     * @throws IOException              if the file cannot be read or opened.
+     * @throws IllegalArgumentException if the board cannot be recorded, or the file holds records
+     *                                  of another format or board.
+     */
+    private static OutputStream openForAppend(Path file, int rowCount, int columnCount,
+                                              int connectLength) throws IOException {
+        validateDimensions(rowCount, columnCount, connectLength);
+        if (Files.exists(file) && Files.size(file) > 0) {
+            try (InputStream in = Files.newInputStream(file)) {
+                DataInputStream header = new DataInputStream(in);
+                if (Files.size(file) < HEADER_SIZE || header.readInt() != MAGIC
+                        || header.readUnsignedByte() != VERSION) {
+                    throw new IllegalArgumentException("Invalid game record file: " + file);
+                }
+                if (header.readUnsignedByte() != rowCount
+                        || header.readUnsignedByte() != columnCount
+                        || header.readUnsignedByte() != connectLength) {
+                    throw new IllegalArgumentException("The game record file " + file +
+                            " holds games of another board.");
+                }
+            }
+            if ((Files.size(file) - HEADER_SIZE) % BLOCK_SIZE != 0) {
+                throw new IllegalArgumentException("Truncated game record file: " + file);
+            }
+        }
+        return Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Writes the game played on the specified board.
+     *
+     * @param board a {@link Board} instance holding the moves of the game, in the order they were
+     *              made.
+     * @throws IOException              if the game cannot be written.
+     * @throws IllegalArgumentException if the board has other dimensions than the recorded ones,
+     *                                  or no moves.
+     */
+    public synchronized void writeGame(Board board) throws IOException {
+        if (board.getRowCount() != rowCount || board.getColumnCount() != columnCount
+                || board.getConnectLength() != connectLength) {
+            throw new IllegalArgumentException("Invalid board: " + board.getRowCount() + "x" +
+                    board.getColumnCount() + " connect " + board.getConnectLength() +
+                    ". Must be " + rowCount + "x" + columnCount + " connect " + connectLength +
+                    ".");
+        }
+        if (board.getMoveCount() == 0) {
+            throw new IllegalArgumentException("Invalid game: no moves have been made.");
+        }
+        for (int ply = 0; ply < board.getMoveCount(); ply++) {
+            writeCode(board.getMove(ply));
+        }
+        writeCode(END_OF_GAME);
+        gameCount++;
+    }
+
+    /**
+     * Appends a code to the bit stream, writing every byte as soon as it is complete.
+     *
+     * @param code the code to be written.
+     * @throws IOException if the stream cannot be written.
+     */
+    private void writeCode(int code) throws IOException {
+        bitBuffer = (bitBuffer << CODE_BITS) | code;
+        bitCount += CODE_BITS;
+        if (bitCount >= Byte.SIZE) {
+            bitCount -= Byte.SIZE;
+            out.write((int) (bitBuffer >>> bitCount));
+            byteCount++;
+        }
+    }
+
+    /**
+     * Returns the number of games written by this writer.
+     *
+     * @return the number of games written.
+     */
+    public synchronized long getGameCount() {
+        return gameCount;
+    }
+
+    /**
+     * Records the game once it has been won.
+     *
+     * @param winner the {@link Player} instance who won the game.
+     * @param board  the {@link Board} instance representing the final game board.
+     * @throws UncheckedIOException if the game cannot be written.
+     */
+    @Override
+    public void onGameWon(Player winner, Board board) {
+        writeFinishedGame(board);
+    }
+
+    /**
+     * Records the game once it has been drawn.
+     *
+     * @param board the {@link Board} instance representing the final game board.
+     * @throws UncheckedIOException if the game cannot be written.
+     */
+    @Override
+    public void onGameDrawn(Board board) {
+        writeFinishedGame(board);
+    }
+
+    /**
+     * Writes a finished game, wrapping I/O failures for the listener methods.
+     *
+     * @param board the {@link Board} instance representing the final game board.
+     * @throws UncheckedIOException if the game cannot be written.
+     */
+    private void writeFinishedGame(Board board) {
+        try {
+            writeGame(board);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to record the game.", e);
+        }
+    }
+
+    /**
+     * Writes the complete bytes of the bit stream to the underlying stream. The bits of a
+     * partially written byte stay buffered until {@link #close()}.
+     *
+     * @throws IOException if the stream cannot be written.
+     */
+    public synchronized void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Pads the bit stream to the next block boundary, and closes the underlying stream.
+     *
+     * @throws IOException if the stream cannot be written or closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        while (bitCount != 0 || byteCount % BLOCK_SIZE != 0) {
+            writeCode(END_OF_GAME);
+        }
+        out.close();
+    }
+}
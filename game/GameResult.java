@@ -0,0 +1,92 @@
+package game;
+
+import player.Player;
+
+/**
+ * Represents the result of a finished Connect 4 game.
+ *
+ * <p>Besides the winner, it records the number of moves played and how long each player took to
+ * choose every move.</p>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see Connect4Game#play()
+ */
+public class GameResult {
+
+    /**
+     * The index (0 for the first player, 1 for the second) of the winner, or {@code -1} for a draw.
+     */
+    private final int winnerId;
+
+    /**
+     * The winning {@link Player} instance, or {@code null} for a draw.
+     */
+    private final Player winner;
+
+    /**
+     * The time in nanoseconds each move took to choose, in the order the moves were played.
+     */
+    private final long[] thinkTimes;
+
+    /**
+     * Constructs a new {@link GameResult} instance.
+     *
+     * @param winnerId   the index of the winner, or {@code -1} for a draw.
+     * @param winner     the winning player, or {@code null} for a draw.
+     * @param thinkTimes the time in nanoseconds each move took to choose; the first player made the
+     *                   moves at even indices.
+     */
+    public GameResult(int winnerId, Player winner, long[] thinkTimes) {
+        this.winnerId = winnerId;
+        this.winner = winner;
+        this.thinkTimes = thinkTimes;
+    }
+
+    /**
+     * Returns whether the game ended in a draw.
+     *
+     * @return {@code true} if the game ended in a draw; Otherwise, {@code false}.
+     */
+    public boolean isDraw() {
+        return winnerId < 0;
+    }
+
+    /**
+     * Returns the index of the winner.
+     *
+     * @return {@code 0} if the first player won, {@code 1} if the second player won, or {@code -1}
+     *         for a draw.
+     */
+    public int getWinnerId() {
+        return winnerId;
+    }
+
+    /**
+     * Returns the winning player.
+     *
+     * @return the winning {@link Player} instance, or {@code null} for a draw.
+     */
+    public Player getWinner() {
+        return winner;
+    }
+
+    /**
+     * Returns the number of moves played in the game.
+     *
+     * @return the number of checkers on the board at the end of the game.
+     */
+    public int getMoveCount() {
+        return thinkTimes.length;
+    }
+
+    /**
+     * Returns the time the specified move took to choose.
+     *
+     * @param ply the index (0-indexed) of the move.
+     * @return the think time of the move in nanoseconds.
+     */
+    public long getThinkTime(int ply) {
+        return thinkTimes[ply];
+    }
+}
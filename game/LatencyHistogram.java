@@ -0,0 +1,162 @@
+package game;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe histogram of durations in nanoseconds, used to report latency percentiles.
+ *
+ * <p>Durations are counted in log-linear buckets: every power of two is split into
+ * {@value #SUB_BUCKET_CNT} equal sub-buckets, so a reported percentile is never more than about 12%
+ * above the real value. Recording a duration only increments a {@link LongAdder}, which keeps
+ * contention low when many threads record at once.</p>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see Tournament
+ */
+public class LatencyHistogram {
+
+    /**
+     * The number of bits of a duration, below its highest set bit, that select its sub-bucket.
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /**
+     * The number of sub-buckets every power of two is split into. (Default: {@value})
+     */
+    private static final int SUB_BUCKET_CNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The counters of the buckets.
+     */
+    private final LongAdder[] buckets;
+
+    /**
+     * The number of durations recorded.
+     */
+    private final LongAdder count;
+
+    /**
+     * The sum of the durations recorded, in nanoseconds.
+     */
+    private final LongAdder total;
+
+    /**
+     * The longest duration recorded, in nanoseconds.
+     */
+    private final LongAccumulator max;
+
+    /**
+     * Constructs a new, empty {@link LatencyHistogram} instance.
+     */
+    public LatencyHistogram() {
+        buckets = new LongAdder[(Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_CNT];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+        count = new LongAdder();
+        total = new LongAdder();
+        max = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * Records the specified duration.
+     *
+     * @param nanos the duration in nanoseconds; negative durations are recorded as {@code 0}.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets[bucketOf(value)].increment();
+        count.increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Returns the number of durations recorded.
+     *
+     * @return the number of durations recorded.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the mean of the durations recorded.
+     *
+     * @return the mean duration in nanoseconds, or {@code 0} if nothing has been recorded.
+     */
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) total.sum() / n;
+    }
+
+    /**
+     * Returns the longest duration recorded.
+     *
+     * @return the longest duration in nanoseconds, or {@code 0} if nothing has been recorded.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the specified percentile of the durations recorded.
+     *
+     * @param percentile the percentile to be returned, between {@code 0} and {@code 100}.
+     * @return the upper bound of the bucket holding the percentile in nanoseconds, or {@code 0} if
+     *         nothing has been recorded.
+     * @throws IllegalArgumentException if the percentile is out of range.
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Invalid percentile: " + percentile +
+                    ". Must be between 0 and 100.");
+        }
+        long n = count.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(n * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i].sum();
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Returns the index of the bucket holding the specified duration.
+     *
+     * @param value a non-negative duration in nanoseconds.
+     * @return the index of the bucket.
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKET_CNT) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_CNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_CNT + subBucket;
+    }
+
+    /**
+     * Returns the largest duration held by the specified bucket.
+     *
+     * @param bucket the index of a bucket.
+     * @return the largest duration of the bucket in nanoseconds.
+     */
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKET_CNT) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKET_CNT + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKET_CNT;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (subBucket + 1) * width - 1;
+    }
+}
@@ -0,0 +1,191 @@
+package game;
+
+import model.BoardCell;
+import player.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Runs a batch of headless Connect 4 games between two contenders across several threads.
+ *
+ * <p>A contender is described by a factory creating a {@link Player} for the specified checker.
+ * Every thread creates a single player per contender and a single game, and resets them between
+ * its games rather than allocating new ones, so no player state is shared between threads. A
+ * reused player keeps the caches of its strategy, which stay valid from one game to the next,
+ * such as a transposition table keyed by position. The players of a thread are closed once it has
+ * no games left, releasing the threads of their strategies. The contenders take turns moving
+ * first: contender A moves first in even-numbered games, and contender B in odd-numbered ones. The
+ * first mover always plays {@link BoardCell#PLAYER_A}.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     Tournament tournament = new Tournament(
+ *             checker -> new ComputerPlayer("Negamax", checker, new NegamaxStrategy(6)),
+ *             checker -> new ComputerPlayer("Random", checker),
+ *             Runtime.getRuntime().availableProcessors());
+ *     TournamentResult result = tournament.run(10000);
+ *     System.out.println(result);
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see TournamentResult
+ * @see Connect4Game
+ */
+public class Tournament {
+
+    /**
+     * The factory creating the players of contender A.
+     */
+    private final Function<BoardCell, Player> contenderA;
+
+    /**
+     * The factory creating the players of contender B.
+     */
+    private final Function<BoardCell, Player> contenderB;
+
+    /**
+     * The number of threads playing games at once.
+     */
+    private final int threadCount;
+
+    /**
+     * The {@link GameListener} instance notified of the events of every game.
+     */
+    private GameListener listener;
+
+    /**
+     * Constructs a new {@link Tournament} instance between two contenders.
+     *
+     * @param contenderA  a factory creating a player of contender A for the specified checker.
+     * @param contenderB  a factory creating a player of contender B for the specified checker.
+     * @param threadCount the number of threads playing games at once.
+     * @throws IllegalArgumentException if the thread count is not positive.
+     */
+    public Tournament(Function<BoardCell, Player> contenderA,
+                      Function<BoardCell, Player> contenderB, int threadCount) {
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException("Invalid thread count: " + threadCount +
+                    ". Must be positive.");
+        }
+        this.contenderA = contenderA;
+        this.contenderB = contenderB;
+        this.threadCount = threadCount;
+        listener = GameListener.NONE;
+    }
+
+    /**
+     * Sets a listener to be notified of the events of every game, such as a
+     * {@link GameRecordWriter} archiving the games. Games run on several threads at once, so the
+     * listener must be thread-safe.
+     *
+     * @param listener a {@link GameListener} instance, or {@link GameListener#NONE} for none.
+     */
+    public void setGameListener(GameListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Plays the specified number of games and returns the aggregated results.
+     *
+     * @param gameCount the number of games to be played.
+     * @return a {@link TournamentResult} instance representing the aggregated results.
+     * @throws IllegalArgumentException if the game count is negative.
+     * @throws IllegalStateException    if a game fails with an exception.
+     * @throws InterruptedException     if the calling thread is interrupted while waiting.
+     */
+    public TournamentResult run(int gameCount) throws InterruptedException {
+        if (gameCount < 0) {
+            throw new IllegalArgumentException("Invalid game count: " + gameCount +
+                    ". Must not be negative.");
+        }
+
+        LongAdder winsA = new LongAdder();
+        LongAdder winsB = new LongAdder();
+        LongAdder draws = new LongAdder();
+        AtomicLongArray gameLengths = new AtomicLongArray(TournamentResult.MAX_GAME_LENGTH + 1);
+        LatencyHistogram latencyA = new LatencyHistogram();
+        LatencyHistogram latencyB = new LatencyHistogram();
+        AtomicInteger nextGame = new AtomicInteger();
+
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                workers.add(executor.submit(() -> {
+                    // Every worker reuses its own game and pair of players for all its games
+                    Player playerA = null;
+                    Player playerB = null;
+                    Connect4Game pooledGame = null;
+                    try {
+                        for (int game = nextGame.getAndIncrement(); game < gameCount;
+                             game = nextGame.getAndIncrement()) {
+                            boolean aFirst = game % 2 == 0;
+                            BoardCell checkerA = aFirst ? BoardCell.PLAYER_A : BoardCell.PLAYER_B;
+                            if (playerA == null) {
+                                playerA = contenderA.apply(checkerA);
+                                playerB = contenderB.apply(checkerA.getOpponent());
+                            } else {
+                                playerA.setChecker(checkerA);
+                                playerB.setChecker(checkerA.getOpponent());
+                            }
+                            Player first = aFirst ? playerA : playerB;
+                            Player second = aFirst ? playerB : playerA;
+                            if (pooledGame == null) {
+                                pooledGame = new Connect4Game(first, second, listener);
+                            } else {
+                                pooledGame.reset(first, second);
+                            }
+                            GameResult result = pooledGame.play();
+
+                            if (result.isDraw()) {
+                                draws.increment();
+                            } else if ((result.getWinnerId() == 0) == aFirst) {
+                                winsA.increment();
+                            } else {
+                                winsB.increment();
+                            }
+                            gameLengths.incrementAndGet(result.getMoveCount());
+                            for (int ply = 0; ply < result.getMoveCount(); ply++) {
+                                boolean byA = (ply % 2 == 0) == aFirst;
+                                (byA ? latencyA : latencyB).record(result.getThinkTime(ply));
+                            }
+                        }
+                    } finally {
+                        if (playerA != null) {
+                            playerA.close();
+                            playerB.close();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A tournament game failed.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] lengths = new long[gameLengths.length()];
+        for (int i = 0; i < lengths.length; i++) {
+            lengths[i] = gameLengths.get(i);
+        }
+        return new TournamentResult(winsA.sum(), winsB.sum(), draws.sum(), lengths, latencyA,
+                latencyB, elapsed);
+    }
+}
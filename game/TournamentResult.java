@@ -0,0 +1,214 @@
+package game;
+
+import model.Board;
+
+/**
+ * Represents the aggregated results of a {@link Tournament} run.
+ *
+ * <p>It holds the win/draw/loss counts from the point of view of contender A, the distribution of
+ * game lengths, and the per-move think time of each contender.</p>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see Tournament
+ */
+public class TournamentResult {
+
+    /**
+     * The maximum number of moves in a game. (Default: {@value})
+     */
+    public static final int MAX_GAME_LENGTH = Board.ROW_CNT * Board.COLUMN_CNT;
+
+    /**
+     * The number of games won by contender A.
+     */
+    private final long winsA;
+
+    /**
+     * The number of games won by contender B.
+     */
+    private final long winsB;
+
+    /**
+     * The number of drawn games.
+     */
+    private final long draws;
+
+    /**
+     * The number of games of every length, indexed by the number of moves played.
+     */
+    private final long[] gameLengths;
+
+    /**
+     * The think time per move of contender A.
+     */
+    private final LatencyHistogram latencyA;
+
+    /**
+     * The think time per move of contender B.
+     */
+    private final LatencyHistogram latencyB;
+
+    /**
+     * The wall-clock time of the whole run, in nanoseconds.
+     */
+    private final long elapsedNanos;
+
+    /**
+     * Constructs a new {@link TournamentResult} instance.
+     *
+     * @param winsA        the number of games won by contender A.
+     * @param winsB        the number of games won by contender B.
+     * @param draws        the number of drawn games.
+     * @param gameLengths  the number of games of every length, indexed by the number of moves.
+     * @param latencyA     the think time per move of contender A.
+     * @param latencyB     the think time per move of contender B.
+     * @param elapsedNanos the wall-clock time of the whole run, in nanoseconds.
+     */
+    public TournamentResult(long winsA, long winsB, long draws, long[] gameLengths,
+                            LatencyHistogram latencyA, LatencyHistogram latencyB,
+                            long elapsedNanos) {
+        this.winsA = winsA;
+        this.winsB = winsB;
+        this.draws = draws;
+        this.gameLengths = gameLengths;
+        this.latencyA = latencyA;
+        this.latencyB = latencyB;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns the number of games played.
+     *
+     * @return the number of games played.
+     */
+    public long getGameCount() {
+        return winsA + winsB + draws;
+    }
+
+    /**
+     * Returns the number of games won by contender A.
+     *
+     * @return the number of games won by contender A.
+     */
+    public long getWinsA() {
+        return winsA;
+    }
+
+    /**
+     * Returns the number of games won by contender B.
+     *
+     * @return the number of games won by contender B.
+     */
+    public long getWinsB() {
+        return winsB;
+    }
+
+    /**
+     * Returns the number of drawn games.
+     *
+     * @return the number of drawn games.
+     */
+    public long getDraws() {
+        return draws;
+    }
+
+    /**
+     * Returns the number of games that lasted the specified number of moves.
+     *
+     * @param moveCount the number of moves played.
+     * @return the number of games of that length.
+     */
+    public long getGameLengthCount(int moveCount) {
+        return moveCount < 0 || moveCount >= gameLengths.length ? 0 : gameLengths[moveCount];
+    }
+
+    /**
+     * Returns the mean number of moves per game.
+     *
+     * @return the mean game length, or {@code 0} if no game was played.
+     */
+    public double getMeanGameLength() {
+        long games = 0;
+        long moves = 0;
+        for (int i = 0; i < gameLengths.length; i++) {
+            games += gameLengths[i];
+            moves += i * gameLengths[i];
+        }
+        return games == 0 ? 0 : (double) moves / games;
+    }
+
+    /**
+     * Returns the think time per move of contender A.
+     *
+     * @return a {@link LatencyHistogram} instance of contender A's think times.
+     */
+    public LatencyHistogram getLatencyA() {
+        return latencyA;
+    }
+
+    /**
+     * Returns the think time per move of contender B.
+     *
+     * @return a {@link LatencyHistogram} instance of contender B's think times.
+     */
+    public LatencyHistogram getLatencyB() {
+        return latencyB;
+    }
+
+    /**
+     * Returns the wall-clock time of the whole run.
+     *
+     * @return the elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns a text report of the results.
+     *
+     * @return a multi-line text report of the results.
+     */
+    @Override
+    public String toString() {
+        long games = getGameCount();
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Games: %,d in %.2f s (%,.0f games/s)%n", games, seconds,
+                games / seconds));
+        report.append(String.format("A wins: %,d (%.1f%%)  B wins: %,d (%.1f%%)  " +
+                        "Draws: %,d (%.1f%%)%n", winsA, percentOf(winsA, games), winsB, percentOf(winsB, games), draws,
+                percentOf(draws, games)));
+        report.append(String.format("Mean game length: %.1f moves%n", getMeanGameLength()));
+        appendLatency(report, "A", latencyA);
+        appendLatency(report, "B", latencyB);
+        return report.toString();
+    }
+
+    /**
+     * Appends one line of think time statistics to the specified report.
+     *
+     * @param report    the report being built.
+     * @param contender the label of the contender.
+     * @param latency   the think times of the contender.
+     */
+    private static void appendLatency(StringBuilder report, String contender,
+                                      LatencyHistogram latency) {
+        report.append(String.format("%s think time (us): mean %.1f  p50 %.1f  p90 %.1f  " +
+                        "p99 %.1f  max %.1f%n", contender, latency.getMean() / 1e3,
+                latency.getPercentile(50) / 1e3, latency.getPercentile(90) / 1e3,
+                latency.getPercentile(99) / 1e3, latency.getMax() / 1e3));
+    }
+
+    /**
+     * Returns the specified part as a percentage of the specified total.
+     *
+     * @param part  the part.
+     * @param total the total.
+     * @return the percentage, or {@code 0} if the total is {@code 0}.
+     */
+    private static double percentOf(long part, long total) {
+        return total == 0 ? 0 : 100.0 * part / total;
+    }
+}
@@ -0,0 +1,303 @@
+package metrics;
+
+import ai.MoveStrategy;
+import game.LatencyHistogram;
+import player.ComputerPlayer;
+import player.Player;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The process-wide runtime metrics of the games and the computer players.
+ *
+ * <p>It counts the games created, finished and abandoned, the moves played, the nodes searched and
+ * the transposition table probes and hits, and keeps a think-time histogram for every type of
+ * player. Every counter is a {@link LongAdder}, so recording from many threads at once does not
+ * contend on a single memory location.</p>
+ *
+ * <p>Metrics are only recorded if the JVM is started with {@code -Dconnect4.metrics=true}. The
+ * switch is read once into the constant {@link #ENABLED}, and every call site checks it first, so
+ * the JIT compiler removes the instrumentation entirely when it is off.</p>
+ *
+ * <p>{@link #snapshot()} renders all the metrics as text, and {@link #startReporter(PrintStream,
+ * long)} prints a snapshot periodically from a background thread.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     // java -Dconnect4.metrics=true ...
+ *     if (EngineMetrics.ENABLED) {
+ *         ScheduledExecutorService reporter = EngineMetrics.startReporter(System.out, 10_000);
+ *         ...
+ *         reporter.shutdownNow();
+ *         System.out.print(EngineMetrics.snapshot());
+ *     }
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see LatencyHistogram
+ */
+public final class EngineMetrics {
+
+    /**
+     * The system property switching the metrics on. (Default: {@value})
+     */
+    public static final String ENABLED_PROPERTY = "connect4.metrics";
+
+    /**
+     * Whether metrics are recorded, read once from the {@value #ENABLED_PROPERTY} system property.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    /**
+     * The number of games created.
+     */
+    private static final LongAdder gamesStarted = new LongAdder();
+
+    /**
+     * The number of games played to the end.
+     */
+    private static final LongAdder gamesFinished = new LongAdder();
+
+    /**
+     * The number of games given up before their end.
+     */
+    private static final LongAdder gamesAbandoned = new LongAdder();
+
+    /**
+     * The number of valid moves played.
+     */
+    private static final LongAdder moves = new LongAdder();
+
+    /**
+     * The number of nodes (or playouts) searched by the computer players.
+     */
+    private static final LongAdder nodes = new LongAdder();
+
+    /**
+     * The number of transposition table probes by the computer players.
+     */
+    private static final LongAdder tableProbes = new LongAdder();
+
+    /**
+     * The number of transposition table probes that found their position.
+     */
+    private static final LongAdder tableHits = new LongAdder();
+
+    /**
+     * The think-time histogram of every type of player.
+     */
+    private static final Map<String, LatencyHistogram> thinkTimes = new ConcurrentHashMap<>();
+
+    /**
+     * The {@link System#nanoTime()} the metrics were started or last reset.
+     */
+    private static long startNanos = System.nanoTime();
+
+    /**
+     * The {@link System#nanoTime()} of the last snapshot.
+     */
+    private static long lastSnapshotNanos = startNanos;
+
+    /**
+     * The number of moves at the last snapshot.
+     */
+    private static long lastSnapshotMoves;
+
+    /**
+     * Prevents instantiation; all the metrics are static.
+     */
+    private EngineMetrics() {
+    }
+
+    /**
+     * Records a new game.
+     */
+    public static void recordGameStarted() {
+        if (ENABLED) {
+            gamesStarted.increment();
+        }
+    }
+
+    /**
+     * Records a game played to the end.
+     */
+    public static void recordGameFinished() {
+        if (ENABLED) {
+            gamesFinished.increment();
+        }
+    }
+
+    /**
+     * Records a game given up before its end, so it is no longer counted in flight.
+     */
+    public static void recordGameAbandoned() {
+        if (ENABLED) {
+            gamesAbandoned.increment();
+        }
+    }
+
+    /**
+     * Records a valid move and the time its player took to choose it.
+     *
+     * @param player     the {@link Player} instance who made the move.
+     * @param thinkNanos the time taken to choose the move in nanoseconds.
+     */
+    public static void recordMove(Player player, long thinkNanos) {
+        if (ENABLED) {
+            moves.increment();
+            thinkTimes.computeIfAbsent(typeOf(player), type -> new LatencyHistogram())
+                    .record(thinkNanos);
+        }
+    }
+
+    /**
+     * Records the work of a search.
+     *
+     * @param nodeCount  the number of nodes (or playouts) searched.
+     * @param probeCount the number of transposition table probes.
+     * @param hitCount   the number of probes that found their position.
+     */
+    public static void recordSearch(long nodeCount, long probeCount, long hitCount) {
+        if (ENABLED) {
+            nodes.add(nodeCount);
+            tableProbes.add(probeCount);
+            tableHits.add(hitCount);
+        }
+    }
+
+    /**
+     * Returns the type of a player the think times are grouped by: the class of the strategy of a
+     * {@link ComputerPlayer}, or the class of any other player.
+     *
+     * @param player a {@link Player} instance.
+     * @return the simple name of the type.
+     */
+    private static String typeOf(Player player) {
+        if (player instanceof ComputerPlayer) {
+            MoveStrategy strategy = ((ComputerPlayer) player).getStrategy();
+            return strategy.getClass().getSimpleName();
+        }
+        return player.getClass().getSimpleName();
+    }
+
+    /**
+     * Returns the number of games started but neither finished nor abandoned.
+     *
+     * @return the number of games in flight.
+     */
+    public static long getGamesInFlight() {
+        return gamesStarted.sum() - gamesFinished.sum() - gamesAbandoned.sum();
+    }
+
+    /**
+     * Returns the number of valid moves played.
+     *
+     * @return the number of moves.
+     */
+    public static long getMoveCount() {
+        return moves.sum();
+    }
+
+    /**
+     * Returns the number of nodes (or playouts) searched by the computer players.
+     *
+     * @return the number of nodes.
+     */
+    public static long getNodeCount() {
+        return nodes.sum();
+    }
+
+    /**
+     * Returns the share of transposition table probes that found their position.
+     *
+     * @return the hit rate between {@code 0} and {@code 1}, or {@code 0} if nothing was probed.
+     */
+    public static double getTableHitRate() {
+        long probes = tableProbes.sum();
+        return probes == 0 ? 0 : (double) tableHits.sum() / probes;
+    }
+
+    /**
+     * Clears all the metrics, for example between two benchmark runs.
+     */
+    public static synchronized void reset() {
+        gamesStarted.reset();
+        gamesFinished.reset();
+        gamesAbandoned.reset();
+        moves.reset();
+        nodes.reset();
+        tableProbes.reset();
+        tableHits.reset();
+        thinkTimes.clear();
+        startNanos = System.nanoTime();
+        lastSnapshotNanos = startNanos;
+        lastSnapshotMoves = 0;
+    }
+
+    /**
+     * Renders all the metrics as text. The move rate is measured since the previous snapshot.
+     *
+     * @return a multi-line text snapshot of the metrics.
+     */
+    public static synchronized String snapshot() {
+        long now = System.nanoTime();
+        long moveCount = moves.sum();
+        double interval = Math.max(1, now - lastSnapshotNanos) / 1e9;
+        double rate = (moveCount - lastSnapshotMoves) / interval;
+        lastSnapshotNanos = now;
+        lastSnapshotMoves = moveCount;
+
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Metrics after %.1f s%n", (now - startNanos) / 1e9));
+        text.append(String.format("Games: started %,d  finished %,d  abandoned %,d  " +
+                        "in flight %,d%n", gamesStarted.sum(), gamesFinished.sum(),
+                gamesAbandoned.sum(), getGamesInFlight()));
+        text.append(String.format("Moves: %,d (%,.0f moves/s)%n", moveCount, rate));
+        text.append(String.format("Search: nodes %,d  table probes %,d  hit rate %.1f%%%n",
+                nodes.sum(), tableProbes.sum(), 100 * getTableHitRate()));
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(thinkTimes).entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            text.append(String.format("Think time (us) %s: count %,d  mean %.1f  p50 %.1f  " +
+                            "p90 %.1f  p99 %.1f  max %.1f%n", entry.getKey(),
+                    histogram.getCount(), histogram.getMean() / 1e3,
+                    histogram.getPercentile(50) / 1e3, histogram.getPercentile(90) / 1e3,
+                    histogram.getPercentile(99) / 1e3, histogram.getMax() / 1e3));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Prints a snapshot periodically from a daemon thread.
+     *
+     * @param out          the {@link PrintStream} to print the snapshots to.
+     * @param periodMillis the time between two snapshots in milliseconds.
+     * @return the {@link ScheduledExecutorService} running the reporter, to be shut down when no
+     *         more snapshots are wanted.
+     * @throws IllegalArgumentException if the period is not positive.
+     */
+    public static ScheduledExecutorService startReporter(PrintStream out, long periodMillis) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("Invalid report period: " + periodMillis +
+                    ". Must be positive.");
+        }
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(
+                runnable -> {
+                    Thread thread = new Thread(runnable, "metrics-reporter");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        reporter.scheduleAtFixedRate(() -> out.print(snapshot()), periodMillis, periodMillis,
+                TimeUnit.MILLISECONDS);
+        return reporter;
+    }
+}
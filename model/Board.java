@@ -1,10 +1,25 @@
 package model;
 
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Represents the game board in the Connect 4 game.
  *
  * <p>It provides operations for managing and updating the game board, validating player drops, and
- * checking for a game win/draw.</p>
+ * checking for a game win/draw. The board is {@value ROW_CNT}x{@value COLUMN_CNT} with four in a
+ * row to win by default, but any number of rows and columns up to {@value MAX_DIMENSION} and any
+ * connect length can be chosen when it is created.</p>
+ *
+ * <p>The board is stored as a bitboard: one bitset per player plus the current height of every
+ * column. Cells are laid out column by column from the bottom up, with one extra (always empty)
+ * sentinel bit on top of each column so that shifting a mask never carries a checker from one
+ * column into the next. Bit {@code columnId * (rowCount + 1) + height} is therefore the cell that
+ * the next checker dropped in {@code columnId} lands on. As long as all these bits fit in a single
+ * {@code long}, as they do for the default board, each bitset is one word and the whole board is
+ * checked with a few shifts; larger boards switch to bitsets of several words.</p>
  *
  * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
  * @version 1.0
@@ -13,30 +28,327 @@ package model;
 public class Board {
 
     /**
-     * The number of rows in the board. (Default: {@value})
+     * The default number of rows in the board. (Default: {@value})
      */
     public static final int ROW_CNT = 6;
 
     /**
-     * The number of columns in the board. (Default: {@value})
+     * The default number of columns in the board. (Default: {@value})
      */
     public static final int COLUMN_CNT = 7;
 
     /**
-     * A two-dimension {@link BoardCell} array representing the game board.
+     * The default number of consecutive checkers needed to win. (Default: {@value})
+     */
+    public static final int CONNECT_LENGTH = 4;
+
+    /**
+     * The maximum number of rows or columns in the board. (Default: {@value})
+     */
+    public static final int MAX_DIMENSION = 255;
+
+    /**
+     * The column steps between two neighbouring cells in vertical, horizontal, negatively sloped
+     * diagonal and positively sloped diagonal directions.
+     */
+    private static final int[] COLUMN_STEPS = {0, 1, 1, 1};
+
+    /**
+     * The height steps between two neighbouring cells in vertical, horizontal, negatively sloped
+     * diagonal and positively sloped diagonal directions.
+     */
+    private static final int[] HEIGHT_STEPS = {1, 0, -1, 1};
+
+    /**
+     * The random Zobrist keys of every (player, bit) pair, indexed by the number of bits in a
+     * player's bitset, and shared by all the boards of the same dimensions.
+     *
+     * <p>They are derived from a fixed seed so that the same position always hashes to the same
+     * key, including across runs.</p>
+     */
+    private static final Map<Integer, long[][]> ZOBRIST_KEYS = new ConcurrentHashMap<>();
+
+    /**
+     * The number of rows in the board.
+     */
+    private final int rowCount;
+
+    /**
+     * The number of columns in the board.
+     */
+    private final int columnCount;
+
+    /**
+     * The number of consecutive checkers needed to win.
+     */
+    private final int connectLength;
+
+    /**
+     * The number of bits used by a single column in a bitset, including the sentinel bit.
+     */
+    private final int columnHeight;
+
+    /**
+     * The number of {@code long} words in the bitset of a player.
+     */
+    private final int wordCount;
+
+    /**
+     * The bit shifts between two neighbouring cells in vertical, horizontal, negatively sloped
+     * diagonal and positively sloped diagonal directions.
+     */
+    private final int[] directions;
+
+    /**
+     * The Zobrist keys of every (player, bit) pair of this board's dimensions.
      */
-    private final BoardCell[][] grid;
+    private final long[][] zobristKeys;
 
     /**
-     * Initializes an empty {@value ROW_CNT}x{@value COLUMN_CNT} game board.
+     * The checker bitsets of player A (the first {@link #wordCount} words) and player B (the next
+     * {@link #wordCount} words).
+     */
+    private final long[] masks;
+
+    /**
+     * The number of checkers currently stacked in each column.
+     */
+    private final int[] heights;
+
+    /**
+     * The columns of all the drops made so far, in the order they were made. Only the first
+     * {@link #moveCount} entries are in use.
+     */
+    private final int[] moves;
+
+    /**
+     * The total number of checkers on the board.
+     */
+    private int moveCount;
+
+    /**
+     * The Zobrist hash key of the current position.
+     */
+    private long key;
+
+    /**
+     * The Zobrist hash key of the current position mirrored across the center column.
+     */
+    private long mirrorKey;
+
+    /**
+     * A lazily built two-dimension {@link BoardCell} view of the board, or {@code null} if it has
+     * not been built since the last change.
+     */
+    private BoardCell[][] grid;
+
+    /**
+     * Initializes an empty {@value ROW_CNT}x{@value COLUMN_CNT} game board, where
+     * {@value CONNECT_LENGTH} checkers in a row win.
      */
     public Board() {
-        grid = new BoardCell[ROW_CNT][COLUMN_CNT];
-        for (int i = 0; i < ROW_CNT; i++) {
-            for (int j = 0; j < COLUMN_CNT; j++) {
-                grid[i][j] = BoardCell.EMPTY;
+        this(ROW_CNT, COLUMN_CNT, CONNECT_LENGTH);
+    }
+
+    /**
+     * Initializes an empty game board with the specified dimensions.
+     *
+     * @param rowCount      the number of rows (between 1 and {@value MAX_DIMENSION}).
+     * @param columnCount   the number of columns (between 1 and {@value MAX_DIMENSION}).
+     * @param connectLength the number of consecutive checkers needed to win (between 2 and the
+     *                      larger of the two dimensions).
+     * @throws IllegalArgumentException if any of the dimensions is out of bounds.
+     * @see #validateDimensions(int, int, int)
+     */
+    public Board(int rowCount, int columnCount, int connectLength) {
+        validateDimensions(rowCount, columnCount, connectLength);
+
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.connectLength = connectLength;
+        columnHeight = rowCount + 1;
+        int bitCount = columnCount * columnHeight;
+        wordCount = (bitCount + Long.SIZE - 1) / Long.SIZE;
+        directions = new int[COLUMN_STEPS.length];
+        for (int i = 0; i < directions.length; i++) {
+            directions[i] = COLUMN_STEPS[i] * columnHeight + HEIGHT_STEPS[i];
+        }
+        zobristKeys = ZOBRIST_KEYS.computeIfAbsent(bitCount, Board::createZobristKeys);
+        masks = new long[2 * wordCount];
+        heights = new int[columnCount];
+        moves = new int[rowCount * columnCount];
+        moveCount = 0;
+        key = 0;
+        mirrorKey = 0;
+    }
+
+    /**
+     * Validates the dimensions of a board without creating one, for classes that only record or
+     * check the dimensions of the boards they will handle.
+     *
+     * @param rowCount      the number of rows (between 1 and {@value MAX_DIMENSION}).
+     * @param columnCount   the number of columns (between 1 and {@value MAX_DIMENSION}).
+     * @param connectLength the number of consecutive checkers needed to win (between 2 and the
+     *                      larger of the two dimensions).
+     * @throws IllegalArgumentException if any of the dimensions is out of bounds.
+     */
+    public static void validateDimensions(int rowCount, int columnCount, int connectLength) {
+        if (rowCount < 1 || rowCount > MAX_DIMENSION) {
+            throw new IllegalArgumentException("Invalid row count: " + rowCount +
+                    ". Must be between 1 and " + MAX_DIMENSION + ".");
+        }
+        if (columnCount < 1 || columnCount > MAX_DIMENSION) {
+            throw new IllegalArgumentException("Invalid column count: " + columnCount +
+                    ". Must be between 1 and " + MAX_DIMENSION + ".");
+        }
+        if (connectLength < 2 || connectLength > Math.max(rowCount, columnCount)) {
+            throw new IllegalArgumentException("Invalid connect length: " + connectLength +
+                    ". Must be between 2 and " + Math.max(rowCount, columnCount) + ".");
+        }
+    }
+
+    /**
+     * Validates the dimensions of a board whose checkers must fit in a single-word bitboard, as
+     * returned by {@link #getBitboard(BoardCell)}, for classes that only handle such boards.
+     *
+     * @param rowCount      the number of rows.
+     * @param columnCount   the number of columns.
+     * @param connectLength the number of consecutive checkers needed to win.
+     * @throws IllegalArgumentException if any of the dimensions is out of bounds, or the board
+     *                                  does not fit in a single-word bitboard.
+     * @see #validateDimensions(int, int, int)
+     */
+    public static void validateSingleWordDimensions(int rowCount, int columnCount,
+                                                    int connectLength) {
+        validateDimensions(rowCount, columnCount, connectLength);
+        // Every column has a sentinel bit on top
+        if ((rowCount + 1) * columnCount > Long.SIZE) {
+            throw new IllegalArgumentException("Invalid board: " + rowCount + "x" + columnCount +
+                    ". Must fit in a single-word bitboard.");
+        }
+    }
+
+    /**
+     * Initializes a game board with the same state as the specified board.
+     *
+     * @param other the {@link Board} instance to be copied.
+     */
+    private Board(Board other) {
+        rowCount = other.rowCount;
+        columnCount = other.columnCount;
+        connectLength = other.connectLength;
+        columnHeight = other.columnHeight;
+        wordCount = other.wordCount;
+        directions = other.directions;
+        zobristKeys = other.zobristKeys;
+        masks = other.masks.clone();
+        heights = other.heights.clone();
+        moves = other.moves.clone();
+        moveCount = other.moveCount;
+        key = other.key;
+        mirrorKey = other.mirrorKey;
+    }
+
+    /**
+     * Returns an independent copy of the game board.
+     *
+     * <p>Only a few small primitive arrays are copied, which makes it cheap enough to hand every
+     * search thread or rollout its own board.</p>
+     *
+     * @return a new {@link Board} instance with the same state as this board.
+     */
+    public Board copy() {
+        return new Board(this);
+    }
+
+    /**
+     * Empties the game board, keeping its dimensions.
+     *
+     * <p>No memory is allocated, so a board can be reused for many games instead of creating a new
+     * one for each.</p>
+     */
+    public void reset() {
+        Arrays.fill(masks, 0);
+        Arrays.fill(heights, 0);
+        moveCount = 0;
+        key = 0;
+        mirrorKey = 0;
+        grid = null;
+    }
+
+    /**
+     * Creates the Zobrist keys of every (player, bit) pair from a fixed seed.
+     *
+     * @param bitCount the number of bits in the bitset of a player.
+     * @return a two-dimension array of Zobrist keys indexed by player and bit.
+     */
+    private static long[][] createZobristKeys(int bitCount) {
+        long[][] keys = new long[2][bitCount];
+        long seed = 0x5EED_C0DE_4C4FL;
+        for (int i = 0; i < keys.length; i++) {
+            for (int j = 0; j < keys[i].length; j++) {
+                // SplitMix64
+                seed += 0x9E3779B97F4A7C15L;
+                long z = seed;
+                z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+                z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+                keys[i][j] = z ^ (z >>> 31);
             }
         }
+        return keys;
+    }
+
+    /**
+     * Returns the number of rows in the board.
+     *
+     * @return the number of rows.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the number of columns in the board.
+     *
+     * @return the number of columns.
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Returns the number of consecutive checkers needed to win.
+     *
+     * @return the connect length.
+     */
+    public int getConnectLength() {
+        return connectLength;
+    }
+
+    /**
+     * Returns the number of cells in the board, which is also the length of the longest game.
+     *
+     * @return the number of rows times the number of columns.
+     */
+    public int getCellCount() {
+        return rowCount * columnCount;
+    }
+
+    /**
+     * Returns the columns of a board from the center outwards: the center column first, then
+     * alternately the closest remaining column to its left and to its right, such as
+     * {@code 3, 2, 4, 1, 5, 0, 6} for 7 columns. Central columns take part in the most lines, so
+     * searches try moves and break ties in this order.
+     *
+     * @param columnCount the number of columns of the board.
+     * @return a new array of the column indexes (0-based) from the center outwards.
+     */
+    public static int[] getCenterOrder(int columnCount) {
+        int[] order = new int[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            order[i] = columnCount / 2 + (1 - 2 * (i % 2)) * (i + 1) / 2;
+        }
+        return order;
     }
 
     /**
@@ -46,12 +358,46 @@ public class Board {
      * @throws IllegalArgumentException if the specified column ID is out of bounds.
      */
     private void validateColumnId(int columnId) {
-        if (columnId < 0 || columnId >= COLUMN_CNT) {
+        if (columnId < 0 || columnId >= columnCount) {
             throw new IllegalArgumentException("Invalid column ID: " + columnId +
-                    ". Must be between 0 and " + (COLUMN_CNT - 1) + ".");
+                    ". Must be between 0 and " + (columnCount - 1) + ".");
         }
     }
 
+    /**
+     * Validates if the specified row ID is within the bounds of the board.
+     *
+     * @param rowId The row index (0-indexed, top row first) to be validated.
+     * @throws IllegalArgumentException if the specified row ID is out of bounds.
+     */
+    private void validateRowId(int rowId) {
+        if (rowId < 0 || rowId >= rowCount) {
+            throw new IllegalArgumentException("Invalid row ID: " + rowId +
+                    ". Must be between 0 and " + (rowCount - 1) + ".");
+        }
+    }
+
+    /**
+     * Returns the index of the mask holding the specified checker.
+     *
+     * @param checker a {@link BoardCell} instance representing a checker (Must be either 'X' or 'O').
+     * @return {@code 0} for player A and {@code 1} for player B.
+     */
+    private static int maskIndex(BoardCell checker) {
+        return checker == BoardCell.PLAYER_A ? 0 : 1;
+    }
+
+    /**
+     * Returns whether the specified bit is set in the bitset of the specified player.
+     *
+     * @param index    the index of the player's mask.
+     * @param position the index of the bit.
+     * @return {@code true} if the bit is set; Otherwise, {@code false}.
+     */
+    private boolean isSet(int index, int position) {
+        return (masks[index * wordCount + (position >>> 6)] & (1L << position)) != 0;
+    }
+
     /**
      * Returns whether all the cells in the specified column have already been used.
      *
@@ -60,7 +406,7 @@ public class Board {
      */
     private boolean isColumnFull(int columnId) {
         validateColumnId(columnId);
-        return grid[0][columnId] != BoardCell.EMPTY;
+        return heights[columnId] == rowCount;
     }
 
     /**
@@ -70,12 +416,7 @@ public class Board {
      *         Otherwise, {@code false}.
      */
     public boolean isFull() {
-        for (int i = 0; i < COLUMN_CNT; i++) {
-            if (!isColumnFull(i)) {
-                return false;
-            }
-        }
-        return true;
+        return moveCount == moves.length;
     }
 
     /**
@@ -102,20 +443,303 @@ public class Board {
 
     /**
      * Drops a checker in the specified column. If the column is already full, the drop operation
-     * fails and this method would return {@code false}.
+     * fails and this method would return {@link MoveOutcome#INVALID}.
+     *
+     * <p>Only the four lines through the placed checker are inspected to decide whether the drop
+     * won the game, so callers do not need a separate {@link #checkIfWinning(BoardCell)} or
+     * {@link #isFull()} pass after each move.</p>
      *
      * @param columnId the index (0-indexed) of the column where the checker is to be dropped.
      * @param checker  a {@link BoardCell} instance representing a checker (Must be either 'X' or 'O').
-     * @return {@code true} if the drop operation is successful; Otherwise, {@code false}.
+     * @return a {@link MoveOutcome} instance representing the outcome of the drop.
      */
-    public boolean dropChecker(int columnId, BoardCell checker) {
+    public MoveOutcome dropChecker(int columnId, BoardCell checker) {
         if (!isValidDrop(columnId) || !isValidChecker(checker)) {
-            return false;
+            return MoveOutcome.INVALID;
+        }
+
+        int index = maskIndex(checker);
+        int height = heights[columnId];
+        int position = columnId * columnHeight + height;
+        masks[index * wordCount + (position >>> 6)] |= 1L << position;
+        key ^= zobristKeys[index][position];
+        mirrorKey ^= zobristKeys[index][(columnCount - 1 - columnId) * columnHeight + height];
+        heights[columnId]++;
+        moves[moveCount++] = columnId;
+        grid = null;
+
+        if (isWinningCell(index, columnId, height)) {
+            return MoveOutcome.WIN;
+        } else if (isFull()) {
+            return MoveOutcome.DRAW;
+        }
+        return MoveOutcome.CONTINUE;
+    }
+
+    /**
+     * Takes back the last checker dropped, which must be the top checker of the specified column,
+     * restoring the board to the state before that checker was dropped.
+     *
+     * <p>Together with {@link #dropChecker(int, BoardCell)} it allows a search to explore moves on
+     * one board in place, without copying it for every position.</p>
+     *
+     * @param columnId the index (0-indexed) of the column of the last drop.
+     * @throws IllegalArgumentException if the specified column ID is out of bounds.
+     * @throws IllegalStateException    if the last drop was not made in the specified column.
+     */
+    public void undoDrop(int columnId) {
+        validateColumnId(columnId);
+        if (moveCount == 0 || moves[moveCount - 1] != columnId) {
+            throw new IllegalStateException("Column " + columnId + " does not hold the last " +
+                    "checker dropped.");
+        }
+
+        heights[columnId]--;
+        int position = columnId * columnHeight + heights[columnId];
+        int index = isSet(0, position) ? 0 : 1;
+        masks[index * wordCount + (position >>> 6)] &= ~(1L << position);
+        key ^= zobristKeys[index][position];
+        mirrorKey ^= zobristKeys[index][(columnCount - 1 - columnId) * columnHeight
+                + heights[columnId]];
+        moveCount--;
+        grid = null;
+    }
+
+    /**
+     * Takes back the last checker dropped.
+     *
+     * @return the index (0-indexed) of the column the checker was taken from.
+     * @throws IllegalStateException if the board is empty.
+     */
+    public int undoLastDrop() {
+        int columnId = getLastMove();
+        if (columnId < 0) {
+            throw new IllegalStateException("The board has no checker to undo.");
+        }
+        undoDrop(columnId);
+        return columnId;
+    }
+
+    /**
+     * Returns the column of the last checker dropped.
+     *
+     * @return the index (0-indexed) of the column of the last drop, or {@code -1} if the board is
+     *         empty.
+     */
+    public int getLastMove() {
+        return moveCount == 0 ? -1 : moves[moveCount - 1];
+    }
+
+    /**
+     * Returns the column of the specified drop.
+     *
+     * @param ply the index (0-indexed) of the drop, in the order the drops were made.
+     * @return the index (0-indexed) of the column of the drop.
+     * @throws IllegalArgumentException if no such drop has been made.
+     */
+    public int getMove(int ply) {
+        if (ply < 0 || ply >= moveCount) {
+            throw new IllegalArgumentException("Invalid ply: " + ply +
+                    ". Must be between 0 and " + (moveCount - 1) + ".");
+        }
+        return moves[ply];
+    }
+
+    /**
+     * Returns the total number of checkers that have been dropped on the board.
+     *
+     * @return the number of checkers on the board.
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Returns the Zobrist hash key of the current position.
+     *
+     * <p>The key is updated incrementally on every drop and undo, so it costs nothing to read.
+     * Equal positions always have equal keys, no matter in which order their checkers were
+     * dropped.</p>
+     *
+     * @return the 64-bit hash key of the current position.
+     */
+    public long getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the Zobrist hash key of the current position mirrored across the center column,
+     * which is the key {@link #getKey()} would return for the mirrored board.
+     *
+     * @return the 64-bit hash key of the mirrored position.
+     */
+    public long getMirrorKey() {
+        return mirrorKey;
+    }
+
+    /**
+     * Returns the canonical hash key of the current position, the lesser of its key and the key
+     * of its mirror image across the center column.
+     *
+     * <p>A position and its mirror image are equally good for the same player, with every move
+     * mirrored, so caches keyed by the canonical key share a single entry between both and hold
+     * up to half as many entries. Moves stored under a canonical key are to be mapped with
+     * {@link #toCanonicalMove(int)} when stored, and with {@link #fromCanonicalMove(int)} when
+     * read back.</p>
+     *
+     * @return the 64-bit canonical hash key of the current position.
+     */
+    public long getCanonicalKey() {
+        return Math.min(key, mirrorKey);
+    }
+
+    /**
+     * Returns whether the canonical orientation of the current position is its mirror image, that
+     * is whether its moves have to be mirrored to match entries stored under its canonical key.
+     *
+     * @return {@code true} if the mirrored key is the canonical key; Otherwise, {@code false}.
+     */
+    public boolean isMirroredCanonical() {
+        return mirrorKey < key;
+    }
+
+    /**
+     * Maps a column of the current position to the canonical orientation of the position.
+     *
+     * @param columnId the index (0-indexed) of a column, or a negative number for no move, which
+     *                 is returned unchanged.
+     * @return the index (0-indexed) of the column in the canonical orientation.
+     * @see #getCanonicalKey()
+     */
+    public int toCanonicalMove(int columnId) {
+        return columnId >= 0 && mirrorKey < key ? columnCount - 1 - columnId : columnId;
+    }
+
+    /**
+     * Maps a column of the canonical orientation of the current position back to the position.
+     *
+     * @param columnId the index (0-indexed) of a column in the canonical orientation, or a
+     *                 negative number for no move, which is returned unchanged.
+     * @return the index (0-indexed) of the column in the current position.
+     * @see #getCanonicalKey()
+     */
+    public int fromCanonicalMove(int columnId) {
+        // Mirroring is its own inverse
+        return toCanonicalMove(columnId);
+    }
+
+    /**
+     * Returns the checkers of the specified player as a single-word bitboard.
+     *
+     * <p>The cell of column {@code c} at height {@code h} (0-indexed, bottom row first) is bit
+     * {@code c * (rowCount + 1) + h}; the extra bit on top of every column is always clear. It is
+     * the layout used by {@link ai.BatchEvaluator}, and only exists for boards of at most 64 such
+     * bits, such as the standard board.</p>
+     *
+     * @param checker a {@link BoardCell} instance representing a checker (Must be either 'X' or 'O').
+     * @return the bitboard of the player's checkers.
+     * @throws IllegalArgumentException if the checker is neither 'X' nor 'O'.
+     * @throws IllegalStateException    if the board does not fit in a single word.
+     */
+    public long getBitboard(BoardCell checker) {
+        if (!isValidChecker(checker)) {
+            throw new IllegalArgumentException("Invalid checker: " + checker +
+                    ". Must be either 'X' or 'O'.");
+        }
+        if (wordCount != 1) {
+            throw new IllegalStateException("A " + rowCount + "x" + columnCount + " board does " +
+                    "not fit in a single-word bitboard.");
+        }
+        return masks[maskIndex(checker)];
+    }
+
+    /**
+     * Returns whether dropping a checker in the specified column would win the game, without
+     * dropping it.
+     *
+     * <p>It inspects the same four lines as {@link #dropChecker(int, BoardCell)}, which makes it a
+     * cheap test for a search looking for immediate wins and blocks.</p>
+     *
+     * @param columnId the index (0-indexed) of the column.
+     * @param checker  a {@link BoardCell} instance representing a checker (Must be either 'X' or 'O').
+     * @return {@code true} if the column is not full and the drop would complete a line;
+     *         Otherwise, {@code false}.
+     */
+    public boolean isWinningMove(int columnId, BoardCell checker) {
+        return isValidDrop(columnId) && isValidChecker(checker)
+                && isWinningCell(maskIndex(checker), columnId, heights[columnId]);
+    }
+
+    /**
+     * Returns whether the specified cell completes a line of {@link #connectLength} consecutive
+     * checkers of the specified player.
+     *
+     * <p>It walks outwards from the cell in both senses of every direction, so the cost depends on
+     * the connect length but not on the size of the board.</p>
+     *
+     * @param index    the index of the player's mask.
+     * @param columnId the index (0-indexed) of the column of the cell.
+     * @param height   the index (0-indexed, bottom row first) of the row of the cell.
+     * @return {@code true} if the cell completes a line; Otherwise, {@code false}.
+     */
+    private boolean isWinningCell(int index, int columnId, int height) {
+        if (wordCount == 1) {
+            return isWinningBit(masks[index], 1L << (columnId * columnHeight + height));
         }
 
-        for (int i = ROW_CNT - 1; i >= 0; i--) {
-            if (grid[i][columnId] == BoardCell.EMPTY) {
-                grid[i][columnId] = checker;
+        for (int i = 0; i < COLUMN_STEPS.length; i++) {
+            int columnStep = COLUMN_STEPS[i];
+            int heightStep = HEIGHT_STEPS[i];
+            int count = 1;
+            for (int c = columnId + columnStep, h = height + heightStep;
+                 isOccupiedBy(index, c, h); c += columnStep, h += heightStep) {
+                count++;
+            }
+            for (int c = columnId - columnStep, h = height - heightStep;
+                 isOccupiedBy(index, c, h); c -= columnStep, h -= heightStep) {
+                count++;
+            }
+            if (count >= connectLength) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the specified cell is on the board and holds a checker of the specified
+     * player.
+     *
+     * @param index    the index of the player's mask.
+     * @param columnId the index (0-indexed) of the column of the cell.
+     * @param height   the index (0-indexed, bottom row first) of the row of the cell.
+     * @return {@code true} if the cell holds a checker of the player; Otherwise, {@code false}.
+     */
+    private boolean isOccupiedBy(int index, int columnId, int height) {
+        return columnId >= 0 && columnId < columnCount && height >= 0 && height < heights[columnId]
+                && isSet(index, columnId * columnHeight + height);
+    }
+
+    /**
+     * Returns whether the specified cell is part of {@link #connectLength} consecutive cells set in
+     * a single-word mask.
+     *
+     * <p>The sentinel bits stop every walk at the edge of the board, so no bounds are checked.</p>
+     *
+     * @param mask the checker mask of a player.
+     * @param bit  a mask with only the bit of the cell to be checked set.
+     * @return {@code true} if the cell completes a line; Otherwise, {@code false}.
+     */
+    private boolean isWinningBit(long mask, long bit) {
+        for (int shift : directions) {
+            int count = 1;
+            for (long next = bit << shift; (mask & next) != 0; next <<= shift) {
+                count++;
+            }
+            for (long next = bit >>> shift; (mask & next) != 0; next >>>= shift) {
+                count++;
+            }
+            if (count >= connectLength) {
                 return true;
             }
         }
@@ -127,12 +751,17 @@ public class Board {
      *
      * <p>It will check if any of the following winning conditions has been reached:</p>
      * <ol>
-     * <li>Four consecutive same-type checkers in horizontal.</li>
-     * <li>Four consecutive same-type checkers in vertical.</li>
-     * <li>Four consecutive same-type checkers in a positively sloped diagonal.</li>
-     * <li>Four consecutive same-type checkers in a negatively sloped diagonal.</li>
+     * <li>Enough consecutive same-type checkers in horizontal.</li>
+     * <li>Enough consecutive same-type checkers in vertical.</li>
+     * <li>Enough consecutive same-type checkers in a positively sloped diagonal.</li>
+     * <li>Enough consecutive same-type checkers in a negatively sloped diagonal.</li>
      * </ol>
      *
+     * <p>On a single-word board every direction is checked for the whole board at once by shifting
+     * the player's mask onto itself, doubling the length of the runs found with every shift. Larger
+     * boards check every checker of the player in turn, so the game loop should rely on the
+     * {@link MoveOutcome} of {@link #dropChecker(int, BoardCell)} instead.</p>
+     *
      * @param checker a {@link BoardCell} instance representing a checker (Must be either 'X' or 'O').
      * @return {@code true} if the player has reached a winning condition; Otherwise, {@code false}.
      */
@@ -141,43 +770,74 @@ public class Board {
             return false;
         }
 
-        // Check horizontal locations
-        for (int i = 0; i < ROW_CNT; i++) {
-            for (int j = 0; j < COLUMN_CNT - 3; j++) {
-                if (grid[i][j] == checker && grid[i][j + 1] == checker
-                        && grid[i][j + 2] == checker && grid[i][j + 3] == checker) {
-                    return true;
+        int index = maskIndex(checker);
+        if (wordCount == 1) {
+            long mask = masks[index];
+            for (int shift : directions) {
+                // Bits starting a run of `length` checkers
+                long runs = mask;
+                int length = 1;
+                while (runs != 0 && length < connectLength) {
+                    int step = Math.min(length, connectLength - length);
+                    runs = step * shift >= Long.SIZE ? 0 : runs & (runs >>> (step * shift));
+                    length += step;
                 }
-            }
-        }
-        // Check vertical locations
-        for (int i = 0; i < COLUMN_CNT; i++) {
-            for (int j = 0; j < ROW_CNT - 3; j++) {
-                if (grid[j][i] == checker && grid[j + 1][i] == checker
-                        && grid[j + 2][i] == checker && grid[j + 3][i] == checker) {
+                if (runs != 0) {
                     return true;
                 }
             }
+            return false;
         }
-        // Check positively sloped diagonals
-        for (int i = 0; i < ROW_CNT - 3; i++) {
-            for (int j = 0; j < COLUMN_CNT - 3; j++) {
-                if (grid[i][j] == checker && grid[i + 1][j + 1] == checker &&
-                        grid[i + 2][j + 2] == checker && grid[i + 3][j + 3] == checker) {
+
+        for (int i = 0; i < columnCount; i++) {
+            for (int j = 0; j < heights[i]; j++) {
+                if (isSet(index, i * columnHeight + j) && isWinningCell(index, i, j)) {
                     return true;
                 }
             }
         }
-        // Check negatively sloped diagonals
-        for (int i = 3; i < ROW_CNT; i++) {
-            for (int j = 0; j < COLUMN_CNT - 3; j++) {
-                if (grid[i][j] == checker && grid[i - 1][j + 1] == checker &&
-                        grid[i - 2][j + 2] == checker && grid[i - 3][j + 3] == checker) {
-                    return true;
+        return false;
+    }
+
+    /**
+     * Returns the status of the cell at the specified position.
+     *
+     * @param rowId    the index (0-indexed, top row first) of the row.
+     * @param columnId the index (0-indexed) of the column.
+     * @return a {@link BoardCell} instance representing the status of the cell.
+     * @throws IllegalArgumentException if the specified row or column ID is out of bounds.
+     */
+    public BoardCell getCell(int rowId, int columnId) {
+        validateRowId(rowId);
+        validateColumnId(columnId);
+        int position = columnId * columnHeight + (rowCount - 1 - rowId);
+        if (isSet(0, position)) {
+            return BoardCell.PLAYER_A;
+        } else if (isSet(1, position)) {
+            return BoardCell.PLAYER_B;
+        }
+        return BoardCell.EMPTY;
+    }
+
+    /**
+     * Returns a two-dimension {@link BoardCell} view of the game board, with the top row first.
+     *
+     * <p>The view is only built when it is requested, and is reused until the board changes. It
+     * must not be modified by the caller.</p>
+     *
+     * @return a {@link BoardCell} array of the game board, indexed by row and column.
+     */
+    public BoardCell[][] getGrid() {
+        if (grid == null) {
+            BoardCell[][] cells = new BoardCell[rowCount][columnCount];
+            for (int i = 0; i < rowCount; i++) {
+                for (int j = 0; j < columnCount; j++) {
+                    cells[i][j] = getCell(i, j);
                 }
             }
+            grid = cells;
         }
-        return false;
+        return grid;
     }
 
     /**
@@ -185,19 +845,28 @@ public class Board {
      * interface.
      */
     public void display() {
-        System.out.println("\n          [Current Game Board]");
-        for (int i = 0; i < ROW_CNT; i++) {
-            System.out.print("    " + (ROW_CNT - i) + " |");
-            for (int j = 0; j < COLUMN_CNT; j++) {
-                BoardCell cell = grid[i][j];
-                System.out.print(" " + cell.getStatus() + " |");
+        display(System.out);
+    }
+
+    /**
+     * Displays the current state of the game board to the specified output stream through a
+     * text-based user interface.
+     *
+     * @param out a {@link PrintStream} instance to write the board to.
+     */
+    public void display(PrintStream out) {
+        StringBuilder text = new StringBuilder("\n          [Current Game Board]\n");
+        for (int i = 0; i < rowCount; i++) {
+            text.append(String.format("%5d |", rowCount - i));
+            for (int j = 0; j < columnCount; j++) {
+                text.append(' ').append(getCell(i, j).getStatus()).append(" |");
             }
-            System.out.println();
+            text.append('\n');
         }
-        System.out.print("       ");
-        for (int i = 1; i <= COLUMN_CNT; i++) {
-            System.out.print(" " + i + "  ");
+        text.append("       ");
+        for (int i = 1; i <= columnCount; i++) {
+            text.append(String.format(" %-3d", i));
         }
-        System.out.println();
+        out.println(text);
     }
 }
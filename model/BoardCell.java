@@ -54,4 +54,19 @@ public enum BoardCell {
     public char getStatus() {
         return status;
     }
+
+    /**
+     * Returns the checker of the opposing player.
+     *
+     * @return {@link #PLAYER_B} for {@link #PLAYER_A}, {@link #PLAYER_A} for {@link #PLAYER_B},
+     *         and {@link #EMPTY} for {@link #EMPTY}.
+     */
+    public BoardCell getOpponent() {
+        if (this == PLAYER_A) {
+            return PLAYER_B;
+        } else if (this == PLAYER_B) {
+            return PLAYER_A;
+        }
+        return EMPTY;
+    }
 }
@@ -0,0 +1,58 @@
+package model;
+
+/**
+ * An enum class representing the outcome of dropping a checker on the game board.
+ *
+ * <p>The outcome of a drop can be divided into four types:</p>
+ * <ol>
+ * <li>INVALID, representing the checker could not be dropped and the board is unchanged.</li>
+ * <li>CONTINUE, representing the checker was dropped and the game goes on.</li>
+ * <li>WIN, representing the checker was dropped and completed a line of the board's
+ * connect length.</li>
+ * <li>DRAW, representing the checker was dropped in the last empty cell without a win.</li>
+ * </ol>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see Board#dropChecker(int, BoardCell)
+ */
+public enum MoveOutcome {
+
+    /**
+     * Represents the checker could not be dropped.
+     */
+    INVALID,
+
+    /**
+     * Represents the checker was dropped and the game continues.
+     */
+    CONTINUE,
+
+    /**
+     * Represents the checker was dropped and won the game.
+     */
+    WIN,
+
+    /**
+     * Represents the checker was dropped and the game ended in a draw.
+     */
+    DRAW;
+
+    /**
+     * Returns whether the checker was actually dropped on the board.
+     *
+     * @return {@code true} if the drop was successful; Otherwise, {@code false}.
+     */
+    public boolean isSuccessful() {
+        return this != INVALID;
+    }
+
+    /**
+     * Returns whether the drop ended the game.
+     *
+     * @return {@code true} if the drop won or drew the game; Otherwise, {@code false}.
+     */
+    public boolean isGameOver() {
+        return this == WIN || this == DRAW;
+    }
+}
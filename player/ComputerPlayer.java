@@ -1,41 +1,54 @@
 package player;
 
+import ai.MoveStrategy;
+import ai.RandomStrategy;
 import model.Board;
 import model.BoardCell;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
-
 /**
  * Represents a computer player in the Connect 4 game.
  *
- * <p>It currently uses random selections to determine the move.</p>
+ * <p>It delegates the choice of every move to a {@link MoveStrategy}, and uses random selections
+ * unless another strategy is specified.</p>
  *
  * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
  * @version 1.0
  * @see Player
+ * @see MoveStrategy
  */
 public class ComputerPlayer extends Player {
 
     /**
-     * A {@link Random} instance for randomly selecting the next column to drop the checker.
+     * A {@link MoveStrategy} instance for selecting the next column to drop the checker.
      */
-    private final Random random;
+    private final MoveStrategy strategy;
 
     /**
-     * Constructs a new {@link ComputerPlayer} instance with the specified name and checker type.
+     * Constructs a new {@link ComputerPlayer} instance with the specified name and checker type,
+     * which plays random moves.
      *
      * @param name    the name of the computer player.
      * @param checker a {@link BoardCell} instance representing the player's checker.
      */
     public ComputerPlayer(String name, BoardCell checker) {
+        this(name, checker, new RandomStrategy());
+    }
+
+    /**
+     * Constructs a new {@link ComputerPlayer} instance with the specified name, checker type and
+     * move strategy.
+     *
+     * @param name     the name of the computer player.
+     * @param checker  a {@link BoardCell} instance representing the player's checker.
+     * @param strategy a {@link MoveStrategy} instance for selecting the player's moves.
+     */
+    public ComputerPlayer(String name, BoardCell checker, MoveStrategy strategy) {
         super(name, checker);
-        random = new Random();
+        this.strategy = strategy;
     }
 
     /**
-     * Generates a random valid column number for the computer player's current move.
+     * Asks the player's strategy for a valid column number for the current move.
      *
      * @param board a {@link Board} instance representing the current state of the game board.
      * @return the validated column index (0-based) where the player wants to drop the checker.
@@ -44,20 +57,43 @@ public class ComputerPlayer extends Player {
      */
     @Override
     public int getMove(Board board) {
-        List<Integer> availableColumns = new ArrayList<>();
-        for (int i = 0; i < Board.COLUMN_CNT; i++) {
-            if (board.isValidDrop(i)) {
-                availableColumns.add(i);
-            }
-        }
-        if (availableColumns.isEmpty()) {
-            throw new IllegalStateException("No columns available for the computer player to " +
-                    "drop the checker.");
-        }
-        int columnId = availableColumns.get(random.nextInt(availableColumns.size()));
-        System.out.print("[" + name + " (" + checker.getStatus() + ") Drop " + dropCount + "] ");
-        System.out.println("Dropped a checker in column " + (columnId + 1) + ".");
+        int columnId = strategy.selectMove(board, checker);
         dropCount++;
         return columnId;
     }
+
+    /**
+     * Prepares the player for a new game, and stops any search of its strategy on the previous
+     * one.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        strategy.stopThinking();
+    }
+
+    /**
+     * Stops any search of the player's strategy in the background.
+     */
+    @Override
+    public void stopThinking() {
+        strategy.stopThinking();
+    }
+
+    /**
+     * Closes the player's strategy, releasing the threads it holds.
+     */
+    @Override
+    public void close() {
+        strategy.close();
+    }
+
+    /**
+     * Returns the {@link MoveStrategy} instance used by the player.
+     *
+     * @return the {@link MoveStrategy} instance used by the player.
+     */
+    public MoveStrategy getStrategy() {
+        return strategy;
+    }
 }
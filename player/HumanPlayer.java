@@ -18,9 +18,10 @@ import java.util.Scanner;
 public class HumanPlayer extends Player {
 
     /**
-     * A {@link Scanner} instance for reading the user input.
+     * The {@link Scanner} instance reading the user input, shared by all the human players, since
+     * they all read from the same standard input.
      */
-    private final Scanner scanner;
+    private static final Scanner SCANNER = new Scanner(System.in);
 
     /**
      * Constructs a new {@link HumanPlayer} instance with the specified name and checker type.
@@ -30,7 +31,18 @@ public class HumanPlayer extends Player {
      */
     public HumanPlayer(String name, BoardCell checker) {
         super(name, checker);
-        scanner = new Scanner(System.in);
+    }
+
+    /**
+     * Returns the {@link Scanner} instance reading the standard input for all the human players.
+     *
+     * <p>Any other console input of the game should be read through it too: a second scanner on
+     * the standard input would buffer lines meant for the players.</p>
+     *
+     * @return the shared {@link Scanner} instance of the standard input.
+     */
+    public static Scanner getInputScanner() {
+        return SCANNER;
     }
 
     /**
@@ -46,19 +58,17 @@ public class HumanPlayer extends Player {
         while (true) {
             try {
                 System.out.print("[" + name + " (" + checker.getStatus() + ") Drop " + dropCount + "] ");
-                System.out.print("Please choose a column (1~" + Board.COLUMN_CNT + ") to drop " +
-                        "your checker: ");
-                String input = scanner.nextLine();
+                System.out.print("Please choose a column (1~" + board.getColumnCount() +
+                        ") to drop your checker: ");
+                String input = SCANNER.nextLine();
                 columnId = Integer.parseInt(input) - 1;
-                if (columnId < 0 || columnId >= Board.COLUMN_CNT) {
+                if (columnId < 0 || columnId >= board.getColumnCount()) {
                     System.out.println("Invalid column number. Please choose a number between 1 " +
-                            "and " + Board.COLUMN_CNT + ".");
+                            "and " + board.getColumnCount() + ".");
                 } else if (!board.isValidDrop(columnId)) {
                     System.out.println("Column " + (columnId + 1) + " is already full. Please " +
                             "choose another column to drop your checker.");
                 } else {
-                    System.out.print("[" + name + " (" + checker.getStatus() + ") Drop " + dropCount + "] ");
-                    System.out.println("Dropped a checker in column " + (columnId + 1) + ".");
                     break;
                 }
             } catch (NumberFormatException e) {
@@ -3,6 +3,9 @@ package player;
 import model.Board;
 import model.BoardCell;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * An abstract class representing a player in the Connect 4 game.
  *
@@ -14,7 +17,7 @@ import model.BoardCell;
  * @see HumanPlayer
  * @see ComputerPlayer
  */
-public abstract class Player {
+public abstract class Player implements AutoCloseable {
 
     /**
      * The name of the player.
@@ -31,6 +34,12 @@ public abstract class Player {
      */
     protected int dropCount;
 
+    /**
+     * The last move requested through {@link #getMoveAsync(Board, Executor)}, which the next one
+     * waits for.
+     */
+    private CompletableFuture<Integer> pendingMove;
+
     /**
      * Constructs a new {@link Player} instance with the specified name and checker type.
      *
@@ -41,6 +50,7 @@ public abstract class Player {
         this.name = name;
         this.checker = checker;
         dropCount = 1;
+        pendingMove = CompletableFuture.completedFuture(-1);
     }
 
     /**
@@ -51,6 +61,51 @@ public abstract class Player {
      */
     public abstract int getMove(Board board);
 
+    /**
+     * Asks for the player's move on the specified executor, without blocking the caller.
+     *
+     * <p>The player thinks on its own copy of the board, so the caller may give up waiting, for
+     * example when the move takes too long, and go on with the game. Requests are served one at a
+     * time and in order: if a previous move is still being computed, the new one starts once it
+     * has finished, so a player is never asked for two moves at once. The returned future may be
+     * completed or cancelled by the caller without affecting that order.</p>
+     *
+     * @param board    a {@link Board} instance representing the current state of the game board.
+     * @param executor the {@link Executor} to compute the move on.
+     * @return a {@link CompletableFuture} of the index (0-based) of the column where the player
+     *         wants to drop the checker.
+     */
+    public synchronized CompletableFuture<Integer> getMoveAsync(Board board, Executor executor) {
+        Board snapshot = board.copy();
+        CompletableFuture<Integer> move = pendingMove.handle((previous, error) -> snapshot)
+                .thenApplyAsync(this::getMove, executor);
+        pendingMove = move;
+        return move.copy();
+    }
+
+    /**
+     * Prepares the player for a new game, so that it can be reused instead of creating a new one.
+     * Subclasses holding per-game state should clear it as well.
+     */
+    public void reset() {
+        dropCount = 1;
+    }
+
+    /**
+     * Stops any thinking the player does in the background, such as searching on the opponent's
+     * time, once the game is over. It does nothing by default.
+     */
+    public void stopThinking() {
+    }
+
+    /**
+     * Releases the threads and other resources held by the player once it is no longer used, such
+     * as the search workers of its strategy. It does nothing by default.
+     */
+    @Override
+    public void close() {
+    }
+
     /**
      * Returns the name of the player.
      *
@@ -69,6 +124,25 @@ public abstract class Player {
         return checker;
     }
 
+    /**
+     * Returns the number of the player's next drop, starting from {@code 1}.
+     *
+     * @return the number of the player's next drop.
+     */
+    public int getDropCount() {
+        return dropCount;
+    }
+
+    /**
+     * Sets the checker of the player, for example when a reused player changes sides between two
+     * games.
+     *
+     * @param checker the {@link BoardCell} instance representing the player's checker.
+     */
+    public void setChecker(BoardCell checker) {
+        this.checker = checker;
+    }
+
     /**
      * Sets the name of the player.
      *
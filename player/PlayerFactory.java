@@ -1,8 +1,21 @@
 package player;
 
+import ai.EvaluationNetwork;
+import ai.MonteCarloTreeSearchStrategy;
+import ai.NegamaxStrategy;
+import ai.NeuralNetworkStrategy;
+import ai.PonderingStrategy;
+import ai.RandomStrategy;
+import ai.Solver;
+import ai.SolverStrategy;
+import ai.TranspositionTable;
 import model.BoardCell;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.Scanner;
+import java.util.function.Function;
 
 /**
  * A factory class for creating players in the Connect 4 game.
@@ -20,7 +33,7 @@ import java.util.Scanner;
  * <p><b>Example usage:</b></p>
  * <pre>
  * {@code
- *     Scanner scanner = new Scanner(System.in);
+ *     Scanner scanner = HumanPlayer.getInputScanner();
  *     
  *     // Input names for Player 1 and Player 2
  *     String name1 = PlayerFactory.inputPlayerName(scanner, 1);
@@ -33,6 +46,23 @@ import java.util.Scanner;
  * </pre>
  */
 public class PlayerFactory {
+
+    /**
+     * The search depth of the strategy playing the opening for a solver player. (Default: {@value})
+     */
+    private static final int SOLVER_FALLBACK_DEPTH = 10;
+
+    /**
+     * The size of the transposition table of a solver player in megabytes, unless the description
+     * gives one. (Default: {@value})
+     */
+    private static final int SOLVER_TABLE_MEGABYTES = 16;
+
+    /**
+     * The size of the transposition table of a pondering player in megabytes, unless the
+     * description gives one. (Default: {@value})
+     */
+    private static final int PONDER_TABLE_MEGABYTES = 16;
     
     /**
      * Prompts the user to input a valid player name.
@@ -83,4 +113,79 @@ public class PlayerFactory {
             }
         }
     }
+
+    /**
+     * Creates a factory of computer players from a description of their strategy.
+     * <p>
+     * The description is {@code random}, {@code negamax:<depth>[:heuristic]},
+     * {@code ponder:<depth>[:heuristic][:<tableMB>]}, {@code mcts:<millis>[:<threads>]},
+     * {@code solver:<emptyCells>[:<threads>[:<tableMB>]]} or {@code network:<file>}; a pondering
+     * player searches like a negamax player, and keeps searching on the opponent's time with a
+     * {@value #PONDER_TABLE_MEGABYTES} MB table unless another size is given, a solver player
+     * searches {@value #SOLVER_FALLBACK_DEPTH} plies ahead until few enough cells are empty, with a
+     * {@value #SOLVER_TABLE_MEGABYTES} MB table unless another size is given, and a network player
+     * loads its {@link EvaluationNetwork} from the file once, to share it between all its players.
+     * Every call of the returned factory creates a fresh player with its own strategy, so that no
+     * search state is shared between threads; a player may be reset and reused for many games, and
+     * must be closed with {@link Player#close()} once it is no longer used, to stop the threads of
+     * its strategy.
+     * </p>
+     *
+     * @param name        the name of the players to be created.
+     * @param description the description of the strategy of the players.
+     * @return a factory creating a fresh player for the specified checker.
+     * @throws IllegalArgumentException if the description is not recognized, or the network file
+     *                                  is not a valid network file.
+     * @throws UncheckedIOException     if the network file cannot be read.
+     */
+    public static Function<BoardCell, Player> parseComputerPlayer(String name, String description) {
+        String[] parts = description.trim().toLowerCase().split(":");
+        if (parts[0].equals("random") && parts.length == 1) {
+            return checker -> new ComputerPlayer(name, checker, new RandomStrategy());
+        } else if (parts[0].equals("negamax") && (parts.length == 2
+                || (parts.length == 3 && parts[2].equals("heuristic")))) {
+            int depth = Integer.parseInt(parts[1]);
+            boolean heuristic = parts.length == 3;
+            return checker -> new ComputerPlayer(name, checker,
+                    new NegamaxStrategy(depth, 0, null, heuristic));
+        } else if (parts[0].equals("ponder") && parts.length >= 2 && parts.length <= 4
+                && (parts.length < 4 || parts[2].equals("heuristic"))) {
+            int depth = Integer.parseInt(parts[1]);
+            boolean heuristic = parts.length > 2 && parts[2].equals("heuristic");
+            int tableMegabytes = parts.length > (heuristic ? 3 : 2)
+                    ? Integer.parseInt(parts[parts.length - 1]) : PONDER_TABLE_MEGABYTES;
+            return checker -> new ComputerPlayer(name, checker, new PonderingStrategy(depth, 0,
+                    new TranspositionTable(tableMegabytes), heuristic));
+        } else if (parts[0].equals("mcts") && (parts.length == 2 || parts.length == 3)) {
+            long millis = Long.parseLong(parts[1]);
+            int threads = parts.length == 3 ? Integer.parseInt(parts[2]) : 1;
+            return checker -> new ComputerPlayer(name, checker,
+                    new MonteCarloTreeSearchStrategy(millis, threads));
+        } else if (parts[0].equals("solver") && parts.length >= 2 && parts.length <= 4) {
+            int emptyCells = Integer.parseInt(parts[1]);
+            int threads = parts.length >= 3 ? Integer.parseInt(parts[2]) : 1;
+            int tableMegabytes = parts.length == 4 ? Integer.parseInt(parts[3])
+                    : SOLVER_TABLE_MEGABYTES;
+            return checker -> {
+                Solver solver = new Solver(threads, new TranspositionTable(tableMegabytes));
+                return new ComputerPlayer(name, checker, new SolverStrategy(solver,
+                        new NegamaxStrategy(SOLVER_FALLBACK_DEPTH, 0, solver.getTable()),
+                        emptyCells));
+            };
+        } else if (parts[0].equals("network") && parts.length >= 2) {
+            // Keep the case and any colons of the file name
+            Path file = Path.of(description.trim().substring("network:".length()));
+            EvaluationNetwork network;
+            try {
+                network = EvaluationNetwork.load(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to load the network " + file + ".", e);
+            }
+            return checker -> new ComputerPlayer(name, checker, new NeuralNetworkStrategy(network));
+        }
+        throw new IllegalArgumentException("Invalid computer player: " + description +
+                ". Must be 'random', 'negamax:<depth>[:heuristic]', " +
+                "'ponder:<depth>[:heuristic][:<tableMB>]', 'mcts:<millis>[:<threads>]', " +
+                "'solver:<emptyCells>[:<threads>[:<tableMB>]]' or 'network:<file>'.");
+    }
 }
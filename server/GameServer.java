@@ -0,0 +1,563 @@
+package server;
+
+import metrics.EngineMetrics;
+import model.BoardCell;
+import player.Player;
+import player.PlayerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A server hosting many Connect 4 games at once, each played by a remote client against a computer
+ * player over a line-based TCP protocol.
+ *
+ * <p>All the connections are multiplexed by a single selector thread with non-blocking NIO, so an
+ * idle or thinking client does not hold a thread. The commands of the clients are handled on a
+ * fixed pool of worker threads, where the computer players also search their replies; every
+ * connection is a {@link GameSession} with its own game and its own computer player. The computer
+ * players of finished games are pooled and reset for later games instead of being created anew,
+ * which matters at high game rates and for players with large search tables. The pool holds at
+ * most one idle player per worker thread, so in the worst case it keeps the worker count times the
+ * memory of one player, such as 8 x 16 MB of tables for 8 workers and {@code ponder:} or
+ * {@code solver:} players with the default table size. Players beyond the pool size, and the
+ * pooled players once the server is closed, are closed to release the threads of their
+ * strategies.</p>
+ *
+ * <p>The protocol is made of ASCII lines. Columns are 1-indexed, and {@code X} always moves
+ * first.</p>
+ * <pre>
+ *     Client                            Server
+ *                                       HELLO connect4 1
+ *     NEW [X|O] [rows columns connect]
+ *                                       GAME rows columns connect X|O
+ *                                       PLAYED X|O column     (for every move made)
+ *                                       TURN                  (when the client is to move)
+ *     MOVE column
+ *                                       INVALID column        (followed by TURN)
+ *                                       WIN X|O | DRAW        (at the end of the game)
+ *     QUIT
+ *                                       BYE
+ * </pre>
+ * <p>Malformed commands, and boards with more cells than the server allows, are answered with
+ * {@code ERROR message}. A client that sends nothing for longer than the idle timeout receives
+ * {@code TIMEOUT} and is disconnected.</p>
+ *
+ * <p>Usage: {@code java server.GameServer [port] [opponent] [workers] [idleSeconds] [maxCells]},
+ * where the opponent is described as in
+ * {@link PlayerFactory#parseComputerPlayer(String, String)}. With
+ * {@code -Dconnect4.metrics=true}, the {@link EngineMetrics} are printed along with the session
+ * count.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     // Serve games against a depth-6 negamax player on the default port:
+ *     java server.GameServer 4444 negamax:6
+ *
+ *     // Then, for example:
+ *     java client.LoadGeneratorClient localhost 4444 1000
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see GameSession
+ * @see client.LoadGeneratorClient
+ */
+public class GameServer implements AutoCloseable {
+
+    /**
+     * The default port of the server. (Default: {@value})
+     */
+    public static final int DEFAULT_PORT = 4444;
+
+    /**
+     * The default time after which a silent client is disconnected, in milliseconds.
+     * (Default: {@value})
+     */
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 60_000;
+
+    /**
+     * The default maximum number of sessions at once. (Default: {@value})
+     */
+    public static final int DEFAULT_MAX_SESSIONS = 10_000;
+
+    /**
+     * The default maximum number of cells of the board of a game, such as 10 rows by 10 columns.
+     * (Default: {@value})
+     */
+    public static final int DEFAULT_MAX_CELLS = 100;
+
+    /**
+     * The greeting sent to every new client.
+     */
+    private static final String GREETING = "HELLO connect4 1";
+
+    /**
+     * The longest time the selector thread waits for an event, in milliseconds, so that idle
+     * sessions are checked regularly. (Default: {@value})
+     */
+    private static final long SELECT_TIMEOUT_MILLIS = 250;
+
+    /**
+     * The factory creating the computer players, which are reused from game to game.
+     */
+    private final Function<BoardCell, Player> opponent;
+
+    /**
+     * The computer players of finished games, waiting to be reused by the next games.
+     */
+    private final Queue<Player> idleOpponents;
+
+    /**
+     * The number of players in {@link #idleOpponents}.
+     */
+    private final AtomicInteger idleOpponentCount;
+
+    /**
+     * The largest number of idle computer players kept for reuse, which is the number of worker
+     * threads, since at most that many games can be started at once.
+     */
+    private final int maxIdleOpponents;
+
+    /**
+     * The time after which a silent client is disconnected, in nanoseconds.
+     */
+    private final long idleTimeoutNanos;
+
+    /**
+     * The maximum number of sessions at once.
+     */
+    private final int maxSessions;
+
+    /**
+     * The maximum number of cells of the board of a game.
+     */
+    private final int maxCells;
+
+    /**
+     * The worker threads handling the commands of the clients.
+     */
+    private final ExecutorService workers;
+
+    /**
+     * The sessions with new lines to be written, waiting for the selector thread.
+     */
+    private final Queue<GameSession> pendingWrites;
+
+    /**
+     * The number of open sessions.
+     */
+    private final AtomicInteger sessionCount;
+
+    /**
+     * The number of moves played by the clients.
+     */
+    private final LongAdder moveCount;
+
+    /**
+     * The selector multiplexing all the connections, or {@code null} before the server starts.
+     */
+    private Selector selector;
+
+    /**
+     * The listening channel, or {@code null} before the server starts.
+     */
+    private ServerSocketChannel serverChannel;
+
+    /**
+     * The thread running the selector loop, or {@code null} before the server starts.
+     */
+    private Thread selectorThread;
+
+    /**
+     * Whether the server is running.
+     */
+    private volatile boolean running;
+
+    /**
+     * Constructs a new {@link GameServer} instance.
+     *
+     * @param opponent          a factory creating the computer player of every session for the
+     *                          specified checker.
+     * @param workerThreads     the number of worker threads handling the commands of the clients,
+     *                          which is also the number of idle computer players kept for reuse.
+     * @param idleTimeoutMillis the time after which a silent client is disconnected, in
+     *                          milliseconds.
+     * @param maxSessions       the maximum number of sessions at once.
+     * @param maxCells          the maximum number of cells of the board of a game, which bounds
+     *                          the memory and search time a client can make a session use.
+     * @throws IllegalArgumentException if any of the numbers is not positive.
+     */
+    public GameServer(Function<BoardCell, Player> opponent, int workerThreads,
+                      long idleTimeoutMillis, int maxSessions, int maxCells) {
+        if (workerThreads <= 0) {
+            throw new IllegalArgumentException("Invalid thread count: " + workerThreads +
+                    ". Must be positive.");
+        }
+        if (idleTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Invalid idle timeout: " + idleTimeoutMillis +
+                    ". Must be positive.");
+        }
+        if (maxSessions <= 0) {
+            throw new IllegalArgumentException("Invalid session limit: " + maxSessions +
+                    ". Must be positive.");
+        }
+        if (maxCells <= 0) {
+            throw new IllegalArgumentException("Invalid cell limit: " + maxCells +
+                    ". Must be positive.");
+        }
+        this.opponent = opponent;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.maxSessions = maxSessions;
+        this.maxCells = maxCells;
+        workers = Executors.newFixedThreadPool(workerThreads);
+        pendingWrites = new ConcurrentLinkedQueue<>();
+        idleOpponents = new ConcurrentLinkedQueue<>();
+        idleOpponentCount = new AtomicInteger();
+        maxIdleOpponents = workerThreads;
+        sessionCount = new AtomicInteger();
+        moveCount = new LongAdder();
+    }
+
+    /**
+     * Starts listening on the specified port, and serving clients on a new thread.
+     *
+     * @param port the port to listen on, or {@code 0} for any free port.
+     * @return the port the server listens on.
+     * @throws IOException           if the port cannot be bound.
+     * @throws IllegalStateException if the server has already been started.
+     */
+    public int start(int port) throws IOException {
+        if (selectorThread != null) {
+            throw new IllegalStateException("The server has already been started.");
+        }
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+        selectorThread = new Thread(this::runSelector, "game-server-selector");
+        selectorThread.start();
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Stops the server and disconnects all the clients.
+     */
+    @Override
+    public void close() {
+        running = false;
+        if (selectorThread != null) {
+            selector.wakeup();
+            try {
+                selectorThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        workers.shutdownNow();
+        for (Player player = idleOpponents.poll(); player != null; player = idleOpponents.poll()) {
+            idleOpponentCount.decrementAndGet();
+            player.close();
+        }
+    }
+
+    /**
+     * Returns the number of open sessions.
+     *
+     * @return the number of connected clients.
+     */
+    public int getSessionCount() {
+        return sessionCount.get();
+    }
+
+    /**
+     * Returns the number of moves played by the clients since the server started.
+     *
+     * @return the number of valid moves received.
+     */
+    public long getMoveCount() {
+        return moveCount.sum();
+    }
+
+    /**
+     * Returns the maximum number of cells of the board of a game.
+     *
+     * @return the largest product of rows and columns a client may ask for.
+     */
+    public int getMaxCells() {
+        return maxCells;
+    }
+
+    /**
+     * Returns the computer player of a new game: an idle player reset for the game if there is
+     * one, or a new player otherwise.
+     *
+     * @param checker the checker of the computer player.
+     * @return a {@link Player} instance ready for a new game.
+     */
+    Player acquireOpponent(BoardCell checker) {
+        Player player = idleOpponents.poll();
+        if (player == null) {
+            return opponent.apply(checker);
+        }
+        idleOpponentCount.decrementAndGet();
+        player.setChecker(checker);
+        player.reset();
+        return player;
+    }
+
+    /**
+     * Takes back the computer player of a finished or abandoned game, to be reused by a later
+     * game, and stops its thinking on that game. Once there is an idle player per worker thread,
+     * it is closed instead, since the threads of its strategy and its tables would otherwise be
+     * kept forever.
+     *
+     * @param player the {@link Player} instance no longer playing.
+     */
+    void releaseOpponent(Player player) {
+        player.stopThinking();
+        if (idleOpponentCount.incrementAndGet() <= maxIdleOpponents) {
+            idleOpponents.add(player);
+        } else {
+            idleOpponentCount.decrementAndGet();
+            player.close();
+        }
+    }
+
+    /**
+     * Counts a move played by a client.
+     */
+    void recordMove() {
+        moveCount.increment();
+    }
+
+    /**
+     * Runs the specified task of a session on a worker thread.
+     *
+     * @param task the task to be run.
+     */
+    void execute(Runnable task) {
+        workers.execute(task);
+    }
+
+    /**
+     * Asks the selector thread to write the pending lines of the specified session.
+     *
+     * @param session the {@link GameSession} instance with lines to be written.
+     */
+    void requestWrite(GameSession session) {
+        pendingWrites.add(session);
+        selector.wakeup();
+    }
+
+    /**
+     * Runs the selector loop until the server is closed.
+     */
+    private void runSelector() {
+        long nextIdleCheck = System.nanoTime() + idleTimeoutNanos;
+        try {
+            while (running) {
+                selector.select(SELECT_TIMEOUT_MILLIS);
+                for (GameSession session = pendingWrites.poll(); session != null;
+                     session = pendingWrites.poll()) {
+                    flush(session);
+                }
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    GameSession session = (GameSession) key.attachment();
+                    try {
+                        if (key.isReadable() && !session.read()) {
+                            closeSession(session);
+                            continue;
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            flush(session);
+                        }
+                    } catch (IOException e) {
+                        closeSession(session);
+                    }
+                }
+
+                long now = System.nanoTime();
+                if (now >= nextIdleCheck) {
+                    closeIdleSessions(now);
+                    nextIdleCheck = now + Math.min(idleTimeoutNanos, TimeUnit.SECONDS.toNanos(1));
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("The game server stopped: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof GameSession) {
+                    closeSession((GameSession) key.attachment());
+                }
+            }
+            try {
+                serverChannel.close();
+                selector.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+        }
+    }
+
+    /**
+     * Accepts all the pending connections, and greets the new clients.
+     *
+     * @throws IOException if the listening channel fails.
+     */
+    private void accept() throws IOException {
+        for (SocketChannel channel = serverChannel.accept(); channel != null;
+             channel = serverChannel.accept()) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            if (sessionCount.get() >= maxSessions) {
+                channel.write(ByteBuffer.wrap("ERROR Server is full.\n"
+                        .getBytes(StandardCharsets.US_ASCII)));
+                channel.close();
+                continue;
+            }
+            GameSession session = new GameSession(this, channel);
+            session.setKey(channel.register(selector, SelectionKey.OP_READ, session));
+            sessionCount.incrementAndGet();
+            session.send(GREETING);
+            flush(session);
+        }
+    }
+
+    /**
+     * Writes the pending lines of the specified session, and watches the channel for writability
+     * while some of them do not fit. Closes the session once everything is written if it is
+     * closing.
+     *
+     * @param session the {@link GameSession} instance to be flushed.
+     */
+    private void flush(GameSession session) {
+        SelectionKey key = session.getKey();
+        if (!key.isValid()) {
+            return;
+        }
+        try {
+            if (session.write()) {
+                if (session.isCloseAfterFlush()) {
+                    closeSession(session);
+                } else {
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+            } else {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        } catch (IOException e) {
+            closeSession(session);
+        }
+    }
+
+    /**
+     * Tells the clients that have been silent for too long that they timed out, and disconnects
+     * them.
+     *
+     * @param now the current {@link System#nanoTime()}.
+     */
+    private void closeIdleSessions(long now) {
+        for (SelectionKey key : selector.keys()) {
+            if (key.isValid() && key.attachment() instanceof GameSession) {
+                GameSession session = (GameSession) key.attachment();
+                if (now - session.getLastActivityNanos() > idleTimeoutNanos) {
+                    session.send("TIMEOUT");
+                    try {
+                        session.write();
+                    } catch (IOException e) {
+                        // The session is closed below anyway
+                    }
+                    closeSession(session);
+                }
+            }
+        }
+    }
+
+    /**
+     * Disconnects the client of the specified session.
+     *
+     * @param session the {@link GameSession} instance to be closed.
+     */
+    private void closeSession(GameSession session) {
+        SelectionKey key = session.getKey();
+        if (!key.isValid()) {
+            return;
+        }
+        key.cancel();
+        session.markClosed();
+        sessionCount.decrementAndGet();
+        try {
+            session.getChannel().close();
+        } catch (IOException e) {
+            // The connection is gone either way
+        }
+    }
+
+    /**
+     * The main entry point of the game server.
+     *
+     * @param args the optional port, opponent description, number of worker threads, idle
+     *             timeout in seconds and maximum number of cells of a board.
+     * @throws IOException          if the port cannot be bound.
+     * @throws InterruptedException if the main thread is interrupted.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        String opponent = args.length > 1 ? args[1] : "random";
+        int workerThreads = args.length > 2 ? Integer.parseInt(args[2])
+                : Runtime.getRuntime().availableProcessors();
+        long idleTimeoutMillis = args.length > 3 ? Long.parseLong(args[3]) * 1000
+                : DEFAULT_IDLE_TIMEOUT_MILLIS;
+        int maxCells = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_MAX_CELLS;
+
+        GameServer server = new GameServer(PlayerFactory.parseComputerPlayer("Server", opponent),
+                workerThreads, idleTimeoutMillis, DEFAULT_MAX_SESSIONS, maxCells);
+        int boundPort = server.start(port);
+        System.out.println("Serving games against " + opponent + " on port " + boundPort +
+                " with " + workerThreads + " workers...");
+
+        long lastMoves = 0;
+        while (true) {
+            Thread.sleep(10_000);
+            long moves = server.getMoveCount();
+            System.out.printf("Sessions: %,d  Moves: %,d (%,.0f moves/s)%n",
+                    server.getSessionCount(), moves, (moves - lastMoves) / 10.0);
+            lastMoves = moves;
+            if (EngineMetrics.ENABLED) {
+                System.out.print(EngineMetrics.snapshot());
+            }
+        }
+    }
+}
@@ -0,0 +1,485 @@
+package server;
+
+import game.Connect4Game;
+import metrics.EngineMetrics;
+import model.Board;
+import model.BoardCell;
+import player.Player;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Represents the connection of a single client to the {@link GameServer}, and the game it plays.
+ *
+ * <p>Reading and writing happen on the selector thread of the server, while the commands of the
+ * client are handled on the worker pool. Every session processes its commands one at a time and
+ * in order, so its game state is never touched by two threads at once, but different sessions run
+ * in parallel. Nothing is shared between sessions except the server itself.</p>
+ *
+ * <p>The memory held by a session is bounded: commands longer than {@value #MAX_LINE_LENGTH} bytes
+ * are rejected, boards larger than {@link GameServer#getMaxCells()} are refused, a client that
+ * stops reading is disconnected once {@value #MAX_PENDING_BYTES} bytes are waiting to be sent,
+ * and the game is released as soon as it is over. An idle session therefore only keeps its small
+ * read buffer.</p>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see GameServer
+ */
+public class GameSession {
+
+    /**
+     * The maximum length of a command in bytes, including the line terminator. (Default: {@value})
+     */
+    static final int MAX_LINE_LENGTH = 128;
+
+    /**
+     * The maximum number of bytes waiting to be sent to the client. (Default: {@value})
+     */
+    static final int MAX_PENDING_BYTES = 16 * 1024;
+
+    /**
+     * The {@link GameServer} instance hosting the session.
+     */
+    private final GameServer server;
+
+    /**
+     * The {@link SocketChannel} instance connected to the client.
+     */
+    private final SocketChannel channel;
+
+    /**
+     * The bytes received from the client that do not form a complete command yet.
+     */
+    private final ByteBuffer readBuffer;
+
+    /**
+     * The commands received from the client and not handled yet.
+     */
+    private final Queue<String> inbox;
+
+    /**
+     * Whether the session is waiting for, or running on, a worker thread.
+     */
+    private final AtomicBoolean scheduled;
+
+    /**
+     * The lines waiting to be sent to the client, guarded by itself.
+     */
+    private final Queue<ByteBuffer> outbox;
+
+    /**
+     * The number of bytes in {@link #outbox}, guarded by {@link #outbox}.
+     */
+    private int pendingBytes;
+
+    /**
+     * The selection key of the channel, or {@code null} before it is registered.
+     */
+    private SelectionKey key;
+
+    /**
+     * The {@link System#nanoTime()} of the last command received or line sent.
+     */
+    private volatile long lastActivityNanos;
+
+    /**
+     * Whether the session is to be closed once all the pending lines have been sent.
+     */
+    private volatile boolean closeAfterFlush;
+
+    /**
+     * Whether the session has been closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Whether there is a game in progress, readable outside the worker threads.
+     */
+    private volatile boolean playing;
+
+    /**
+     * The game in progress, or {@code null} if there is none. Only used on worker threads.
+     */
+    private Connect4Game game;
+
+    /**
+     * The player standing for the client, reused for every game, or {@code null} before the first
+     * one. Only used on worker threads.
+     */
+    private NetworkPlayer client;
+
+    /**
+     * The computer player of the game in progress, borrowed from the server. Only used on worker
+     * threads.
+     */
+    private Player opponent;
+
+    /**
+     * The number of columns of the board of the game in progress. Only used on worker threads.
+     */
+    private int columnCount;
+
+    /**
+     * Constructs a new {@link GameSession} instance for the specified connection.
+     *
+     * @param server  the {@link GameServer} instance hosting the session.
+     * @param channel the {@link SocketChannel} instance connected to the client.
+     */
+    GameSession(GameServer server, SocketChannel channel) {
+        this.server = server;
+        this.channel = channel;
+        readBuffer = ByteBuffer.allocate(MAX_LINE_LENGTH);
+        inbox = new ConcurrentLinkedQueue<>();
+        scheduled = new AtomicBoolean();
+        outbox = new ArrayDeque<>();
+        lastActivityNanos = System.nanoTime();
+    }
+
+    /**
+     * Sets the selection key of the channel.
+     *
+     * @param key the {@link SelectionKey} of the registered channel.
+     */
+    void setKey(SelectionKey key) {
+        this.key = key;
+    }
+
+    /**
+     * Returns the selection key of the channel.
+     *
+     * @return the {@link SelectionKey} of the registered channel.
+     */
+    SelectionKey getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the channel connected to the client.
+     *
+     * @return the {@link SocketChannel} instance connected to the client.
+     */
+    SocketChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Returns the time of the last activity of the session.
+     *
+     * @return the {@link System#nanoTime()} of the last command received or line sent.
+     */
+    long getLastActivityNanos() {
+        return lastActivityNanos;
+    }
+
+    /**
+     * Returns whether the session is to be closed once all the pending lines have been sent.
+     *
+     * @return {@code true} if the session is closing; Otherwise, {@code false}.
+     */
+    boolean isCloseAfterFlush() {
+        return closeAfterFlush;
+    }
+
+    /**
+     * Marks the session as closed, so that no more lines are queued or commands handled.
+     */
+    void markClosed() {
+        closed = true;
+        closeAfterFlush = true;
+        inbox.clear();
+        synchronized (outbox) {
+            outbox.clear();
+            pendingBytes = 0;
+        }
+        // Let a worker release the game in progress, unless one is running already
+        if (playing && scheduled.compareAndSet(false, true)) {
+            server.execute(this::drain);
+        }
+    }
+
+    /**
+     * Queues a line to be sent to the client. It is written by the selector thread, after the
+     * current command has been handled.
+     *
+     * <p>If the client does not read fast enough and too many bytes are already waiting, the line
+     * is dropped and the session is closed.</p>
+     *
+     * @param line the line to be sent, without the line terminator.
+     */
+    public void send(String line) {
+        byte[] bytes = (line + "\n").getBytes(StandardCharsets.US_ASCII);
+        synchronized (outbox) {
+            if (closed || closeAfterFlush) {
+                return;
+            }
+            if (pendingBytes + bytes.length > MAX_PENDING_BYTES) {
+                outbox.clear();
+                pendingBytes = 0;
+                closeAfterFlush = true;
+                return;
+            }
+            outbox.add(ByteBuffer.wrap(bytes));
+            pendingBytes += bytes.length;
+        }
+        lastActivityNanos = System.nanoTime();
+    }
+
+    /**
+     * Returns whether there are lines waiting to be sent to the client.
+     *
+     * @return {@code true} if there are lines waiting; Otherwise, {@code false}.
+     */
+    boolean hasPendingOutput() {
+        synchronized (outbox) {
+            return !outbox.isEmpty();
+        }
+    }
+
+    /**
+     * Writes as many pending lines as the channel accepts without blocking. Only called on the
+     * selector thread.
+     *
+     * @return {@code true} if every pending line has been written; Otherwise, {@code false}.
+     * @throws IOException if the channel cannot be written.
+     */
+    boolean write() throws IOException {
+        synchronized (outbox) {
+            while (!outbox.isEmpty()) {
+                ByteBuffer buffer = outbox.peek();
+                channel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    return false;
+                }
+                pendingBytes -= buffer.capacity();
+                outbox.poll();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Reads the bytes available from the channel, and schedules every complete command for a
+     * worker thread. Only called on the selector thread.
+     *
+     * @return {@code false} if the client has closed the connection or sent an overlong command;
+     *         Otherwise, {@code true}.
+     * @throws IOException if the channel cannot be read.
+     */
+    boolean read() throws IOException {
+        if (channel.read(readBuffer) < 0) {
+            return false;
+        }
+        readBuffer.flip();
+        int start = 0;
+        for (int i = 0; i < readBuffer.limit(); i++) {
+            if (readBuffer.get(i) == '\n') {
+                int end = i > start && readBuffer.get(i - 1) == '\r' ? i - 1 : i;
+                byte[] line = new byte[end - start];
+                readBuffer.get(start, line);
+                inbox.add(new String(line, StandardCharsets.US_ASCII));
+                start = i + 1;
+            }
+        }
+        readBuffer.position(start);
+        readBuffer.compact();
+        if (!readBuffer.hasRemaining()) {
+            return false;
+        }
+        if (start > 0) {
+            lastActivityNanos = System.nanoTime();
+            if (scheduled.compareAndSet(false, true)) {
+                server.execute(this::drain);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Handles the queued commands in order, and gives up the game in progress once the session is
+     * closing, then asks the server to send the replies. Runs on a worker thread.
+     */
+    private void drain() {
+        try {
+            do {
+                // Give the session back even if a command fails, or it would never run again
+                try {
+                    for (String line = inbox.poll(); line != null; line = inbox.poll()) {
+                        if (!closeAfterFlush) {
+                            handle(line);
+                        }
+                    }
+                    if (closeAfterFlush) {
+                        abandonGame();
+                    }
+                } finally {
+                    scheduled.set(false);
+                }
+            } while ((!inbox.isEmpty() || closeAfterFlush && playing)
+                    && scheduled.compareAndSet(false, true));
+        } finally {
+            server.requestWrite(this);
+        }
+    }
+
+    /**
+     * Handles a single command of the client.
+     *
+     * @param line the command, without the line terminator.
+     */
+    private void handle(String line) {
+        String[] parts = line.trim().split("\\s+");
+        try {
+            switch (parts[0].toUpperCase()) {
+                case "NEW":
+                    startGame(parts);
+                    break;
+                case "MOVE":
+                    makeMove(parts);
+                    break;
+                case "QUIT":
+                    send("BYE");
+                    closeAfterFlush = true;
+                    break;
+                default:
+                    send("ERROR Unknown command: " + parts[0]);
+                    break;
+            }
+        } catch (NumberFormatException e) {
+            send("ERROR Invalid number in command: " + line.trim());
+        } catch (IllegalArgumentException e) {
+            send("ERROR " + e.getMessage());
+        } catch (RuntimeException e) {
+            // A failing strategy or game must not take the session down with it
+            System.err.println("Failed to handle the command '" + line.trim() + "': " + e);
+            send("ERROR Internal error: " + e.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Handles {@code NEW [X|O] [rows columns connect]}: starts a new game against the server, with
+     * the client playing the specified checker. {@code X} always moves first.
+     *
+     * @param parts the words of the command.
+     * @throws IllegalArgumentException if the checker or the dimensions are invalid, or the board
+     *                                  has more cells than the server allows.
+     */
+    private void startGame(String[] parts) {
+        if (parts.length != 1 && parts.length != 2 && parts.length != 5) {
+            throw new IllegalArgumentException("Usage: NEW [X|O] [rows columns connect]");
+        }
+        BoardCell checker = BoardCell.PLAYER_A;
+        if (parts.length > 1) {
+            if (parts[1].equalsIgnoreCase("O")) {
+                checker = BoardCell.PLAYER_B;
+            } else if (!parts[1].equalsIgnoreCase("X")) {
+                throw new IllegalArgumentException("Invalid checker: " + parts[1] +
+                        ". Must be 'X' or 'O'.");
+            }
+        }
+        int rows = parts.length == 5 ? Integer.parseInt(parts[2]) : Board.ROW_CNT;
+        int columns = parts.length == 5 ? Integer.parseInt(parts[3]) : Board.COLUMN_CNT;
+        int connectLength = parts.length == 5 ? Integer.parseInt(parts[4]) : Board.CONNECT_LENGTH;
+        if ((long) rows * columns > server.getMaxCells()) {
+            throw new IllegalArgumentException("Invalid board: " + rows + "x" + columns +
+                    ". Must have at most " + server.getMaxCells() + " cells.");
+        }
+
+        // Keep the game in progress if the new one cannot be created
+        Player newOpponent = server.acquireOpponent(checker.getOpponent());
+        NetworkPlayer player = client == null ? new NetworkPlayer("Client", checker) : client;
+        Player playerA = checker == BoardCell.PLAYER_A ? player : newOpponent;
+        Player playerB = checker == BoardCell.PLAYER_A ? newOpponent : player;
+        Connect4Game newGame;
+        try {
+            newGame = new Connect4Game(playerA, playerB, rows, columns, connectLength,
+                    new ProtocolGameListener(this));
+        } catch (IllegalArgumentException e) {
+            server.releaseOpponent(newOpponent);
+            throw e;
+        }
+        abandonGame();
+        player.setChecker(checker);
+        player.reset();
+        client = player;
+        opponent = newOpponent;
+        game = newGame;
+        playing = true;
+        columnCount = columns;
+        send("GAME " + rows + " " + columns + " " + connectLength + " " + checker.getStatus());
+        advance();
+    }
+
+    /**
+     * Handles {@code MOVE <column>}: plays the move of the client, with the column 1-indexed, and
+     * the reply of the server.
+     *
+     * @param parts the words of the command.
+     * @throws IllegalArgumentException if there is no game in progress or the column is not a
+     *                                  number.
+     */
+    private void makeMove(String[] parts) {
+        if (game == null) {
+            throw new IllegalArgumentException("No game in progress.");
+        }
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Usage: MOVE <column>");
+        }
+        int columnId = Integer.parseInt(parts[1]) - 1;
+        if (columnId < 0 || columnId >= columnCount) {
+            send("INVALID " + parts[1]);
+            send("TURN");
+            return;
+        }
+        client.setPendingMove(columnId);
+        if (game.playTurn().isSuccessful()) {
+            server.recordMove();
+        }
+        advance();
+    }
+
+    /**
+     * Plays the moves of the server until it is the client's turn, and tells the client so, or
+     * until the game is over, and releases it.
+     */
+    private void advance() {
+        while (!game.isOver() && game.getCurrentPlayer() != client) {
+            game.playTurn();
+        }
+        if (game.isOver()) {
+            releaseGame();
+        } else {
+            send("TURN");
+        }
+    }
+
+    /**
+     * Releases the game in progress, if there is one, before its end.
+     */
+    private void abandonGame() {
+        if (game != null) {
+            if (EngineMetrics.ENABLED) {
+                EngineMetrics.recordGameAbandoned();
+            }
+            releaseGame();
+        }
+    }
+
+    /**
+     * Releases the game in progress, and hands its computer player back to the server.
+     */
+    private void releaseGame() {
+        server.releaseOpponent(opponent);
+        opponent = null;
+        game = null;
+        playing = false;
+    }
+}
@@ -0,0 +1,72 @@
+package server;
+
+import model.Board;
+import model.BoardCell;
+import player.Player;
+
+/**
+ * Represents a player connected to the {@link GameServer} over the network.
+ *
+ * <p>Unlike the other players, it never waits for input: the session reading the connection hands
+ * it the move received from the client with {@link #setPendingMove(int)}, and only then asks the
+ * game to play the turn. This way no thread is blocked while a remote player is thinking.</p>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see GameSession
+ */
+public class NetworkPlayer extends Player {
+
+    /**
+     * The index (0-based) of the column received from the client, or {@code -1} if there is none.
+     */
+    private int pendingMove;
+
+    /**
+     * Constructs a new {@link NetworkPlayer} instance with the specified name and checker type.
+     *
+     * @param name    the name of the network player.
+     * @param checker a {@link BoardCell} instance representing the player's checker.
+     */
+    public NetworkPlayer(String name, BoardCell checker) {
+        super(name, checker);
+        pendingMove = -1;
+    }
+
+    /**
+     * Sets the move received from the client, to be returned by the next call to
+     * {@link #getMove(Board)}.
+     *
+     * @param columnId the index (0-based) of the column chosen by the client.
+     */
+    public void setPendingMove(int columnId) {
+        pendingMove = columnId;
+    }
+
+    /**
+     * Prepares the player for a new game, forgetting any move received for the previous one.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        pendingMove = -1;
+    }
+
+    /**
+     * Returns the move received from the client, and clears it.
+     *
+     * @param board a {@link Board} instance representing the current state of the game board.
+     * @return the column index (0-based) chosen by the client.
+     * @throws IllegalStateException if no move has been received from the client.
+     */
+    @Override
+    public int getMove(Board board) {
+        if (pendingMove < 0) {
+            throw new IllegalStateException("No move has been received from " + name + ".");
+        }
+        int columnId = pendingMove;
+        pendingMove = -1;
+        dropCount++;
+        return columnId;
+    }
+}
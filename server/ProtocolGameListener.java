@@ -0,0 +1,74 @@
+package server;
+
+import game.GameListener;
+import model.Board;
+import player.Player;
+
+/**
+ * A {@link GameListener} that reports the game events of a session to its client, as lines of the
+ * {@link GameServer} protocol.
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see GameServer
+ */
+public class ProtocolGameListener implements GameListener {
+
+    /**
+     * The {@link GameSession} instance whose client is notified.
+     */
+    private final GameSession session;
+
+    /**
+     * Constructs a new {@link ProtocolGameListener} instance for the specified session.
+     *
+     * @param session the {@link GameSession} instance whose client is notified.
+     */
+    public ProtocolGameListener(GameSession session) {
+        this.session = session;
+    }
+
+    /**
+     * Sends {@code PLAYED <checker> <column>} with the column 1-indexed.
+     *
+     * @param player   the {@link Player} instance who made the move.
+     * @param columnId the index (0-based) of the column the checker was dropped in.
+     * @param board    the {@link Board} instance representing the game board after the move.
+     */
+    @Override
+    public void onMoveMade(Player player, int columnId, Board board) {
+        session.send("PLAYED " + player.getChecker().getStatus() + " " + (columnId + 1));
+    }
+
+    /**
+     * Sends {@code INVALID <column>} with the column 1-indexed.
+     *
+     * @param player   the {@link Player} instance who attempted the move.
+     * @param columnId the index (0-based) of the column the player chose.
+     */
+    @Override
+    public void onInvalidMove(Player player, int columnId) {
+        session.send("INVALID " + (columnId + 1));
+    }
+
+    /**
+     * Sends {@code WIN <checker>}.
+     *
+     * @param winner the {@link Player} instance who won the game.
+     * @param board  the {@link Board} instance representing the final state of the game board.
+     */
+    @Override
+    public void onGameWon(Player winner, Board board) {
+        session.send("WIN " + winner.getChecker().getStatus());
+    }
+
+    /**
+     * Sends {@code DRAW}.
+     *
+     * @param board the {@link Board} instance representing the final state of the game board.
+     */
+    @Override
+    public void onGameDrawn(Board board) {
+        session.send("DRAW");
+    }
+}
@@ -0,0 +1,216 @@
+package training;
+
+/**
+ * A block of labeled training positions, stored column by column in parallel primitive arrays.
+ *
+ * <p>A record {@code i} is a position, encoded as the two bitboards of
+ * {@link ai.BatchEvaluator}: {@code current[i]} holds the checkers of the player to move, and
+ * {@code occupied[i]} all the checkers. It is labeled with a policy, the column (0-based) the
+ * labeling search would play; a value, the score of that search seen from the player to move; and
+ * an outcome, the final result of the game seen from the player to move: {@code 1} for a win,
+ * {@code 0} for a draw and {@code -1} for a loss.</p>
+ *
+ * <p>Blocks are the unit of work of {@link TrainingDataWriter}, and are recycled from one batch of
+ * records to the next rather than allocated, so a block must only be used by one thread at a
+ * time.</p>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see TrainingDataWriter
+ * @see TrainingDataReader
+ */
+public class PositionBlock {
+
+    /**
+     * The bitboards of the checkers of the player to move of every record.
+     */
+    final long[] current;
+
+    /**
+     * The bitboards of all the checkers of every record.
+     */
+    final long[] occupied;
+
+    /**
+     * The policy of every record.
+     */
+    final byte[] policy;
+
+    /**
+     * The value of every record.
+     */
+    final int[] value;
+
+    /**
+     * The outcome of every record.
+     */
+    final byte[] outcome;
+
+    /**
+     * The number of records in the block.
+     */
+    int count;
+
+    /**
+     * Constructs a new empty {@link PositionBlock} instance.
+     *
+     * @param capacity the maximum number of records in the block.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public PositionBlock(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid block capacity: " + capacity +
+                    ". Must be positive.");
+        }
+        current = new long[capacity];
+        occupied = new long[capacity];
+        policy = new byte[capacity];
+        value = new int[capacity];
+        outcome = new byte[capacity];
+    }
+
+    /**
+     * Appends a record to the block.
+     *
+     * @param current  the bitboard of the checkers of the player to move.
+     * @param occupied the bitboard of all the checkers.
+     * @param policy   the index (0-based) of the column played by the labeling search.
+     * @param value    the score of the labeling search seen from the player to move.
+     * @param outcome  the result of the game seen from the player to move: 1, 0 or -1.
+     * @throws IllegalStateException if the block is full.
+     */
+    public void add(long current, long occupied, int policy, int value, int outcome) {
+        if (count == this.current.length) {
+            throw new IllegalStateException("The block is full.");
+        }
+        this.current[count] = current;
+        this.occupied[count] = occupied;
+        this.policy[count] = (byte) policy;
+        this.value[count] = value;
+        this.outcome[count] = (byte) outcome;
+        count++;
+    }
+
+    /**
+     * Removes all the records from the block.
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Returns whether no more records can be appended to the block.
+     *
+     * @return {@code true} if the block is full; Otherwise, {@code false}.
+     */
+    public boolean isFull() {
+        return count == current.length;
+    }
+
+    /**
+     * Returns the maximum number of records in the block.
+     *
+     * @return the capacity of the block.
+     */
+    public int getCapacity() {
+        return current.length;
+    }
+
+    /**
+     * Returns the number of records in the block.
+     *
+     * @return the number of records.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the bitboard of the checkers of the player to move of the specified record.
+     *
+     * @param index the index of the record in the block.
+     * @return the bitboard of the checkers of the player to move.
+     */
+    public long getCurrent(int index) {
+        return current[checkIndex(index)];
+    }
+
+    /**
+     * Returns the bitboard of all the checkers of the specified record.
+     *
+     * @param index the index of the record in the block.
+     * @return the bitboard of all the checkers.
+     */
+    public long getOccupied(int index) {
+        return occupied[checkIndex(index)];
+    }
+
+    /**
+     * Returns the policy of the specified record.
+     *
+     * @param index the index of the record in the block.
+     * @return the index (0-based) of the column played by the labeling search.
+     */
+    public int getPolicy(int index) {
+        return policy[checkIndex(index)];
+    }
+
+    /**
+     * Returns the value of the specified record.
+     *
+     * @param index the index of the record in the block.
+     * @return the score of the labeling search seen from the player to move.
+     */
+    public int getValue(int index) {
+        return value[checkIndex(index)];
+    }
+
+    /**
+     * Returns the outcome of the specified record.
+     *
+     * @param index the index of the record in the block.
+     * @return the result of the game seen from the player to move: 1, 0 or -1.
+     */
+    public int getOutcome(int index) {
+        return outcome[checkIndex(index)];
+    }
+
+    /**
+     * Copies the bitboards of the records into batch arrays, such as the arguments of
+     * {@link ai.BatchEvaluator#evaluate}.
+     *
+     * @param current  the array receiving the checkers of the player to move of every record.
+     * @param occupied the array receiving all the checkers of every record.
+     * @return the number of records copied.
+     */
+    public int copyBitboards(long[] current, long[] occupied) {
+        System.arraycopy(this.current, 0, current, 0, count);
+        System.arraycopy(this.occupied, 0, occupied, 0, count);
+        return count;
+    }
+
+    /**
+     * Validates the index of a record.
+     *
+     * @param index the index of the record in the block.
+     * @return the index.
+     * @throws IndexOutOfBoundsException if there is no such record in the block.
+     */
+    private int checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Invalid record index: " + index +
+                    ". Must be between 0 and " + (count - 1) + ".");
+        }
+        return index;
+    }
+
+    /**
+     * Returns a one-line description of the block.
+     *
+     * @return the number of records and the capacity of the block.
+     */
+    @Override
+    public String toString() {
+        return "PositionBlock[" + count + "/" + current.length + "]";
+    }
+}
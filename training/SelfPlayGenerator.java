@@ -0,0 +1,432 @@
+package training;
+
+import ai.NegamaxStrategy;
+import ai.NoisyStrategy;
+import ai.TranspositionTable;
+import game.Connect4Game;
+import game.GameListener;
+import game.GameResult;
+import metrics.EngineMetrics;
+import model.Board;
+import model.BoardCell;
+import player.ComputerPlayer;
+import player.Player;
+import player.PlayerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Generates labeled training positions by playing headless games between two contenders across
+ * several threads, and streams them to a {@link TrainingDataWriter}.
+ *
+ * <p>Every thread plays its own games, like a {@link game.Tournament}: it reuses a single
+ * {@link Connect4Game} and a single player per contender, and the contenders take turns moving
+ * first. Once a game is over, every position before each of its moves is labeled with a
+ * {@link NegamaxStrategy} searching {@code labelDepth} plies with a {@link ai.ThreatEvaluator}:
+ * its best move is the policy, and its score the value. The final result of the game, seen from
+ * the player to move, is the outcome.</p>
+ *
+ * <p>Labels are written to blocks owned by the thread, so generating never waits on the file
+ * unless the pool of blocks of the writer runs dry. Exactly the requested number of positions is
+ * written; the last game of a thread may be labeled only in part.</p>
+ *
+ * <p>Usage: {@code java training.SelfPlayGenerator <file> <positions> <contenderA> <contenderB>
+ * [noise] [labelDepth] [threads]}, where a contender is described as for
+ * {@link PlayerFactory#parseComputerPlayer(String, String)}. The noise defaults to
+ * {@value #DEFAULT_NOISE}, the label depth to {@value #DEFAULT_LABEL_DEPTH} and the number of
+ * threads to the number of available processors. With {@code -Dconnect4.metrics=true}, the
+ * {@link EngineMetrics} are printed every {@value #REPORT_PERIOD_MILLIS} ms and once more at the
+ * end.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     java training.SelfPlayGenerator positions.c4td 1000000 negamax:6:heuristic random 0.1 8
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see TrainingDataWriter
+ * @see NoisyStrategy
+ */
+public class SelfPlayGenerator {
+
+    /**
+     * The default probability of a contender playing a random move. (Default: {@value})
+     */
+    public static final double DEFAULT_NOISE = 0.1;
+
+    /**
+     * The default search depth of the labels. (Default: {@value})
+     */
+    public static final int DEFAULT_LABEL_DEPTH = 8;
+
+    /**
+     * The size of the transposition table of the labeling search of every thread in megabytes.
+     * (Default: {@value})
+     */
+    public static final int LABEL_TABLE_MEGABYTES = 16;
+
+    /**
+     * The number of blocks of the writer per generating thread. (Default: {@value})
+     */
+    public static final int BLOCKS_PER_THREAD = 4;
+
+    /**
+     * The time between two metrics snapshots in milliseconds. (Default: {@value})
+     */
+    public static final long REPORT_PERIOD_MILLIS = 10_000;
+
+    /**
+     * The factory creating the players of contender A.
+     */
+    private final Function<BoardCell, Player> contenderA;
+
+    /**
+     * The factory creating the players of contender B.
+     */
+    private final Function<BoardCell, Player> contenderB;
+
+    /**
+     * The search depth of the labels.
+     */
+    private final int labelDepth;
+
+    /**
+     * The number of threads generating positions at once.
+     */
+    private final int threadCount;
+
+    /**
+     * Constructs a new {@link SelfPlayGenerator} instance between two contenders.
+     *
+     * @param contenderA  a factory creating a player of contender A for the specified checker.
+     * @param contenderB  a factory creating a player of contender B for the specified checker.
+     * @param labelDepth  the search depth of the labels.
+     * @param threadCount the number of threads generating positions at once.
+     * @throws IllegalArgumentException if the label depth or the thread count is not positive.
+     * @see #withNoise(Function, double)
+     */
+    public SelfPlayGenerator(Function<BoardCell, Player> contenderA,
+                             Function<BoardCell, Player> contenderB, int labelDepth,
+                             int threadCount) {
+        if (labelDepth <= 0) {
+            throw new IllegalArgumentException("Invalid label depth: " + labelDepth +
+                    ". Must be positive.");
+        }
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException("Invalid thread count: " + threadCount +
+                    ". Must be positive.");
+        }
+        this.contenderA = contenderA;
+        this.contenderB = contenderB;
+        this.labelDepth = labelDepth;
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Wraps a factory of computer players, so that the players it creates play a random move
+     * with the specified probability.
+     *
+     * @param contender a factory creating {@link ComputerPlayer} instances.
+     * @param noise     the probability of playing a random move, between 0 and 1.
+     * @return a factory creating the same players with a {@link NoisyStrategy}.
+     * @throws IllegalArgumentException if the probability is out of bounds, or, when called, the
+     *                                  factory creates a player that is not a computer player.
+     */
+    public static Function<BoardCell, Player> withNoise(Function<BoardCell, Player> contender,
+                                                        double noise) {
+        if (!(noise >= 0 && noise <= 1)) {
+            throw new IllegalArgumentException("Invalid noise: " + noise +
+                    ". Must be between 0 and 1.");
+        }
+        return checker -> {
+            Player player = contender.apply(checker);
+            if (!(player instanceof ComputerPlayer)) {
+                throw new IllegalArgumentException("Invalid contender: " + player.getName() +
+                        ". Must be a computer player.");
+            }
+            return new ComputerPlayer(player.getName(), checker,
+                    new NoisyStrategy(((ComputerPlayer) player).getStrategy(), noise));
+        };
+    }
+
+    /**
+     * Plays games until the specified number of labeled positions has been submitted to the
+     * writer. The writer is not closed.
+     *
+     * @param writer        the {@link TrainingDataWriter} instance receiving the positions.
+     * @param positionCount the number of positions to be generated.
+     * @return the number of games played.
+     * @throws IllegalArgumentException if the position count is negative.
+     * @throws IllegalStateException    if a game fails with an exception.
+     * @throws IOException              if the writer fails.
+     * @throws InterruptedException     if the calling thread is interrupted while waiting.
+     */
+    public long generate(TrainingDataWriter writer, long positionCount)
+            throws IOException, InterruptedException {
+        if (positionCount < 0) {
+            throw new IllegalArgumentException("Invalid position count: " + positionCount +
+                    ". Must not be negative.");
+        }
+        AtomicLong nextPosition = new AtomicLong();
+        AtomicLong nextGame = new AtomicLong();
+        LongAdder gameCount = new LongAdder();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                workers.add(executor.submit(() -> {
+                    new Worker(writer).run(positionCount, nextPosition, nextGame, gameCount);
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("A self-play game failed.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return gameCount.sum();
+    }
+
+    /**
+     * The state of a generating thread: its game, players, labeling search and current block.
+     */
+    private class Worker implements GameListener {
+
+        /**
+         * The {@link TrainingDataWriter} instance receiving the positions.
+         */
+        private final TrainingDataWriter writer;
+
+        /**
+         * The {@link Board} instance the finished games are replayed and labeled on.
+         */
+        private final Board board;
+
+        /**
+         * The {@link NegamaxStrategy} instance labeling the positions.
+         */
+        private final NegamaxStrategy labeler;
+
+        /**
+         * The columns (0-indexed) of the moves of the last finished game.
+         */
+        private final int[] moves;
+
+        /**
+         * The number of moves of the last finished game.
+         */
+        private int moveCount;
+
+        /**
+         * The block being filled, or {@code null} if none.
+         */
+        private PositionBlock block;
+
+        /**
+         * Constructs a new {@link Worker} instance.
+         *
+         * @param writer the {@link TrainingDataWriter} instance receiving the positions.
+         */
+        Worker(TrainingDataWriter writer) {
+            this.writer = writer;
+            board = new Board(writer.getRowCount(), writer.getColumnCount(),
+                    writer.getConnectLength());
+            labeler = new NegamaxStrategy(labelDepth, 0,
+                    new TranspositionTable(LABEL_TABLE_MEGABYTES), true);
+            moves = new int[board.getCellCount()];
+        }
+
+        /**
+         * Plays and labels games until the requested number of positions has been claimed by all
+         * the threads together, and closes the players of the thread.
+         *
+         * @param positionCount the number of positions to be generated.
+         * @param nextPosition  the number of positions claimed by all the threads so far.
+         * @param nextGame      the number of games started by all the threads so far.
+         * @param gameCount     the number of games played by all the threads.
+         * @throws IOException          if the writer fails.
+         * @throws InterruptedException if the thread is interrupted while waiting for a block.
+         */
+        void run(long positionCount, AtomicLong nextPosition, AtomicLong nextGame,
+                 LongAdder gameCount) throws IOException, InterruptedException {
+            Player playerA = null;
+            Player playerB = null;
+            Connect4Game game = null;
+            try {
+                while (nextPosition.get() < positionCount) {
+                    boolean aFirst = nextGame.getAndIncrement() % 2 == 0;
+                    BoardCell checkerA = aFirst ? BoardCell.PLAYER_A : BoardCell.PLAYER_B;
+                    if (playerA == null) {
+                        playerA = contenderA.apply(checkerA);
+                        playerB = contenderB.apply(checkerA.getOpponent());
+                    } else {
+                        playerA.setChecker(checkerA);
+                        playerB.setChecker(checkerA.getOpponent());
+                    }
+                    Player first = aFirst ? playerA : playerB;
+                    Player second = aFirst ? playerB : playerA;
+                    if (game == null) {
+                        game = new Connect4Game(first, second, board.getRowCount(),
+                                board.getColumnCount(), board.getConnectLength(), this);
+                    } else {
+                        game.reset(first, second);
+                    }
+                    GameResult result = game.play();
+                    gameCount.increment();
+
+                    // Claim the positions of the game, up to the requested count
+                    long claimed = nextPosition.getAndAdd(moveCount);
+                    long labelCount = Math.min(moveCount, positionCount - claimed);
+                    if (labelCount > 0) {
+                        label((int) labelCount, result.isDraw() ? -1 : result.getWinnerId());
+                    }
+                }
+            } finally {
+                if (block != null) {
+                    writer.submitBlock(block);
+                    block = null;
+                }
+                if (playerA != null) {
+                    playerA.close();
+                    playerB.close();
+                }
+            }
+        }
+
+        /**
+         * Replays the last finished game and labels the positions before its first moves.
+         *
+         * @param labelCount the number of positions to be labeled.
+         * @param winnerId   the index of the winner, 0 for the first player and 1 for the second
+         *                   one, or -1 for a draw.
+         * @throws IOException          if the writer fails.
+         * @throws InterruptedException if the thread is interrupted while waiting for a block.
+         */
+        private void label(int labelCount, int winnerId) throws IOException,
+                InterruptedException {
+            board.reset();
+            BoardCell checker = BoardCell.PLAYER_A;
+            for (int ply = 0; ply < labelCount; ply++) {
+                if (block == null) {
+                    block = writer.acquireBlock();
+                }
+                int policy = labeler.selectMove(board, checker);
+                int outcome = winnerId < 0 ? 0 : winnerId == ply % 2 ? 1 : -1;
+                long current = board.getBitboard(checker);
+                block.add(current, current | board.getBitboard(checker.getOpponent()), policy,
+                        labeler.getLastScore(), outcome);
+                if (block.isFull()) {
+                    writer.submitBlock(block);
+                    block = null;
+                }
+                board.dropChecker(moves[ply], checker);
+                checker = checker.getOpponent();
+            }
+        }
+
+        /**
+         * Keeps the moves of the game once it has been won.
+         *
+         * @param winner the {@link Player} instance who won the game.
+         * @param board  the {@link Board} instance representing the final game board.
+         */
+        @Override
+        public void onGameWon(Player winner, Board board) {
+            keepMoves(board);
+        }
+
+        /**
+         * Keeps the moves of the game once it has been drawn.
+         *
+         * @param board the {@link Board} instance representing the final game board.
+         */
+        @Override
+        public void onGameDrawn(Board board) {
+            keepMoves(board);
+        }
+
+        /**
+         * Copies the moves of a finished game.
+         *
+         * @param finalBoard the {@link Board} instance representing the final game board.
+         */
+        private void keepMoves(Board finalBoard) {
+            moveCount = finalBoard.getMoveCount();
+            for (int ply = 0; ply < moveCount; ply++) {
+                moves[ply] = finalBoard.getMove(ply);
+            }
+        }
+    }
+
+    /**
+     * The main entry point of the self-play generator.
+     *
+     * @param args the training data file, the number of positions, the two contender
+     *             descriptions, and an optional noise, label depth and number of threads.
+     * @throws IOException          if the training data file cannot be written.
+     * @throws InterruptedException if the main thread is interrupted while waiting for the games.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 4) {
+            System.out.println("Usage: java training.SelfPlayGenerator <file> <positions> " +
+                    "<contenderA> <contenderB> [noise] [labelDepth] [threads]");
+            System.out.println("A contender is 'random', 'negamax:<depth>[:heuristic]', " +
+                    "'ponder:<depth>[:heuristic][:<tableMB>]', 'mcts:<millis>[:<threads>]', " +
+                    "'solver:<emptyCells>[:<threads>[:<tableMB>]]' or 'network:<file>'.");
+            return;
+        }
+        Path file = Path.of(args[0]);
+        long positions = Long.parseLong(args[1]);
+        double noise = args.length > 4 ? Double.parseDouble(args[4]) : DEFAULT_NOISE;
+        int labelDepth = args.length > 5 ? Integer.parseInt(args[5]) : DEFAULT_LABEL_DEPTH;
+        int threads = args.length > 6 ? Integer.parseInt(args[6])
+                : Runtime.getRuntime().availableProcessors();
+        SelfPlayGenerator generator = new SelfPlayGenerator(
+                withNoise(PlayerFactory.parseComputerPlayer("A", args[2]), noise),
+                withNoise(PlayerFactory.parseComputerPlayer("B", args[3]), noise),
+                labelDepth, threads);
+
+        System.out.println("Generating " + positions + " positions from games of " + args[2] +
+                " (A) against " + args[3] + " (B) with noise " + noise + ", labeled " +
+                labelDepth + " plies deep on " + threads + " threads...");
+        ScheduledExecutorService reporter = EngineMetrics.ENABLED
+                ? EngineMetrics.startReporter(System.out, REPORT_PERIOD_MILLIS) : null;
+        long start = System.nanoTime();
+        TrainingDataWriter writer = new TrainingDataWriter(file, threads * BLOCKS_PER_THREAD);
+        long games;
+        try {
+            games = generator.generate(writer, positions);
+        } finally {
+            writer.close();
+        }
+        long written = writer.getRecordCount();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (reporter != null) {
+            reporter.shutdownNow();
+            System.out.print(EngineMetrics.snapshot());
+        }
+        System.out.printf("Games: %,d  Positions: %,d  in %.2f s (%,.0f positions/s)%n", games,
+                written, seconds, written / seconds);
+    }
+}
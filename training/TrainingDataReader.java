@@ -0,0 +1,250 @@
+package training;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A streaming reader of training data files written by {@link TrainingDataWriter}.
+ *
+ * <p>Blocks are read one at a time into a {@link PositionBlock} reused by the caller, every column
+ * in a single bulk copy, so files of any size can be read with a constant amount of memory.</p>
+ *
+ * <p>Usage: {@code java training.TrainingDataReader <file>} reads every block of a file and prints
+ * a summary.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     try (TrainingDataReader reader = new TrainingDataReader(Path.of("positions.c4td"))) {
+ *         PositionBlock block = new PositionBlock(reader.getBlockRecords());
+ *         while (reader.readBlock(block)) {
+ *             // Train on the records of the block
+ *         }
+ *     }
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see TrainingDataWriter
+ */
+public class TrainingDataReader implements Closeable {
+
+    /**
+     * The {@link FileChannel} the blocks are read from.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The buffer a block is read into before being decoded.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The number of rows of every position.
+     */
+    private final int rowCount;
+
+    /**
+     * The number of columns of every position.
+     */
+    private final int columnCount;
+
+    /**
+     * The connect length of every position.
+     */
+    private final int connectLength;
+
+    /**
+     * The maximum number of records of a block.
+     */
+    private final int blockRecords;
+
+    /**
+     * Constructs a new {@link TrainingDataReader} instance reading the specified file.
+     *
+     * @param file the {@link Path} of the training data file.
+     * @throws IOException              if the file cannot be opened or its header read.
+     * @throws IllegalArgumentException if the file is not a valid training data file.
+     */
+    public TrainingDataReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(TrainingDataWriter.HEADER_SIZE);
+            if (!readFully(header) || header.getInt() != TrainingDataWriter.MAGIC
+                    || header.get() != TrainingDataWriter.VERSION) {
+                throw new IllegalArgumentException("Invalid training data file: " + file);
+            }
+            rowCount = Byte.toUnsignedInt(header.get());
+            columnCount = Byte.toUnsignedInt(header.get());
+            connectLength = Byte.toUnsignedInt(header.get());
+            blockRecords = header.getInt();
+            if (blockRecords <= 0) {
+                throw new IllegalArgumentException("Invalid training data file: " + file);
+            }
+            buffer = ByteBuffer.allocateDirect(blockRecords * TrainingDataWriter.RECORD_SIZE);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of rows of every position.
+     *
+     * @return the number of rows.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the number of columns of every position.
+     *
+     * @return the number of columns.
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Returns the connect length of every position.
+     *
+     * @return the connect length.
+     */
+    public int getConnectLength() {
+        return connectLength;
+    }
+
+    /**
+     * Returns the maximum number of records of a block, which is the capacity a block passed to
+     * {@link #readBlock(PositionBlock)} needs.
+     *
+     * @return the maximum number of records of a block.
+     */
+    public int getBlockRecords() {
+        return blockRecords;
+    }
+
+    /**
+     * Reads the next block into the specified block, replacing its records.
+     *
+     * @param block the {@link PositionBlock} instance receiving the records, with a capacity of at
+     *              least {@link #getBlockRecords()}.
+     * @return {@code true} if a block has been read, or {@code false} if there are no more blocks.
+     * @throws IllegalArgumentException if the block is too small.
+     * @throws IOException              if the file cannot be read, or holds a truncated or corrupt
+     *                                  block.
+     */
+    public boolean readBlock(PositionBlock block) throws IOException {
+        if (block.getCapacity() < blockRecords) {
+            throw new IllegalArgumentException("Invalid block capacity: " + block.getCapacity() +
+                    ". Must be at least " + blockRecords + ".");
+        }
+        buffer.clear().limit(Integer.BYTES);
+        if (!readFully(buffer)) {
+            return false;
+        }
+        int count = buffer.getInt();
+        if (count <= 0 || count > blockRecords) {
+            throw new IOException("Corrupt training data: invalid block size " + count + ".");
+        }
+        buffer.clear().limit(count * TrainingDataWriter.RECORD_SIZE);
+        if (!readFully(buffer)) {
+            throw new EOFException("Truncated training data block of " + count + " records.");
+        }
+
+        buffer.asLongBuffer().get(block.current, 0, count);
+        buffer.position(buffer.position() + count * Long.BYTES);
+        buffer.asLongBuffer().get(block.occupied, 0, count);
+        buffer.position(buffer.position() + count * Long.BYTES);
+        buffer.get(block.policy, 0, count);
+        buffer.asIntBuffer().get(block.value, 0, count);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        buffer.get(block.outcome, 0, count);
+        block.count = count;
+        return true;
+    }
+
+    /**
+     * Fills the remaining space of a buffer from the file, and flips it for reading.
+     *
+     * @param target the buffer to be filled.
+     * @return {@code true} if the buffer has been filled, or {@code false} if the file ends before
+     *         the first byte.
+     * @throws EOFException if the file ends after the first byte.
+     * @throws IOException  if the file cannot be read.
+     */
+    private boolean readFully(ByteBuffer target) throws IOException {
+        int start = target.position();
+        while (target.hasRemaining()) {
+            if (channel.read(target) < 0) {
+                if (target.position() == start) {
+                    return false;
+                }
+                throw new EOFException("Truncated training data file.");
+            }
+        }
+        target.flip();
+        return true;
+    }
+
+    /**
+     * Closes the underlying file.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads every block of a training data file and prints a summary.
+     *
+     * @param args the training data file.
+     * @throws IOException if the file cannot be read or holds invalid blocks.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println("Usage: java training.TrainingDataReader <file>");
+            return;
+        }
+        long records = 0;
+        long blocks = 0;
+        long checkers = 0;
+        long[] outcomes = new long[3];
+        long start = System.nanoTime();
+        try (TrainingDataReader reader = new TrainingDataReader(Path.of(args[0]))) {
+            PositionBlock block = new PositionBlock(reader.getBlockRecords());
+            long[] policies = new long[reader.getColumnCount()];
+            while (reader.readBlock(block)) {
+                blocks++;
+                records += block.getCount();
+                for (int i = 0; i < block.getCount(); i++) {
+                    checkers += Long.bitCount(block.getOccupied(i));
+                    policies[block.getPolicy(i)]++;
+                    outcomes[block.getOutcome(i) + 1]++;
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Board: %dx%d connect %d%n", reader.getRowCount(),
+                    reader.getColumnCount(), reader.getConnectLength());
+            System.out.printf("Records: %,d in %,d blocks  Mean checkers: %.1f%n", records,
+                    blocks, records == 0 ? 0.0 : (double) checkers / records);
+            System.out.printf("Outcomes for the player to move: %,d wins  %,d draws  " +
+                    "%,d losses%n", outcomes[2], outcomes[1], outcomes[0]);
+            StringBuilder policyText = new StringBuilder("Policy:");
+            for (int i = 0; i < policies.length; i++) {
+                policyText.append("  ").append(i + 1).append(": ").append(policies[i]);
+            }
+            System.out.println(policyText);
+            System.out.printf("Read in %.2f s (%,.0f records/s)%n", seconds, records / seconds);
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package training;
+
+import model.Board;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A writer streaming blocks of labeled training positions to a file in a compact binary columnar
+ * format, on a thread of its own.
+ *
+ * <p>A training data file starts with a {@value #HEADER_SIZE}-byte header: the magic number
+ * {@code "C4TD"}, the format version, the number of rows, columns and connect length of every
+ * position, and the maximum number of records of a block. It is followed by the blocks, each of
+ * them the number of its records followed by one column per field: the {@code current} and
+ * {@code occupied} bitboards as {@code long}s, the policies as bytes, the values as {@code int}s
+ * and the outcomes as bytes. A record takes {@value #RECORD_SIZE} bytes, and a column can be read
+ * straight into a primitive array.</p>
+ *
+ * <p>Producers never write to the file themselves. They take an empty {@link PositionBlock} from
+ * a fixed pool with {@link #acquireBlock()}, fill it, and hand it over with
+ * {@link #submitBlock(PositionBlock)}, which only queues it. A single writer thread writes the
+ * queued blocks and returns them to the pool, so producers carry on while the disk is busy. Only
+ * when the disk cannot keep up on average does the pool run dry, and {@link #acquireBlock()}
+ * blocks until a block is written: memory stays bounded by the pool, whatever the rate of the
+ * producers.</p>
+ *
+ * <p>The writer is thread-safe; every block must be submitted by the thread that acquired it.</p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * {@code
+ *     try (TrainingDataWriter writer = new TrainingDataWriter(Path.of("positions.c4td"), 16)) {
+ *         PositionBlock block = writer.acquireBlock();
+ *         block.add(current, occupied, policy, value, outcome);
+ *         writer.submitBlock(block);
+ *     }
+ * }
+ * </pre>
+ *
+ * @author Dongzhi Zhang (dongzhiz), Peitong Zhu (peitongz)
+ * @version 1.0
+ * @see TrainingDataReader
+ * @see SelfPlayGenerator
+ */
+public class TrainingDataWriter implements Closeable {
+
+    /**
+     * The magic number at the start of every training data file ({@code "C4TD"}).
+     */
+    static final int MAGIC = 0x43345444;
+
+    /**
+     * The version of the training data file format. (Default: {@value})
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The size of the file header in bytes. (Default: {@value})
+     */
+    static final int HEADER_SIZE = 12;
+
+    /**
+     * The size of a record in bytes. (Default: {@value})
+     */
+    static final int RECORD_SIZE = 2 * Long.BYTES + Byte.BYTES + Integer.BYTES + Byte.BYTES;
+
+    /**
+     * The default maximum number of records of a block. (Default: {@value})
+     */
+    public static final int DEFAULT_BLOCK_RECORDS = 4096;
+
+    /**
+     * The number of rows of every position.
+     */
+    private final int rowCount;
+
+    /**
+     * The number of columns of every position.
+     */
+    private final int columnCount;
+
+    /**
+     * The connect length of every position.
+     */
+    private final int connectLength;
+
+    /**
+     * The {@link FileChannel} the blocks are written to, only used by the writer thread once the
+     * header is written.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The buffer a block is encoded into before being written, only used by the writer thread.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The empty blocks ready to be acquired by producers.
+     */
+    private final BlockingQueue<PositionBlock> freeBlocks;
+
+    /**
+     * The blocks submitted by producers and waiting to be written.
+     */
+    private final BlockingQueue<PositionBlock> fullBlocks;
+
+    /**
+     * The block queued by {@link #close()} to stop the writer thread.
+     */
+    private final PositionBlock endOfStream;
+
+    /**
+     * The thread writing the submitted blocks.
+     */
+    private final Thread writerThread;
+
+    /**
+     * The number of records written to the file.
+     */
+    private volatile long recordCount;
+
+    /**
+     * The failure of the writer thread, or {@code null} if none.
+     */
+    private volatile IOException failure;
+
+    /**
+     * Whether the writer has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * Constructs a new {@link TrainingDataWriter} instance writing positions of the default board
+     * to the specified file, with blocks of {@value #DEFAULT_BLOCK_RECORDS} records.
+     *
+     * @param file       the {@link Path} of the training data file, replaced if it exists.
+     * @param blockCount the number of blocks in the pool, such as twice the number of producers.
+     * @throws IOException              if the file cannot be created.
+     * @throws IllegalArgumentException if the number of blocks is not positive.
+     */
+    public TrainingDataWriter(Path file, int blockCount) throws IOException {
+        this(file, Board.ROW_CNT, Board.COLUMN_CNT, Board.CONNECT_LENGTH, DEFAULT_BLOCK_RECORDS,
+                blockCount);
+    }
+
+    /**
+     * Constructs a new {@link TrainingDataWriter} instance writing positions of the specified
+     * board to the specified file.
+     *
+     * @param file          the {@link Path} of the training data file, replaced if it exists.
+     * @param rowCount      the number of rows of every position.
+     * @param columnCount   the number of columns of every position.
+     * @param connectLength the connect length of every position.
+     * @param blockRecords  the maximum number of records of a block.
+     * @param blockCount    the number of blocks in the pool, such as twice the number of
+     *                      producers.
+     * @throws IOException              if the file cannot be created.
+     * @throws IllegalArgumentException if the board does not fit in a single-word bitboard, or the
+     *                                  size or number of blocks is not positive.
+     */
+    public TrainingDataWriter(Path file, int rowCount, int columnCount, int connectLength,
+                              int blockRecords, int blockCount) throws IOException {
+        Board.validateSingleWordDimensions(rowCount, columnCount, connectLength);
+        if (blockRecords <= 0) {
+            throw new IllegalArgumentException("Invalid block size: " + blockRecords +
+                    ". Must be positive.");
+        }
+        if (blockCount <= 0) {
+            throw new IllegalArgumentException("Invalid block count: " + blockCount +
+                    ". Must be positive.");
+        }
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.connectLength = connectLength;
+        buffer = ByteBuffer.allocateDirect(Integer.BYTES + blockRecords * RECORD_SIZE);
+        freeBlocks = new ArrayBlockingQueue<>(blockCount);
+        for (int i = 0; i < blockCount; i++) {
+            freeBlocks.add(new PositionBlock(blockRecords));
+        }
+        // Every block is either free, being filled, or queued, so neither queue ever overflows
+        fullBlocks = new ArrayBlockingQueue<>(blockCount + 1);
+        endOfStream = new PositionBlock(1);
+
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.putInt(MAGIC);
+        buffer.put((byte) VERSION);
+        buffer.put((byte) rowCount);
+        buffer.put((byte) columnCount);
+        buffer.put((byte) connectLength);
+        buffer.putInt(blockRecords);
+        try {
+            writeBuffer();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        writerThread = new Thread(this::writeBlocks, "training-data-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Takes an empty block from the pool, waiting for the writer thread to write one if they are
+     * all in use.
+     *
+     * @return an empty {@link PositionBlock} instance, to be submitted once filled.
+     * @throws IOException          if the writer thread has failed.
+     * @throws InterruptedException if the calling thread is interrupted while waiting.
+     */
+    public PositionBlock acquireBlock() throws IOException, InterruptedException {
+        checkFailure();
+        PositionBlock block = freeBlocks.take();
+        block.clear();
+        return block;
+    }
+
+    /**
+     * Queues a block acquired from this writer to be written, and gives up the caller's use of
+     * it. An empty block is simply returned to the pool.
+     *
+     * @param block the {@link PositionBlock} instance to be written.
+     * @throws IOException if the writer thread has failed.
+     */
+    public void submitBlock(PositionBlock block) throws IOException {
+        fullBlocks.add(block);
+        checkFailure();
+    }
+
+    /**
+     * Writes the queued blocks and returns them to the pool until {@link #endOfStream} is queued.
+     *
+     * <p>After a failure, the blocks are still returned to the pool without being written, so
+     * that no producer waits forever for one.</p>
+     */
+    private void writeBlocks() {
+        while (true) {
+            PositionBlock block;
+            try {
+                block = fullBlocks.take();
+            } catch (InterruptedException e) {
+                failure = new InterruptedIOException("The training data writer was interrupted.");
+                return;
+            }
+            if (block == endOfStream) {
+                return;
+            }
+            if (failure == null && block.count > 0) {
+                try {
+                    writeBlock(block);
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            freeBlocks.add(block);
+        }
+    }
+
+    /**
+     * Encodes a block column by column and writes it to the file.
+     *
+     * @param block the {@link PositionBlock} instance to be written.
+     * @throws IOException if the file cannot be written.
+     */
+    private void writeBlock(PositionBlock block) throws IOException {
+        int count = block.count;
+        buffer.putInt(count);
+        buffer.asLongBuffer().put(block.current, 0, count);
+        buffer.position(buffer.position() + count * Long.BYTES);
+        buffer.asLongBuffer().put(block.occupied, 0, count);
+        buffer.position(buffer.position() + count * Long.BYTES);
+        buffer.put(block.policy, 0, count);
+        buffer.asIntBuffer().put(block.value, 0, count);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        buffer.put(block.outcome, 0, count);
+        writeBuffer();
+        recordCount += count;
+    }
+
+    /**
+     * Writes the contents of the buffer to the file, and clears it.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Throws the failure of the writer thread, if any.
+     *
+     * @throws IOException if the writer thread has failed.
+     */
+    private void checkFailure() throws IOException {
+        IOException e = failure;
+        if (e != null) {
+            throw new IOException("Failed to write the training data.", e);
+        }
+    }
+
+    /**
+     * Returns the number of records written to the file so far.
+     *
+     * @return the number of records written.
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Returns the number of rows of every position.
+     *
+     * @return the number of rows.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the number of columns of every position.
+     *
+     * @return the number of columns.
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Returns the connect length of every position.
+     *
+     * @return the connect length.
+     */
+    public int getConnectLength() {
+        return connectLength;
+    }
+
+    /**
+     * Writes the blocks submitted so far, stops the writer thread and closes the file. Blocks
+     * still held by producers are not written.
+     *
+     * @throws IOException if the file cannot be written or closed, or the calling thread is
+     *                     interrupted while waiting for the writer thread.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        fullBlocks.add(endOfStream);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing the training data file.");
+        } finally {
+            if (!writerThread.isAlive()) {
+                channel.close();
+            }
+        }
+        checkFailure();
+    }
+}